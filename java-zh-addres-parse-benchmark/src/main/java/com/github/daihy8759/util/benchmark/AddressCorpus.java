@@ -0,0 +1,118 @@
+package com.github.daihy8759.util.benchmark;
+
+import com.github.daihy8759.util.constant.AddressConstant;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.model.Area;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 由区划数据生成的测试地址
+ * <p>
+ * 随机选取街道或区县，拼出上级区划（可能省略或简写），再混入详细地址、姓名、手机号、邮编、关键字和标点，
+ * 并打乱各段顺序。相同的种子生成相同的地址。
+ */
+public final class AddressCorpus {
+
+  private static final String[] DETAILS = {"人民路1号", "科技园A栋301", "幸福小区3-2-201", "和平街88号",
+      "中山大道西100号", "山海四季城F栋17A", "大学城南路9号", "工业园区8栋2楼"};
+
+  private static final String[] GIVEN_NAMES = {"小明", "伟", "芳", "秀英", "先生", "女士", "小姐", "建国",
+      "晓光"};
+
+  private static final String[] KEYWORDS = {"收货地址:", "地址：", "收件人", "联系电话：", "所在地区:", ""};
+
+  private static final String[] SEPARATORS = {" ", " ", "\n", "\t", ";", "、", "，", ","};
+
+  private AddressCorpus() {
+  }
+
+  /**
+   * 生成地址
+   *
+   * @param size 地址数量
+   * @param seed 随机种子
+   */
+  public static List<String> generate(int size, long seed) {
+    AreaDictionary dictionary = AreaSnapshot.load();
+    List<Integer> streets = new ArrayList<>();
+    List<Integer> areas = new ArrayList<>();
+    for (int i = 0; i < dictionary.size(); i++) {
+      if (dictionary.levelOf(i) == 4) {
+        streets.add(i);
+      } else if (dictionary.levelOf(i) == 3) {
+        areas.add(i);
+      }
+    }
+    Random random = new Random(seed);
+    List<String> corpus = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      boolean withStreet = random.nextInt(10) < 6;
+      Area street = withStreet ? dictionary.getArea(pick(random, streets)) : null;
+      Area area = withStreet ? dictionary.getAreaSingle(street.getParentCode(), 3)
+          : dictionary.getArea(pick(random, areas));
+      Area city = dictionary.getAreaSingle(area.getParentCode(), 2);
+      Area province = dictionary.getAreaSingle(city.getParentCode(), 1);
+
+      StringBuilder region = new StringBuilder();
+      String separator = random.nextBoolean() ? "" : " ";
+      appendName(region, province, random, 8, 3, separator);
+      appendName(region, city, random, 8, 2, separator);
+      appendName(region, area, random, 9, 2, separator);
+      if (street != null) {
+        appendName(region, street, random, 8, 0, separator);
+      }
+      region.append(DETAILS[random.nextInt(DETAILS.length)]);
+
+      List<String> segments = new ArrayList<>();
+      segments.add(region.toString());
+      if (random.nextInt(10) < 7) {
+        segments.add(AddressConstant.ZH_NAME.get(random.nextInt(AddressConstant.ZH_NAME.size()))
+            + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]);
+      }
+      if (random.nextInt(10) < 7) {
+        segments.add(phone(random));
+      }
+      if (random.nextInt(10) < 3) {
+        segments.add(String.valueOf(100000 + random.nextInt(900000)));
+      }
+      Collections.shuffle(segments, random);
+      corpus.add(KEYWORDS[random.nextInt(KEYWORDS.length)]
+          + String.join(SEPARATORS[random.nextInt(SEPARATORS.length)], segments));
+    }
+    return corpus;
+  }
+
+  /**
+   * 按概率写入全称或去掉末尾若干字的简写
+   *
+   * @param keep  写入的概率（十分之几）
+   * @param strip 简写时去掉的最大字数，0 表示不简写
+   */
+  private static void appendName(StringBuilder builder, Area area, Random random, int keep,
+      int strip, String separator) {
+    if (random.nextInt(10) >= keep) {
+      return;
+    }
+    String name = area.getName();
+    if (strip > 0 && name.length() > strip + 1 && random.nextInt(10) < 2) {
+      name = name.substring(0, name.length() - 1 - random.nextInt(strip));
+    }
+    builder.append(name).append(separator);
+  }
+
+  private static String phone(Random random) {
+    StringBuilder phone = new StringBuilder(random.nextInt(10) < 1 ? "86-1" : "1");
+    for (int i = 0; i < 10; i++) {
+      phone.append(random.nextInt(10));
+    }
+    return phone.toString();
+  }
+
+  private static int pick(Random random, List<Integer> list) {
+    return list.get(random.nextInt(list.size()));
+  }
+}
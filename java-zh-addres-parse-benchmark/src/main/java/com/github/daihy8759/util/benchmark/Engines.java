@@ -0,0 +1,53 @@
+package com.github.daihy8759.util.benchmark;
+
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.db.MappedAreaRepository;
+import com.github.daihy8759.util.db.SqliteAreaRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 按基准参数 engine 创建区划仓库
+ * <p>
+ * dictionary：内存字典；mapped：内存映射的快照文件；sqlite：逐次查询 data.db
+ */
+public final class Engines {
+
+  private Engines() {
+  }
+
+  public static AreaRepository repository(String engine) {
+    switch (engine) {
+      case "sqlite":
+        return new SqliteAreaRepository();
+      case "mapped":
+        return MappedAreaRepository.open(snapshotFile());
+      case "dictionary":
+        return new DictionaryAreaRepository(AreaSnapshot.load());
+      default:
+        throw new IllegalArgumentException("unknown engine: " + engine);
+    }
+  }
+
+  /**
+   * 快照打包在 jar 中，复制到临时文件后才能映射
+   */
+  private static Path snapshotFile() {
+    try (InputStream in = Engines.class.getClassLoader()
+        .getResourceAsStream(AreaSnapshot.RESOURCE)) {
+      Path file = Files.createTempFile("area", ".bin");
+      file.toFile().deleteOnExit();
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
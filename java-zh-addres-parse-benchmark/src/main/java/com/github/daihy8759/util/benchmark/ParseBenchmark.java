@@ -0,0 +1,67 @@
+package com.github.daihy8759.util.benchmark;
+
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 完整解析流程
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+  /**
+   * @see Engines
+   */
+  @Param({"dictionary"})
+  public String engine;
+
+  @Param({"10000"})
+  public int corpusSize;
+
+  private List<String> corpus;
+
+  private AddressParser parser;
+
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    corpus = AddressCorpus.generate(corpusSize, 20210408L);
+    parser = new AddressParser(Engines.repository(engine));
+  }
+
+  @Benchmark
+  public ParseResult parse() {
+    return parser.parse(nextAddress(), true, true, true);
+  }
+
+  @Benchmark
+  public ParseResult parseAddressOnly() {
+    return parser.parse(nextAddress(), false, false, false);
+  }
+
+  private String nextAddress() {
+    String address = corpus.get(next);
+    next = next + 1 == corpus.size() ? 0 : next + 1;
+    return address;
+  }
+}
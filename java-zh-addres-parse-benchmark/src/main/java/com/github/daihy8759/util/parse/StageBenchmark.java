@@ -0,0 +1,147 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.benchmark.AddressCorpus;
+import com.github.daihy8759.util.benchmark.Engines;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 解析流程的各个阶段，放在 parse 包下以便访问包内方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StageBenchmark {
+
+  /**
+   * @see Engines
+   */
+  @Param({"dictionary"})
+  public String engine;
+
+  @Param({"10000"})
+  public int corpusSize;
+
+  private List<String> addresses;
+
+  private List<String> fragments;
+
+  private AreaRepository repository;
+
+  private AreaDictionary dictionary;
+
+  private int nextAddress;
+
+  private int nextFragment;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    repository = Engines.repository(engine);
+    dictionary = repository.dictionary();
+    addresses = AddressCorpus.generate(corpusSize, 20210408L);
+    fragments = new ArrayList<>();
+    for (String address : addresses) {
+      AddressTokenizer tokenizer = AddressTokenizer.clean(address);
+      tokenizer.extractPhone();
+      tokenizer.extractPostalCode();
+      fragments.addAll(tokenizer.fragments());
+    }
+  }
+
+  @Benchmark
+  public AddressTokenizer cleanAddress() {
+    return AddressTokenizer.clean(addresses.get(nextAddress()));
+  }
+
+  /**
+   * 清洗并提取手机号
+   */
+  @Benchmark
+  public String extractPhone() {
+    return AddressTokenizer.clean(addresses.get(nextAddress())).extractPhone();
+  }
+
+  /**
+   * 清洗、提取手机号和邮编并切分片段
+   */
+  @Benchmark
+  public List<String> tokenize() {
+    AddressTokenizer tokenizer = AddressTokenizer.clean(addresses.get(nextAddress()));
+    tokenizer.extractPhone();
+    tokenizer.extractPostalCode();
+    return tokenizer.fragments();
+  }
+
+  @Benchmark
+  public String parseProvince() {
+    return ProvinceParser.parseProvince(repository, AddressResult.builder(null),
+        fragments.get(nextFragment()));
+  }
+
+  @Benchmark
+  public String parseCity() {
+    return CityParser.parseCity(repository, AddressResult.builder(null),
+        fragments.get(nextFragment()));
+  }
+
+  @Benchmark
+  public String parseArea() {
+    return AreaParser.parseArea(repository, AddressResult.builder(null),
+        fragments.get(nextFragment()));
+  }
+
+  @Benchmark
+  public String parseStreet() {
+    return StreetParser.parseStreet(repository, AddressResult.builder(null),
+        fragments.get(nextFragment()));
+  }
+
+  /**
+   * 字典树一次转移解析四级区划，仅 engine=dictionary 时有效
+   */
+  @Benchmark
+  public String resolveRegion() {
+    String fragment = fragments.get(nextFragment());
+    if (dictionary == null) {
+      return fragment;
+    }
+    return RegionResolver.resolve(dictionary, AddressResult.builder(dictionary), fragment);
+  }
+
+  @Benchmark
+  public String judgeFragmentIsName() {
+    return ZhAddressParser.judgeFragmentIsName(fragments.get(nextFragment()),
+        ZhAddressParser.NAME_MAX_LENGTH);
+  }
+
+  private int nextAddress() {
+    int index = nextAddress;
+    nextAddress = index + 1 == addresses.size() ? 0 : index + 1;
+    return index;
+  }
+
+  private int nextFragment() {
+    int index = nextFragment;
+    nextFragment = index + 1 == fragments.size() ? 0 : index + 1;
+    return index;
+  }
+}
@@ -0,0 +1,191 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.parse.AddressWarmup;
+import com.github.daihy8759.util.parse.WarmupReport;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基于 JDK 自带 HttpServer 的地址解析服务，不依赖其他 Web 框架
+ *
+ * <pre>
+ *   POST /parse        单个地址
+ *   POST /parse/batch  批量地址，支持 NDJSON 流式请求和响应
+ *   GET  /health       存活
+ *   GET  /ready        预热完成后就绪
+ * </pre>
+ * <p>
+ * 请求在固定大小的线程池中处理，HttpServer 默认在唯一的分发线程上执行全部请求；
+ * 连接默认保持（HTTP/1.1 keep-alive），空闲超时由系统属性 sun.net.httpserver.idleInterval 控制，
+ * 未设置 sun.net.httpserver.nodelay 时开启 TCP_NODELAY。
+ * 解析接口经过 {@link ConcurrencyLimitFilter}，健康检查不受并发限制。
+ *
+ * <pre>
+ *   AddressServer server = new AddressServer(AddressServerConfig.builder().port(8080).build());
+ *   server.start();
+ * </pre>
+ */
+@Slf4j
+public class AddressServer implements AutoCloseable {
+
+  private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  private final AddressServerConfig config;
+
+  private final ConcurrencyLimitFilter limitFilter;
+
+  private HttpServer server;
+
+  private ExecutorService executor;
+
+  private volatile boolean ready;
+
+  private volatile WarmupReport warmupReport;
+
+  private volatile Throwable warmupError;
+
+  public AddressServer(AddressServerConfig config) {
+    if (config == null || config.getParser() == null) {
+      throw new IllegalArgumentException("config and parser must not be null");
+    }
+    if (config.getThreads() <= 0 || config.getMaxBatchSize() <= 0 || config.getChunkSize() <= 0
+        || config.getMaxRequestBytes() <= 0) {
+      throw new IllegalArgumentException(
+          "threads, maxBatchSize, chunkSize and maxRequestBytes must be positive");
+    }
+    this.config = config;
+    this.limitFilter = new ConcurrencyLimitFilter(config.getMaxConcurrentRequests());
+  }
+
+  /**
+   * 绑定端口并开始接受请求；开启预热时在后台线程预热，完成后 /ready 返回 200
+   */
+  public synchronized void start() throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("server already started");
+    }
+    // 响应头和响应体分两次写出，开启 Nagle 算法时与客户端的延迟确认叠加，每个请求多等约 40ms；
+    // HttpServer 首次创建时读取该属性，需在此之前设置
+    if (System.getProperty(NODELAY_PROPERTY) == null) {
+      System.setProperty(NODELAY_PROPERTY, "true");
+    }
+    InetSocketAddress address = config.getHost() == null
+        ? new InetSocketAddress(config.getPort())
+        : new InetSocketAddress(config.getHost(), config.getPort());
+    HttpServer httpServer = HttpServer.create(address, 0);
+    HttpContext parse = httpServer.createContext("/parse",
+        new ParseHandler(config.getParser(), config.getMaxRequestBytes()));
+    parse.getFilters().add(limitFilter);
+    HttpContext batch = httpServer.createContext("/parse/batch",
+        new BatchParseHandler(config.getParser(), config.getMaxRequestBytes(),
+            config.getMaxBatchSize(), config.getChunkSize()));
+    batch.getFilters().add(limitFilter);
+    httpServer.createContext("/health", new StatusHandler(this, false));
+    httpServer.createContext("/ready", new StatusHandler(this, true));
+    executor = Executors.newFixedThreadPool(config.getThreads(), daemon("address-http"));
+    httpServer.setExecutor(executor);
+    httpServer.start();
+    server = httpServer;
+    if (config.isWarmUp()) {
+      daemon("address-warmup").newThread(this::warmUp).start();
+    } else {
+      ready = true;
+    }
+  }
+
+  private void warmUp() {
+    try {
+      warmupReport = AddressWarmup.warmUp(config.getParser());
+      ready = true;
+      log.info("warm-up finished: {}", warmupReport);
+    } catch (RuntimeException e) {
+      // 预热失败不影响解析，但实例保持未就绪，由探针发现
+      warmupError = e;
+      log.error("warm-up failed", e);
+    }
+  }
+
+  /**
+   * 停止接受新连接，最多等待 delaySeconds 秒让进行中的请求完成
+   */
+  public synchronized void stop(int delaySeconds) {
+    if (server == null) {
+      return;
+    }
+    ready = false;
+    server.stop(delaySeconds);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    server = null;
+  }
+
+  @Override
+  public void close() {
+    stop(0);
+  }
+
+  /**
+   * 实际监听的端口，配置为 0 时由系统分配
+   */
+  public synchronized int getPort() {
+    if (server == null) {
+      throw new IllegalStateException("server not started");
+    }
+    return server.getAddress().getPort();
+  }
+
+  public AddressServerConfig getConfig() {
+    return config;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * 预热完成前为 null
+   */
+  public WarmupReport getWarmupReport() {
+    return warmupReport;
+  }
+
+  public Throwable getWarmupError() {
+    return warmupError;
+  }
+
+  /**
+   * 正在处理的解析请求数
+   */
+  public int getInFlight() {
+    return limitFilter.getInFlight();
+  }
+
+  /**
+   * 因超过并发上限被拒绝的请求数
+   */
+  public long getRejected() {
+    return limitFilter.getRejected();
+  }
+
+  private static ThreadFactory daemon(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 服务配置
+ */
+@Builder
+@Getter
+public class AddressServerConfig {
+
+  /**
+   * 监听地址，为空时监听全部网卡
+   */
+  private final String host;
+
+  /**
+   * 监听端口，0 表示随机端口
+   */
+  @Builder.Default
+  private final int port = 8080;
+
+  /**
+   * 处理请求的线程数
+   */
+  @Builder.Default
+  private final int threads = Runtime.getRuntime().availableProcessors() * 2;
+
+  /**
+   * 同时处理的解析请求数，超过时直接返回 503，批量请求按一个计算
+   */
+  @Builder.Default
+  private final int maxConcurrentRequests = 256;
+
+  /**
+   * JSON 批量请求的最大地址数，更大的批量使用 NDJSON
+   */
+  @Builder.Default
+  private final int maxBatchSize = 1000;
+
+  /**
+   * JSON 请求体的最大字节数
+   */
+  @Builder.Default
+  private final int maxRequestBytes = 8 << 20;
+
+  /**
+   * NDJSON 批量每次读取、解析并写出的地址数
+   */
+  @Builder.Default
+  private final int chunkSize = 256;
+
+  /**
+   * 启动后是否预热，预热完成前 /ready 返回 503
+   */
+  @Builder.Default
+  private final boolean warmUp = true;
+
+  /**
+   * 解析器，默认使用 {@link ZhAddressParser#getDefault()}
+   */
+  @Builder.Default
+  private final AddressParser parser = ZhAddressParser.getDefault();
+
+}
@@ -0,0 +1,67 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.parse.RegionMatching;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.time.Duration;
+
+/**
+ * 命令行启动服务
+ *
+ * <pre>
+ * java -jar zh-address-parse-server.jar [--host 0.0.0.0] [--port 8080] [--threads 16]
+ *   [--max-concurrency 256] [--max-batch 1000] [--chunk 256] [--no-warmup]
+ *   [--region-matching prefix|scored] [--cache 100000]
+ * </pre>
+ */
+public class AddressServerMain {
+
+  public static void main(String[] args) throws Exception {
+    AddressServerConfig.AddressServerConfigBuilder builder = AddressServerConfig.builder();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--host":
+          builder.host(args[++i]);
+          break;
+        case "--port":
+          builder.port(Integer.parseInt(args[++i]));
+          break;
+        case "--threads":
+          builder.threads(Integer.parseInt(args[++i]));
+          break;
+        case "--max-concurrency":
+          builder.maxConcurrentRequests(Integer.parseInt(args[++i]));
+          break;
+        case "--max-batch":
+          builder.maxBatchSize(Integer.parseInt(args[++i]));
+          break;
+        case "--chunk":
+          builder.chunkSize(Integer.parseInt(args[++i]));
+          break;
+        case "--no-warmup":
+          builder.warmUp(false);
+          break;
+        case "--region-matching":
+          ZhAddressParser.setRegionMatching(RegionMatching.valueOf(args[++i].toUpperCase()));
+          break;
+        case "--cache":
+          ZhAddressParser.enableResultCache(Integer.parseInt(args[++i]), Duration.ofHours(1));
+          break;
+        default:
+          usage("unknown option: " + args[i]);
+          return;
+      }
+    }
+    AddressServer server = new AddressServer(builder.build());
+    server.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5), "address-shutdown"));
+    System.err.println("zh-address-parse server listening on port " + server.getPort());
+  }
+
+  private static void usage(String message) {
+    System.err.println(message);
+    System.err.println("usage: AddressServerMain [--host address] [--port 8080] [--threads n]"
+        + " [--max-concurrency n] [--max-batch n] [--chunk n] [--no-warmup]"
+        + " [--region-matching prefix|scored] [--cache entries]");
+    System.exit(1);
+  }
+}
@@ -0,0 +1,288 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.JsonReader;
+import com.github.daihy8759.util.codec.JsonToken;
+import com.github.daihy8759.util.codec.JsonWriter;
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * POST /parse/batch
+ * <p>
+ * 请求体为 {"addresses": [...], "parseName": true, ...} 或地址数组时，默认一次性返回
+ * {"status": 200, "data": [...]}，地址数不超过 maxBatchSize。
+ * 请求头 Accept 为 application/x-ndjson 时改为分块编码逐行返回，每行一条结果；
+ * 请求体也可以是 NDJSON，每行一个地址字符串或 {"address": "..."}，边读边解析，解析选项放在查询参数中。
+ * 流式处理每次只读入 chunkSize 条地址，批量大小不受限制，内存占用与批量大小无关。
+ * <p>
+ * 每行结果：{"index": 0, "address": "...", "result": {...}}，解析失败时 result 换成 error，
+ * 顺序与输入一致。
+ */
+@Slf4j
+class BatchParseHandler extends JsonHandler {
+
+  private final AddressParser parser;
+
+  private final int maxRequestBytes;
+
+  private final int maxBatchSize;
+
+  private final int chunkSize;
+
+  BatchParseHandler(AddressParser parser, int maxRequestBytes, int maxBatchSize,
+      int chunkSize) {
+    super("POST");
+    this.parser = parser;
+    this.maxRequestBytes = maxRequestBytes;
+    this.maxBatchSize = maxBatchSize;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  protected void handleExchange(HttpExchange exchange) throws IOException {
+    ParseOptions options = ParseOptions.of(Exchanges.query(exchange));
+    if (Exchanges.sendsNdjson(exchange)) {
+      stream(exchange, new LineIterator(exchange.getRequestBody(), maxRequestBytes), options);
+      return;
+    }
+    JsonReader reader = new JsonReader(Exchanges.readBody(exchange, maxRequestBytes));
+    List<BatchParseResult> records = null;
+    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+      records = readAddresses(reader);
+    } else {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if ("addresses".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+          records = readAddresses(reader);
+        } else if (!options.read(name, reader)) {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    }
+    if (records == null) {
+      throw new HttpStatusException(400, "addresses is required");
+    }
+    if (Exchanges.acceptsNdjson(exchange)) {
+      stream(exchange, records.iterator(), options);
+      return;
+    }
+    if (records.size() > maxBatchSize) {
+      throw new HttpStatusException(413, "batch exceeds " + maxBatchSize
+          + " addresses, use application/x-ndjson");
+    }
+    List<BatchParseResult> results = parse(records, options);
+    Exchanges.sendData(exchange, 200, writer -> {
+      writer.beginArray();
+      for (BatchParseResult result : results) {
+        Exchanges.writeResult(writer, result);
+      }
+      writer.endArray();
+    });
+  }
+
+  private static List<BatchParseResult> readAddresses(JsonReader reader) {
+    List<BatchParseResult> records = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      records.add(toRecord(records.size(), reader));
+    }
+    reader.endArray();
+    return records;
+  }
+
+  /**
+   * 读取一个地址字符串或 {"address": "..."}，其他值作为失败的记录
+   */
+  private static BatchParseResult toRecord(int index, JsonReader reader) {
+    String address = null;
+    JsonToken token = reader.peek();
+    if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+      address = reader.nextString();
+    } else if (token == JsonToken.BEGIN_OBJECT) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if ("address".equals(reader.nextName())) {
+          address = reader.nextStringOrNull();
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    } else {
+      reader.skipValue();
+    }
+    return new BatchParseResult(index, address, null, address == null
+        ? new IllegalArgumentException("address is required") : null);
+  }
+
+  /**
+   * 按 chunkSize 分块解析并写出，每块写完后刷新，客户端可以边收边处理
+   */
+  private void stream(HttpExchange exchange, Iterator<BatchParseResult> records,
+      ParseOptions options) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", Exchanges.NDJSON);
+    exchange.sendResponseHeaders(200, 0);
+    JsonWriter writer = new JsonWriter(chunkSize * 320);
+    try (OutputStream out = exchange.getResponseBody()) {
+      try {
+        List<BatchParseResult> chunk = new ArrayList<>(chunkSize);
+        while (records.hasNext()) {
+          chunk.add(records.next());
+          if (chunk.size() == chunkSize || !records.hasNext()) {
+            for (BatchParseResult result : parse(chunk, options)) {
+              Exchanges.writeResult(writer, result);
+              writer.newLine();
+            }
+            writer.writeTo(out);
+            out.flush();
+            writer.reset();
+            chunk.clear();
+          }
+        }
+      } catch (RuntimeException e) {
+        // 响应头已发出，最后一行写出错误后结束
+        log.error("failed to stream {}", exchange.getRequestURI(), e);
+        writer.reset().beginObject().name("status").value(500)
+            .name("message").value(String.valueOf(e)).endObject().newLine();
+        writer.writeTo(out);
+      }
+    }
+  }
+
+  /**
+   * 解析有效的记录，无效的记录原样保留，index 不变
+   */
+  private List<BatchParseResult> parse(List<BatchParseResult> records, ParseOptions options) {
+    List<String> addresses = new ArrayList<>(records.size());
+    for (BatchParseResult record : records) {
+      if (record.isSuccess()) {
+        addresses.add(record.getAddress());
+      }
+    }
+    List<BatchParseResult> parsed = parser.parseBatch(addresses, options.parseName,
+        options.parsePhone, options.postalCode);
+    List<BatchParseResult> results = new ArrayList<>(records.size());
+    int next = 0;
+    for (BatchParseResult record : records) {
+      if (record.isSuccess()) {
+        BatchParseResult result = parsed.get(next++);
+        results.add(new BatchParseResult(record.getIndex(), record.getAddress(),
+            result.getResult(), result.getError()));
+      } else {
+        results.add(record);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * 逐行读取 NDJSON 请求体的字节，跳过空行，单行不超过 maxLineBytes
+   */
+  private static final class LineIterator implements Iterator<BatchParseResult> {
+
+    private final InputStream in;
+
+    private final int maxLineBytes;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int position;
+
+    private int limit;
+
+    private byte[] line = new byte[256];
+
+    private int length = -1;
+
+    private int index;
+
+    private LineIterator(InputStream in, int maxLineBytes) {
+      this.in = in;
+      this.maxLineBytes = maxLineBytes;
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        while (length < 0 || isBlank()) {
+          if (!readLine()) {
+            length = -1;
+            return false;
+          }
+        }
+        return true;
+      } catch (IOException e) {
+        throw new UncheckedIOException("failed to read request body", e);
+      }
+    }
+
+    @Override
+    public BatchParseResult next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int i = index++;
+      JsonReader reader = new JsonReader(line, 0, length);
+      length = -1;
+      try {
+        return toRecord(i, reader);
+      } catch (RuntimeException e) {
+        return new BatchParseResult(i, null, null, e);
+      }
+    }
+
+    /**
+     * 读取下一行到 line，流结束且没有剩余字节时返回 false
+     */
+    private boolean readLine() throws IOException {
+      length = 0;
+      boolean read = false;
+      while (true) {
+        if (position == limit) {
+          limit = in.read(buffer);
+          position = 0;
+          if (limit <= 0) {
+            limit = 0;
+            return read;
+          }
+        }
+        read = true;
+        byte b = buffer[position++];
+        if (b == '\n') {
+          return true;
+        }
+        if (length == maxLineBytes) {
+          throw new HttpStatusException(413, "line exceeds " + maxLineBytes + " bytes");
+        }
+        if (length == line.length) {
+          line = Arrays.copyOf(line, line.length * 2);
+        }
+        line[length++] = b;
+      }
+    }
+
+    private boolean isBlank() {
+      for (int i = 0; i < length; i++) {
+        byte b = line[i];
+        if (b != ' ' && b != '\t' && b != '\r') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
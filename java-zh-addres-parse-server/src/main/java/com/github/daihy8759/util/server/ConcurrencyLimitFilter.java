@@ -0,0 +1,63 @@
+package com.github.daihy8759.util.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限制同时处理的请求数
+ * <p>
+ * 超过上限时不排队，立即返回 503 和 Retry-After，由客户端或负载均衡重试其他实例，
+ * 避免请求在线程池队列中堆积、延迟持续升高。
+ */
+class ConcurrencyLimitFilter extends Filter {
+
+  private final int limit;
+
+  private final Semaphore permits;
+
+  private final LongAdder rejected = new LongAdder();
+
+  ConcurrencyLimitFilter(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+    this.limit = limit;
+    this.permits = new Semaphore(limit);
+  }
+
+  @Override
+  public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+    if (!permits.tryAcquire()) {
+      rejected.increment();
+      try {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        Exchanges.sendError(exchange, 503, "too many concurrent requests");
+      } finally {
+        exchange.close();
+      }
+      return;
+    }
+    try {
+      chain.doFilter(exchange);
+    } finally {
+      permits.release();
+    }
+  }
+
+  @Override
+  public String description() {
+    return "limits concurrent requests to " + limit;
+  }
+
+  int getInFlight() {
+    return limit - permits.availablePermits();
+  }
+
+  long getRejected() {
+    return rejected.sum();
+  }
+
+}
@@ -0,0 +1,153 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.JsonWriter;
+import com.github.daihy8759.util.codec.ParseResultJson;
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 读写请求、响应
+ * <p>
+ * 响应都带有长度或使用分块编码，请求体读完、响应关闭后连接由 HttpServer 复用（keep-alive）。
+ */
+final class Exchanges {
+
+  static final String JSON = "application/json; charset=utf-8";
+
+  static final String NDJSON = "application/x-ndjson; charset=utf-8";
+
+  private static final String NDJSON_TYPE = "application/x-ndjson";
+
+  private Exchanges() {
+  }
+
+  /**
+   * 读取请求体，超过 limit 字节时返回 413
+   */
+  static byte[] readBody(HttpExchange exchange, int limit) throws IOException {
+    long length = contentLength(exchange);
+    if (length > limit) {
+      throw new HttpStatusException(413, "request body exceeds " + limit + " bytes");
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(length < 0 ? 1024 : (int) length);
+    byte[] buffer = new byte[8192];
+    InputStream in = exchange.getRequestBody();
+    for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+      if (out.size() + n > limit) {
+        throw new HttpStatusException(413, "request body exceeds " + limit + " bytes");
+      }
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * 请求头中的 Content-Length，没有时返回 -1，格式错误时返回 400
+   */
+  private static long contentLength(HttpExchange exchange) {
+    String header = exchange.getRequestHeaders().getFirst("Content-Length");
+    if (header == null) {
+      return -1;
+    }
+    try {
+      long length = Long.parseLong(header.trim());
+      if (length >= 0) {
+        return length;
+      }
+    } catch (NumberFormatException e) {
+      // 与负数一样按格式错误处理
+    }
+    throw new HttpStatusException(400, "malformed Content-Length: " + header);
+  }
+
+  static boolean isNdjson(String contentType) {
+    return contentType != null && contentType.toLowerCase().contains(NDJSON_TYPE);
+  }
+
+  static boolean acceptsNdjson(HttpExchange exchange) {
+    return isNdjson(exchange.getRequestHeaders().getFirst("Accept"));
+  }
+
+  static boolean sendsNdjson(HttpExchange exchange) {
+    return isNdjson(exchange.getRequestHeaders().getFirst("Content-Type"));
+  }
+
+  /**
+   * 查询参数，不支持同名参数
+   */
+  static Map<String, String> query(HttpExchange exchange) {
+    Map<String, String> params = new LinkedHashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null || query.isEmpty()) {
+      return params;
+    }
+    for (String pair : query.split("&")) {
+      int eq = pair.indexOf('=');
+      String key = eq < 0 ? pair : pair.substring(0, eq);
+      String value = eq < 0 ? "" : pair.substring(eq + 1);
+      try {
+        params.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+      } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+        throw new HttpStatusException(400, "malformed query string");
+      }
+    }
+    return params;
+  }
+
+  /**
+   * 与 node 服务一致：{"status": 200, "data": ...}，data 由 writer 写入一个值
+   */
+  static void sendData(HttpExchange exchange, int status, Consumer<JsonWriter> data)
+      throws IOException {
+    JsonWriter writer = new JsonWriter();
+    writer.beginObject().name("status").value(status).name("data");
+    data.accept(writer);
+    send(exchange, status, writer.endObject());
+  }
+
+  /**
+   * {"status": 400, "message": ...}
+   */
+  static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+    JsonWriter writer = new JsonWriter();
+    writer.beginObject().name("status").value(status).name("message").value(message)
+        .endObject();
+    send(exchange, status, writer);
+  }
+
+  private static void send(HttpExchange exchange, int status, JsonWriter body)
+      throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", JSON);
+    exchange.sendResponseHeaders(status, body.size());
+    try (OutputStream out = exchange.getResponseBody()) {
+      body.writeTo(out);
+    }
+  }
+
+  /**
+   * 批量结果中的一条
+   */
+  static void writeResult(JsonWriter writer, BatchParseResult result) {
+    writer.beginObject().name("index").value(result.getIndex());
+    if (result.getAddress() != null) {
+      writer.name("address").value(result.getAddress());
+    }
+    if (result.isSuccess()) {
+      writer.name("result");
+      ParseResultJson.write(writer, result.getResult());
+    } else {
+      writer.name("error").value(String.valueOf(result.getError()));
+    }
+    writer.endObject();
+  }
+
+}
@@ -0,0 +1,19 @@
+package com.github.daihy8759.util.server;
+
+/**
+ * 以指定状态码结束请求
+ */
+class HttpStatusException extends RuntimeException {
+
+  private final int status;
+
+  HttpStatusException(int status, String message) {
+    super(message);
+    this.status = status;
+  }
+
+  int getStatus() {
+    return status;
+  }
+
+}
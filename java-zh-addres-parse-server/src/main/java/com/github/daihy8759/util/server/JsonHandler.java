@@ -0,0 +1,54 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.MalformedJsonException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 校验请求方法，把异常转换为错误响应，并保证交换结束时关闭
+ */
+@Slf4j
+abstract class JsonHandler implements HttpHandler {
+
+  private final String method;
+
+  JsonHandler(String method) {
+    this.method = method;
+  }
+
+  @Override
+  public final void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!method.equalsIgnoreCase(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", method);
+        Exchanges.sendError(exchange, 405, "method not allowed");
+        return;
+      }
+      handleExchange(exchange);
+    } catch (HttpStatusException e) {
+      sendErrorIfPossible(exchange, e.getStatus(), e.getMessage());
+    } catch (MalformedJsonException e) {
+      sendErrorIfPossible(exchange, 400, "malformed json: " + e.getMessage());
+    } catch (RuntimeException e) {
+      log.error("failed to handle {}", exchange.getRequestURI(), e);
+      sendErrorIfPossible(exchange, 500, String.valueOf(e));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  protected abstract void handleExchange(HttpExchange exchange) throws IOException;
+
+  /**
+   * 已经开始写响应时只能断开连接
+   */
+  private static void sendErrorIfPossible(HttpExchange exchange, int status, String message)
+      throws IOException {
+    if (exchange.getResponseCode() < 0) {
+      Exchanges.sendError(exchange, status, message);
+    }
+  }
+
+}
@@ -0,0 +1,196 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.JsonWriter;
+import com.github.daihy8759.util.metrics.LatencyHistogram;
+import com.github.daihy8759.util.parse.AddressWarmup;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测工具，多个线程在保持的连接上持续发送请求，输出吞吐量和延迟分位数
+ * <p>
+ * 地址取自内置的预热样本；先发送 warmup 秒不计入结果，再统计 duration 秒。
+ * HttpURLConnection 在响应体读完并关闭后复用连接，与服务端的 keep-alive 配合。
+ *
+ * <pre>
+ * java -cp zh-address-parse-server.jar com.github.daihy8759.util.server.LoadGenerator \
+ *   [--url http://localhost:8080] [--threads 16] [--duration 30] [--warmup 5] [--batch 0]
+ * </pre>
+ * <p>
+ * batch 为 0 时请求 /parse，大于 0 时每次请求 /parse/batch，包含 batch 个地址。
+ */
+public class LoadGenerator {
+
+  private final String url;
+
+  private final int threads;
+
+  private final int batch;
+
+  private final List<String> corpus = AddressWarmup.builtInCorpus();
+
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  private final LongAdder errors = new LongAdder();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private volatile boolean recording;
+
+  private volatile boolean running = true;
+
+  public LoadGenerator(String url, int threads, int batch) {
+    this.url = url + (batch > 0 ? "/parse/batch" : "/parse");
+    this.threads = threads;
+    this.batch = batch;
+  }
+
+  public static void main(String[] args) throws Exception {
+    String url = "http://localhost:8080";
+    int threads = 16;
+    int duration = 30;
+    int warmup = 5;
+    int batch = 0;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--url":
+          url = args[++i];
+          break;
+        case "--threads":
+          threads = Integer.parseInt(args[++i]);
+          break;
+        case "--duration":
+          duration = Integer.parseInt(args[++i]);
+          break;
+        case "--warmup":
+          warmup = Integer.parseInt(args[++i]);
+          break;
+        case "--batch":
+          batch = Integer.parseInt(args[++i]);
+          break;
+        default:
+          System.err.println("unknown option: " + args[i]);
+          System.err.println("usage: LoadGenerator [--url http://localhost:8080] [--threads n]"
+              + " [--duration seconds] [--warmup seconds] [--batch n]");
+          System.exit(1);
+          return;
+      }
+    }
+    System.out.println(new LoadGenerator(url, threads, batch).run(warmup, duration));
+  }
+
+  /**
+   * 发送请求并返回统计结果
+   */
+  public String run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(threads);
+    List<Thread> workers = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      Thread worker = new Thread(() -> {
+        try {
+          work(offset);
+        } finally {
+          done.countDown();
+        }
+      }, "load-" + t);
+      worker.setDaemon(true);
+      workers.add(worker);
+      worker.start();
+    }
+    Thread.sleep(warmupSeconds * 1000L);
+    latency.reset();
+    errors.reset();
+    rejected.reset();
+    recording = true;
+    long start = System.nanoTime();
+    Thread.sleep(durationSeconds * 1000L);
+    recording = false;
+    long elapsed = System.nanoTime() - start;
+    running = false;
+    done.await();
+    double seconds = elapsed / 1e9;
+    long requests = latency.getCount();
+    return String.format("requests=%d (%.0f/s), addresses=%.0f/s, errors=%d, rejected=%d,"
+            + " mean=%.2fms, p50=%.2fms, p99=%.2fms, p999=%.2fms",
+        requests, requests / seconds, requests * (double) Math.max(1, batch) / seconds,
+        errors.sum(), rejected.sum(), latency.getMean() / 1e6,
+        latency.getPercentile(0.5) / 1e6, latency.getPercentile(0.99) / 1e6,
+        latency.getPercentile(0.999) / 1e6);
+  }
+
+  private void work(int offset) {
+    int next = offset;
+    while (running) {
+      byte[] body = body(next);
+      next += Math.max(1, batch);
+      long begin = System.nanoTime();
+      int status;
+      try {
+        status = post(body);
+      } catch (IOException e) {
+        status = -1;
+      }
+      long nanos = System.nanoTime() - begin;
+      if (!recording) {
+        continue;
+      }
+      if (status == 200) {
+        latency.record(nanos);
+      } else if (status == 503) {
+        rejected.increment();
+      } else {
+        errors.increment();
+      }
+    }
+  }
+
+  private byte[] body(int from) {
+    JsonWriter writer = new JsonWriter(batch > 0 ? batch * 64 : 128).beginObject();
+    if (batch > 0) {
+      writer.name("addresses").beginArray();
+      for (int i = 0; i < batch; i++) {
+        writer.value(corpus.get((from + i) % corpus.size()));
+      }
+      writer.endArray();
+    } else {
+      writer.name("address").value(corpus.get(from % corpus.size()));
+    }
+    return writer.endObject().toByteArray();
+  }
+
+  /**
+   * 发送请求并读完响应体，连接留给下一次请求复用
+   */
+  private int post(byte[] body) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setFixedLengthStreamingMode(body.length);
+    connection.setRequestProperty("Content-Type", "application/json");
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body);
+    }
+    int status = connection.getResponseCode();
+    InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    if (in != null) {
+      byte[] buffer = new byte[8192];
+      try {
+        while (in.read(buffer) >= 0) {
+          // 读完响应体
+        }
+      } finally {
+        in.close();
+      }
+    }
+    return status;
+  }
+
+}
@@ -0,0 +1,52 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.JsonReader;
+import com.github.daihy8759.util.codec.ParseResultJson;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+
+/**
+ * POST /parse
+ *
+ * <pre>
+ *   {"address": "...", "parseName": true, "parsePhone": true, "postalCode": true}
+ * </pre>
+ */
+class ParseHandler extends JsonHandler {
+
+  private final AddressParser parser;
+
+  private final int maxRequestBytes;
+
+  ParseHandler(AddressParser parser, int maxRequestBytes) {
+    super("POST");
+    this.parser = parser;
+    this.maxRequestBytes = maxRequestBytes;
+  }
+
+  @Override
+  protected void handleExchange(HttpExchange exchange) throws IOException {
+    JsonReader reader = new JsonReader(Exchanges.readBody(exchange, maxRequestBytes));
+    ParseOptions options = ParseOptions.of(Exchanges.query(exchange));
+    String address = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if ("address".equals(name)) {
+        address = reader.nextStringOrNull();
+      } else if (!options.read(name, reader)) {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (address == null || address.trim().isEmpty()) {
+      throw new HttpStatusException(400, "address is required");
+    }
+    ParseResult result = parser.parse(address, options.parseName, options.parsePhone,
+        options.postalCode);
+    Exchanges.sendData(exchange, 200, writer -> ParseResultJson.write(writer, result));
+  }
+
+}
@@ -0,0 +1,51 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.codec.JsonReader;
+import java.util.Map;
+
+/**
+ * 解析选项，默认全部开启；先取查询参数，再由 JSON 请求体中的同名字段覆盖
+ */
+final class ParseOptions {
+
+  boolean parseName = true;
+
+  boolean parsePhone = true;
+
+  boolean postalCode = true;
+
+  static ParseOptions of(Map<String, String> query) {
+    ParseOptions options = new ParseOptions();
+    options.parseName = flag(query.get("parseName"), true);
+    options.parsePhone = flag(query.get("parsePhone"), true);
+    options.postalCode = flag(query.get("postalCode"), true);
+    return options;
+  }
+
+  /**
+   * name 为解析选项时读取其值并返回 true，否则不读取
+   */
+  boolean read(String name, JsonReader reader) {
+    switch (name) {
+      case "parseName":
+        parseName = reader.nextBoolean();
+        return true;
+      case "parsePhone":
+        parsePhone = reader.nextBoolean();
+        return true;
+      case "postalCode":
+        postalCode = reader.nextBoolean();
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean flag(String value, boolean defaultValue) {
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    return !"false".equalsIgnoreCase(value) && !"0".equals(value);
+  }
+
+}
@@ -0,0 +1,47 @@
+package com.github.daihy8759.util.server;
+
+import com.github.daihy8759.util.parse.WarmupReport;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+
+/**
+ * GET /health：进程存活即返回 200，附带当前并发数和拒绝次数，用于存活探针；
+ * GET /ready：预热完成后返回 200，之前返回 503，用于就绪探针和负载均衡摘除
+ */
+class StatusHandler extends JsonHandler {
+
+  private final AddressServer server;
+
+  private final boolean readiness;
+
+  StatusHandler(AddressServer server, boolean readiness) {
+    super("GET");
+    this.server = server;
+    this.readiness = readiness;
+  }
+
+  @Override
+  protected void handleExchange(HttpExchange exchange) throws IOException {
+    boolean ready = server.isReady();
+    String datasetVersion = server.getConfig().getParser().getRepository().version();
+    WarmupReport report = server.getWarmupReport();
+    Throwable error = server.getWarmupError();
+    Exchanges.sendData(exchange, !readiness || ready ? 200 : 503, writer -> {
+      writer.beginObject().name("ready").value(ready)
+          .name("datasetVersion").value(datasetVersion);
+      if (report != null) {
+        writer.name("warmupMillis").value(report.getTotal().toMillis())
+            .name("warmupParses").value(report.getParses());
+      }
+      if (error != null) {
+        writer.name("warmupError").value(String.valueOf(error));
+      }
+      if (!readiness) {
+        writer.name("inFlight").value(server.getInFlight())
+            .name("rejected").value(server.getRejected());
+      }
+      writer.endObject();
+    });
+  }
+
+}
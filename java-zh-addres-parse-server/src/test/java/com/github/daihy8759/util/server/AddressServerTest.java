@@ -0,0 +1,385 @@
+package com.github.daihy8759.util.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AddressServerTest {
+
+  private static final String NDJSON = "application/x-ndjson";
+
+  private static AddressParser parser;
+
+  private static AddressServer server;
+
+  @BeforeAll
+  @SneakyThrows
+  public static void setUp() {
+    parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    server = new AddressServer(AddressServerConfig.builder().port(0).threads(2)
+        .maxBatchSize(2).maxRequestBytes(1024).chunkSize(1).warmUp(false).parser(parser)
+        .build());
+    server.start();
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    server.close();
+  }
+
+  @Test
+  @DisplayName("单个地址")
+  public void testParse() {
+    Response response = request(server, "POST", "/parse", null, null,
+        "{\"address\":\"北京市东城区建设路 13311111111 何晓旭\",\"parseName\":false}");
+    assertEquals(200, response.status);
+    assertTrue(response.body.contains("\"areaCode\":\"110101\""), response.body);
+    assertTrue(response.body.contains("\"phone\":\"13311111111\""), response.body);
+
+    assertEquals(400, request(server, "POST", "/parse", null, null, "{}").status);
+    assertEquals(400, request(server, "POST", "/parse", null, null, "{\"address\":").status);
+  }
+
+  @Test
+  @DisplayName("批量地址")
+  public void testBatch() {
+    Response response = request(server, "POST", "/parse/batch", null, null,
+        "{\"addresses\":[\"北京市东城区\",{\"address\":\"重庆市垫江县\"}],\"parsePhone\":false}");
+    assertEquals(200, response.status);
+    assertTrue(response.body.contains("\"index\":0"), response.body);
+    assertTrue(response.body.contains("\"areaCode\":\"110101\""), response.body);
+    assertTrue(response.body.contains("\"index\":1"), response.body);
+    assertTrue(response.body.contains("\"areaName\":\"垫江县\""), response.body);
+
+    // 无效的元素单独返回错误，不影响其他地址
+    response = request(server, "POST", "/parse/batch", null, null, "[true,\"北京市东城区\"]");
+    assertEquals(200, response.status);
+    assertTrue(response.body.contains("\"error\""), response.body);
+    assertTrue(response.body.contains("\"areaCode\":\"110101\""), response.body);
+  }
+
+  @Test
+  @DisplayName("NDJSON 流式批量")
+  public void testNdjson() {
+    Response response = request(server, "POST", "/parse/batch?parseName=false", NDJSON,
+        NDJSON, "\"北京市东城区\"\n\n{\"address\":\"重庆市垫江县\"}\n[1]\n\"上海市黄浦区\"");
+    assertEquals(200, response.status);
+    String[] lines = response.body.split("\n");
+    assertEquals(4, lines.length, response.body);
+    assertTrue(lines[0].startsWith("{\"index\":0,") && lines[0].contains("110101"), lines[0]);
+    assertTrue(lines[1].startsWith("{\"index\":1,") && lines[1].contains("垫江县"), lines[1]);
+    assertTrue(lines[2].startsWith("{\"index\":2,") && lines[2].contains("\"error\""), lines[2]);
+    assertTrue(lines[3].startsWith("{\"index\":3,") && lines[3].contains("黄浦区"), lines[3]);
+
+    // JSON 请求体按 NDJSON 返回时不受 maxBatchSize 限制
+    response = request(server, "POST", "/parse/batch", null, NDJSON,
+        "[\"北京市东城区\",\"北京市西城区\",\"北京市朝阳区\"]");
+    assertEquals(200, response.status);
+    assertEquals(3, response.body.split("\n").length, response.body);
+  }
+
+  @Test
+  @DisplayName("请求方法和大小")
+  public void testRejected() {
+    Response response = request(server, "GET", "/parse", null, null, null);
+    assertEquals(405, response.status);
+    assertEquals("POST", response.allow);
+    assertEquals(405, request(server, "POST", "/ready", null, null, "{}").status);
+
+    assertEquals(413, request(server, "POST", "/parse/batch", null, null,
+        "[\"北京市东城区\",\"北京市西城区\",\"北京市朝阳区\"]").status);
+    StringBuilder large = new StringBuilder("{\"address\":\"");
+    while (large.length() < 1024) {
+      large.append("北京市东城区");
+    }
+    assertEquals(413, request(server, "POST", "/parse", null, null, large + "\"}").status);
+  }
+
+  @Test
+  @DisplayName("Content-Length 格式错误")
+  public void testMalformedContentLength() {
+    // HttpServer 本身会拒绝部分格式错误的请求头，这里直接构造请求
+    for (String length : new String[]{"12x", "-1", " "}) {
+      HttpStatusException e = assertThrows(HttpStatusException.class,
+          () -> Exchanges.readBody(new StubExchange(length, "{}"), 1024));
+      assertEquals(400, e.getStatus());
+    }
+    assertEquals(413, assertThrows(HttpStatusException.class,
+        () -> Exchanges.readBody(new StubExchange("2048", "{}"), 1024)).getStatus());
+  }
+
+  @Test
+  @DisplayName("超过并发上限时返回 503")
+  @SneakyThrows
+  public void testConcurrencyLimit() {
+    GatedRepository repository = new GatedRepository();
+    try (AddressServer limited = new AddressServer(AddressServerConfig.builder().port(0)
+        .threads(2).maxConcurrentRequests(1).warmUp(false)
+        .parser(new AddressParser(repository)).build())) {
+      limited.start();
+      CompletableFuture<Response> first = CompletableFuture.supplyAsync(
+          () -> request(limited, "POST", "/parse", null, null, "{\"address\":\"北京市东城区\"}"));
+      assertTrue(repository.entered.await(10, TimeUnit.SECONDS));
+
+      Response rejected = request(limited, "POST", "/parse", null, null,
+          "{\"address\":\"北京市东城区\"}");
+      assertEquals(503, rejected.status);
+      assertEquals("1", rejected.retryAfter);
+      // 健康检查不受并发限制
+      Response health = request(limited, "GET", "/health", null, null, null);
+      assertEquals(200, health.status);
+      assertTrue(health.body.contains("\"inFlight\":1"), health.body);
+      assertTrue(health.body.contains("\"rejected\":1"), health.body);
+
+      repository.gate.countDown();
+      assertEquals(200, first.get(10, TimeUnit.SECONDS).status);
+    }
+  }
+
+  @Test
+  @DisplayName("预热完成后就绪")
+  @SneakyThrows
+  public void testReady() {
+    GatedRepository repository = new GatedRepository();
+    try (AddressServer warming = new AddressServer(AddressServerConfig.builder().port(0)
+        .threads(2).parser(new AddressParser(repository)).build())) {
+      warming.start();
+      assertTrue(repository.entered.await(10, TimeUnit.SECONDS));
+      Response ready = request(warming, "GET", "/ready", null, null, null);
+      assertEquals(503, ready.status);
+      assertTrue(ready.body.contains("\"ready\":false"), ready.body);
+      assertEquals(200, request(warming, "GET", "/health", null, null, null).status);
+
+      repository.gate.countDown();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (!warming.isReady() && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+      }
+      ready = request(warming, "GET", "/ready", null, null, null);
+      assertEquals(200, ready.status);
+      assertTrue(ready.body.contains("\"warmupParses\""), ready.body);
+    }
+  }
+
+  @SneakyThrows
+  private static Response request(AddressServer target, String method, String path,
+      String contentType, String accept, String body) {
+    URL url = new URL("http://localhost:" + target.getPort() + path);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod(method);
+    connection.setConnectTimeout(10_000);
+    connection.setReadTimeout(30_000);
+    if (contentType != null) {
+      connection.setRequestProperty("Content-Type", contentType);
+    }
+    if (accept != null) {
+      connection.setRequestProperty("Accept", accept);
+    }
+    if (body != null) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    Response response = new Response();
+    response.status = connection.getResponseCode();
+    response.allow = connection.getHeaderField("Allow");
+    response.retryAfter = connection.getHeaderField("Retry-After");
+    InputStream in = response.status < 400 ? connection.getInputStream()
+        : connection.getErrorStream();
+    response.body = in == null ? "" : new String(readAll(in), StandardCharsets.UTF_8);
+    connection.disconnect();
+    return response;
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    try (InputStream input = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int n = input.read(buffer); n >= 0; n = input.read(buffer)) {
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static final class Response {
+
+    private int status;
+
+    private String body;
+
+    private String allow;
+
+    private String retryAfter;
+  }
+
+  /**
+   * 首次访问时停住，直到 gate 打开；不提供内存字典，解析逐次查询
+   */
+  private static final class GatedRepository implements AreaRepository {
+
+    private final AreaRepository delegate = new DictionaryAreaRepository(AreaSnapshot.load());
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @SneakyThrows
+    private void pass() {
+      entered.countDown();
+      gate.await();
+    }
+
+    @Override
+    public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+      pass();
+      return delegate.findByPrefix(parentCode, namePrefix, level);
+    }
+
+    @Override
+    public List<Area> findChildren(String parentCode, int level) {
+      pass();
+      return delegate.findChildren(parentCode, level);
+    }
+
+    @Override
+    public Area findByCode(String code, int level) {
+      pass();
+      return delegate.findByCode(code, level);
+    }
+
+    @Override
+    public AreaDictionary dictionary() {
+      pass();
+      return null;
+    }
+  }
+
+  /**
+   * 只有请求头和请求体的交换
+   */
+  private static final class StubExchange extends HttpExchange {
+
+    private final Headers requestHeaders = new Headers();
+
+    private final InputStream requestBody;
+
+    private StubExchange(String contentLength, String body) {
+      requestHeaders.set("Content-Length", contentLength);
+      requestBody = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+      return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+      return new Headers();
+    }
+
+    @Override
+    public URI getRequestURI() {
+      return URI.create("/parse");
+    }
+
+    @Override
+    public String getRequestMethod() {
+      return "POST";
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+      return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+      return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+      return new ByteArrayOutputStream();
+    }
+
+    @Override
+    public void sendResponseHeaders(int status, long length) {
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public int getResponseCode() {
+      return -1;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+      return null;
+    }
+
+    @Override
+    public String getProtocol() {
+      return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+      return null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+    }
+
+    @Override
+    public void setStreams(InputStream in, OutputStream out) {
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+      return null;
+    }
+  }
+
+}
@@ -9,12 +9,16 @@ create_table_sql = """create table area (
     level TINYINT(1),
     parent_code varchar(20)
 )"""
-index_sql = """
-CREATE INDEX idx_area_name ON area (name,level);
-"""
+# SqliteSession 按 name >= 前缀 and name < 前缀上界 做范围查询，两个索引分别对应不限上级和指定上级的查询，
+# 用 EXPLAIN QUERY PLAN 确认走索引，见 SqliteUtil.explainQueryPlans
+index_sqls = [
+    "CREATE INDEX idx_area_level_name ON area (level,name)",
+    "CREATE INDEX idx_area_level_parent_name ON area (level,parent_code,name)",
+]
 db.query(drop_table_sql)
 db.query(create_table_sql)
-db.query(index_sql)
+for index_sql in index_sqls:
+    db.query(index_sql)
 
 # province
 with open('./area/provinces.json') as json_file:
@@ -0,0 +1,54 @@
+import sqlite3
+import struct
+
+# 将 data.db 中的 area 表编译为二进制快照，供运行时在没有 SQLite 的情况下加载
+#
+# 格式（大端）：
+#   int   magic 'ZHAD'
+#   int   version
+#   int   count
+#   byte  level[count]          按 code 排序
+#   int   code[count]
+#   int   parent[count]         上级区划下标，省为 -1
+#   int   name_offset[count + 1]
+#   int   char_count
+#   char  chars[char_count]     UTF-16 名称池
+#   int   name_order[count]     按名称排序的下标
+
+MAGIC = 0x5A484144
+VERSION = 1
+SOURCE = 'data.db'
+TARGET = '../src/main/resources/area.bin'
+
+db = sqlite3.connect(SOURCE)
+rows = db.execute(
+    'select code, name, level, parent_code from area where level between 1 and 4').fetchall()
+rows.sort(key=lambda row: row[0])
+index = {row[0]: i for i, row in enumerate(rows)}
+
+for code, name, level, parent_code in rows:
+    if str(int(code)) != code:
+        raise ValueError('code is not a plain number: %s' % code)
+    if level > 1 and parent_code not in index:
+        raise ValueError('missing parent for %s' % code)
+
+pool = []
+offsets = [0]
+for row in rows:
+    pool.append(row[1])
+    offsets.append(offsets[-1] + len(row[1].encode('utf-16-be')) // 2)
+chars = ''.join(pool).encode('utf-16-be')
+# 与 Java String.compareTo 一致，按 UTF-16 码元排序
+name_order = sorted(range(len(rows)), key=lambda i: (rows[i][1].encode('utf-16-be'), i))
+
+count = len(rows)
+with open(TARGET, 'wb') as out:
+    out.write(struct.pack('>3i', MAGIC, VERSION, count))
+    out.write(struct.pack('>%db' % count, *[row[2] for row in rows]))
+    out.write(struct.pack('>%di' % count, *[int(row[0]) for row in rows]))
+    out.write(struct.pack('>%di' % count,
+                          *[index[row[3]] if row[2] > 1 else -1 for row in rows]))
+    out.write(struct.pack('>%di' % (count + 1), *offsets))
+    out.write(struct.pack('>i', len(chars) // 2))
+    out.write(chars)
+    out.write(struct.pack('>%di' % count, *name_order))
@@ -0,0 +1,153 @@
+package com.github.daihy8759.util.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界并发缓存
+ * <p>
+ * 按 CLOCK（二次机会）算法近似 LRU 淘汰：读取只在条目上打访问标记，不加锁；
+ * 写入时在环形槽位上转动指针，跳过并清除带标记的条目，淘汰第一个未被访问过的条目。
+ * 可选写入后过期，过期条目在读取时失效、在指针经过时回收。
+ * <p>
+ * 槽位随条目增加按倍数扩容，写满 maximumSize 个槽位之后才开始淘汰，未用满的缓存不预先占用内存。
+ */
+public class BoundedCache<K, V> {
+
+  private static final int INITIAL_SLOTS = 16;
+
+  private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+
+  private final int maximumSize;
+
+  private Node<K, V>[] ring;
+
+  /**
+   * 已分配出去的槽位数，达到 maximumSize 之前新条目依次使用空槽位
+   */
+  private int used;
+
+  private final long expireNanos;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private int hand;
+
+  /**
+   * @param maximumSize      最大条目数
+   * @param expireAfterWrite 写入后多久过期，为 null 时不过期
+   */
+  public BoundedCache(int maximumSize, Duration expireAfterWrite) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    this.maximumSize = maximumSize;
+    this.ring = newRing(Math.min(maximumSize, INITIAL_SLOTS));
+    this.expireNanos = expireAfterWrite == null ? 0 : expireAfterWrite.toNanos();
+  }
+
+  /**
+   * 读取缓存，不存在或已过期时返回 null
+   */
+  public V get(K key) {
+    Node<K, V> node = map.get(key);
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+    if (isExpired(node, System.nanoTime())) {
+      if (map.remove(key, node)) {
+        evictions.increment();
+      }
+      misses.increment();
+      return null;
+    }
+    if (!node.referenced) {
+      node.referenced = true;
+    }
+    hits.increment();
+    return node.value;
+  }
+
+  public synchronized void put(K key, V value) {
+    Node<K, V> node = new Node<>(key, value, System.nanoTime());
+    Node<K, V> old = map.put(key, node);
+    if (old != null && old.slot < ring.length && ring[old.slot] == old) {
+      node.slot = old.slot;
+      ring[node.slot] = node;
+      return;
+    }
+    node.slot = nextSlot(node.writeNanos);
+    ring[node.slot] = node;
+  }
+
+  public synchronized void clear() {
+    map.clear();
+    ring = newRing(Math.min(maximumSize, INITIAL_SLOTS));
+    used = 0;
+    hand = 0;
+  }
+
+  public long size() {
+    return map.size();
+  }
+
+  public CacheStats stats() {
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), map.size());
+  }
+
+  private int nextSlot(long now) {
+    if (used < maximumSize) {
+      if (used == ring.length) {
+        ring = Arrays.copyOf(ring, (int) Math.min(maximumSize, (long) ring.length * 2));
+      }
+      return used++;
+    }
+    while (true) {
+      int slot = hand;
+      hand = hand + 1 == ring.length ? 0 : hand + 1;
+      Node<K, V> victim = ring[slot];
+      if (victim == null) {
+        return slot;
+      }
+      if (victim.referenced && !isExpired(victim, now)) {
+        victim.referenced = false;
+        continue;
+      }
+      if (map.remove(victim.key, victim)) {
+        evictions.increment();
+      }
+      return slot;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Node<K, V>[] newRing(int size) {
+    return new Node[size];
+  }
+
+  private boolean isExpired(Node<K, V> node, long now) {
+    return expireNanos > 0 && now - node.writeNanos >= expireNanos;
+  }
+
+  private static final class Node<K, V> {
+
+    private final K key;
+    private final V value;
+    private final long writeNanos;
+    private volatile boolean referenced;
+    private int slot;
+
+    private Node(K key, V value, long writeNanos) {
+      this.key = key;
+      this.value = value;
+      this.writeNanos = writeNanos;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.daihy8759.util.cache;
+
+/**
+ * 缓存统计快照
+ */
+public class CacheStats {
+
+  private final long hitCount;
+
+  private final long missCount;
+
+  private final long evictionCount;
+
+  private final long size;
+
+  public CacheStats(long hitCount, long missCount, long evictionCount, long size) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.size = size;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * 因容量或过期被淘汰的条目数
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * 命中率，没有请求时为 0
+   */
+  public double getHitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 0 : (double) hitCount / requests;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("hit=%d, miss=%d, eviction=%d, size=%d, hitRate=%.4f", hitCount,
+        missCount, evictionCount, size, getHitRate());
+  }
+}
@@ -0,0 +1,520 @@
+package com.github.daihy8759.util.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 直接在 UTF-8 字节上按顺序读取 JSON 的拉取式解析器
+ * <p>
+ * 不建立 Map、JSONObject 等中间结构，字段名可用 {@link #selectName(String[])} 与候选名称逐字符比较，
+ * 只有读取字符串值时才创建 String。格式错误时抛出 {@link MalformedJsonException}。非线程安全。
+ *
+ * <pre>
+ *   JsonReader reader = new JsonReader(bytes);
+ *   reader.beginObject();
+ *   while (reader.hasNext()) {
+ *     if ("address".equals(reader.nextName())) {
+ *       address = reader.nextStringOrNull();
+ *     } else {
+ *       reader.skipValue();
+ *     }
+ *   }
+ *   reader.endObject();
+ * </pre>
+ */
+public final class JsonReader {
+
+  private static final int MAX_DEPTH = 63;
+
+  private final byte[] buf;
+
+  private final int limit;
+
+  private int pos;
+
+  private int depth;
+
+  /**
+   * 第 n 位表示第 n 层容器还没有读到元素
+   */
+  private long empty;
+
+  private boolean afterName;
+
+  private char[] chars = new char[64];
+
+  public JsonReader(byte[] bytes) {
+    this(bytes, 0, bytes.length);
+  }
+
+  public JsonReader(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > bytes.length) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+    }
+    this.buf = bytes;
+    this.pos = offset;
+    this.limit = offset + length;
+  }
+
+  /**
+   * 读取 buffer 的剩余字节；堆外 buffer 会复制一次，buffer 的位置不变
+   */
+  public static JsonReader of(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return new JsonReader(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new JsonReader(bytes);
+  }
+
+  /**
+   * 当前读取到的字节位置
+   */
+  public int position() {
+    return pos;
+  }
+
+  public JsonToken peek() {
+    int p = valueStart();
+    if (p >= limit) {
+      return JsonToken.END_DOCUMENT;
+    }
+    switch (buf[p]) {
+      case '{':
+        return JsonToken.BEGIN_OBJECT;
+      case '}':
+        return JsonToken.END_OBJECT;
+      case '[':
+        return JsonToken.BEGIN_ARRAY;
+      case ']':
+        return JsonToken.END_ARRAY;
+      case '"':
+        return JsonToken.STRING;
+      case 't':
+      case 'f':
+        return JsonToken.BOOLEAN;
+      case 'n':
+        return JsonToken.NULL;
+      default:
+        return JsonToken.NUMBER;
+    }
+  }
+
+  /**
+   * 当前对象或数组是否还有元素
+   */
+  public boolean hasNext() {
+    int p = skipWhitespace(pos);
+    return p < limit && buf[p] != '}' && buf[p] != ']';
+  }
+
+  public void beginObject() {
+    open('{');
+  }
+
+  public void endObject() {
+    close('}');
+  }
+
+  public void beginArray() {
+    open('[');
+  }
+
+  public void endArray() {
+    close(']');
+  }
+
+  public String nextName() {
+    startName();
+    String name = readString();
+    endName();
+    return name;
+  }
+
+  /**
+   * 读取字段名并返回在 names 中的下标，不在其中时返回 -1，不创建 String
+   */
+  public int selectName(String[] names) {
+    startName();
+    int length = readChars();
+    endName();
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      if (name.length() == length && matches(name, length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * 读取字符串；数字按原文返回
+   */
+  public String nextString() {
+    beforeValue();
+    if (pos < limit && buf[pos] == '"') {
+      return readString();
+    }
+    int start = pos;
+    skipNumber();
+    if (pos == start) {
+      throw error("expected string");
+    }
+    return new String(buf, start, pos - start, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * 读取字符串，值为 null 时返回 null
+   */
+  public String nextStringOrNull() {
+    if (peek() == JsonToken.NULL) {
+      nextNull();
+      return null;
+    }
+    return nextString();
+  }
+
+  public boolean nextBoolean() {
+    beforeValue();
+    if (literal("true")) {
+      return true;
+    }
+    if (literal("false")) {
+      return false;
+    }
+    throw error("expected boolean");
+  }
+
+  public void nextNull() {
+    beforeValue();
+    if (!literal("null")) {
+      throw error("expected null");
+    }
+  }
+
+  public long nextLong() {
+    beforeValue();
+    int start = pos;
+    boolean negative = pos < limit && buf[pos] == '-';
+    if (negative) {
+      pos++;
+    }
+    long value = 0;
+    int digits = 0;
+    while (pos < limit && buf[pos] >= '0' && buf[pos] <= '9') {
+      if (digits++ == 18) {
+        pos = start;
+        throw error("number too large");
+      }
+      value = value * 10 + (buf[pos++] - '0');
+    }
+    if (digits == 0 || pos < limit && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+      pos = start;
+      throw error("expected integer");
+    }
+    return negative ? -value : value;
+  }
+
+  public int nextInt() {
+    long value = nextLong();
+    if (value != (int) value) {
+      throw error("expected int");
+    }
+    return (int) value;
+  }
+
+  /**
+   * 跳过下一个值，包括嵌套的对象和数组
+   */
+  public void skipValue() {
+    JsonToken token = peek();
+    switch (token) {
+      case BEGIN_OBJECT:
+        beginObject();
+        while (hasNext()) {
+          startName();
+          skipString();
+          endName();
+          skipValue();
+        }
+        endObject();
+        break;
+      case BEGIN_ARRAY:
+        beginArray();
+        while (hasNext()) {
+          skipValue();
+        }
+        endArray();
+        break;
+      case STRING:
+        beforeValue();
+        skipString();
+        break;
+      case BOOLEAN:
+        nextBoolean();
+        break;
+      case NULL:
+        nextNull();
+        break;
+      case NUMBER:
+        beforeValue();
+        int start = pos;
+        skipNumber();
+        if (pos == start) {
+          throw error("unexpected character");
+        }
+        break;
+      default:
+        throw error("unexpected " + token);
+    }
+  }
+
+  private void open(char c) {
+    beforeValue();
+    if (pos >= limit || buf[pos] != c) {
+      throw error("expected '" + c + "'");
+    }
+    if (depth == MAX_DEPTH) {
+      throw error("nesting too deep");
+    }
+    pos++;
+    depth++;
+    empty |= 1L << depth;
+  }
+
+  private void close(char c) {
+    pos = skipWhitespace(pos);
+    if (depth == 0 || afterName || pos >= limit || buf[pos] != c) {
+      throw error("expected '" + c + "'");
+    }
+    pos++;
+    empty &= ~(1L << depth);
+    depth--;
+  }
+
+  private void startName() {
+    if (depth == 0 || afterName) {
+      throw error("expected value");
+    }
+    separator();
+    if (pos >= limit || buf[pos] != '"') {
+      throw error("expected name");
+    }
+  }
+
+  private void endName() {
+    pos = skipWhitespace(pos);
+    if (pos >= limit || buf[pos] != ':') {
+      throw error("expected ':'");
+    }
+    pos++;
+    afterName = true;
+  }
+
+  /**
+   * 跳过空白和元素之间的逗号，定位到下一个值
+   */
+  private void beforeValue() {
+    if (afterName) {
+      afterName = false;
+      pos = skipWhitespace(pos);
+      return;
+    }
+    separator();
+  }
+
+  private void separator() {
+    pos = skipWhitespace(pos);
+    if (depth == 0) {
+      return;
+    }
+    long bit = 1L << depth;
+    if ((empty & bit) != 0) {
+      empty &= ~bit;
+      return;
+    }
+    if (pos >= limit || buf[pos] != ',') {
+      throw error("expected ','");
+    }
+    pos = skipWhitespace(pos + 1);
+  }
+
+  /**
+   * 下一个值的起始位置，不移动读取位置
+   */
+  private int valueStart() {
+    int p = skipWhitespace(pos);
+    if (depth > 0 && !afterName && (empty & 1L << depth) == 0 && p < limit && buf[p] == ',') {
+      p = skipWhitespace(p + 1);
+    }
+    return p;
+  }
+
+  private int skipWhitespace(int p) {
+    while (p < limit) {
+      byte b = buf[p];
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        break;
+      }
+      p++;
+    }
+    return p;
+  }
+
+  private boolean literal(String word) {
+    int length = word.length();
+    if (pos + length > limit) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buf[pos + i] != word.charAt(i)) {
+        return false;
+      }
+    }
+    pos += length;
+    return true;
+  }
+
+  private void skipNumber() {
+    while (pos < limit) {
+      byte b = buf[pos];
+      if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+        break;
+      }
+      pos++;
+    }
+  }
+
+  private String readString() {
+    return new String(chars, 0, readChars());
+  }
+
+  private boolean matches(String name, int length) {
+    for (int i = 0; i < length; i++) {
+      if (chars[i] != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void skipString() {
+    pos++;
+    while (pos < limit) {
+      byte b = buf[pos++];
+      if (b == '"') {
+        return;
+      }
+      if (b == '\\') {
+        pos++;
+      }
+    }
+    throw error("unterminated string");
+  }
+
+  /**
+   * 把 pos 处带引号的字符串解码到 chars
+   *
+   * @return 字符数
+   */
+  private int readChars() {
+    int start = pos;
+    pos++;
+    int n = 0;
+    while (true) {
+      if (pos >= limit) {
+        pos = start;
+        throw error("unterminated string");
+      }
+      // 每个字节最多解码出 1 个 char，4 字节序列解码出 2 个
+      if (n + 2 > chars.length) {
+        chars = Arrays.copyOf(chars, chars.length * 2);
+      }
+      int b = buf[pos++];
+      if (b == '"') {
+        return n;
+      }
+      if (b >= 0) {
+        if (b == '\\') {
+          chars[n++] = escape();
+        } else if (b < 0x20) {
+          throw error("control character in string");
+        } else {
+          chars[n++] = (char) b;
+        }
+        continue;
+      }
+      b &= 0xFF;
+      if (b >> 5 == 0x6) {
+        chars[n++] = (char) ((b & 0x1F) << 6 | continuation());
+      } else if (b >> 4 == 0xE) {
+        int c = (b & 0x0F) << 12 | continuation() << 6;
+        chars[n++] = (char) (c | continuation());
+      } else if (b >> 3 == 0x1E) {
+        int codePoint = (b & 0x07) << 18 | continuation() << 12;
+        codePoint |= continuation() << 6;
+        codePoint |= continuation();
+        if (codePoint > Character.MAX_CODE_POINT) {
+          throw error("malformed utf-8");
+        }
+        chars[n++] = Character.highSurrogate(codePoint);
+        chars[n++] = Character.lowSurrogate(codePoint);
+      } else {
+        throw error("malformed utf-8");
+      }
+    }
+  }
+
+  private int continuation() {
+    if (pos >= limit || (buf[pos] & 0xC0) != 0x80) {
+      throw error("malformed utf-8");
+    }
+    return buf[pos++] & 0x3F;
+  }
+
+  private char escape() {
+    if (pos >= limit) {
+      throw error("unterminated escape");
+    }
+    byte b = buf[pos++];
+    switch (b) {
+      case '"':
+      case '\\':
+      case '/':
+        return (char) b;
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'u':
+        if (pos + 4 > limit) {
+          throw error("unterminated escape");
+        }
+        int c = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(buf[pos++], 16);
+          if (digit < 0) {
+            throw error("malformed unicode escape");
+          }
+          c = c << 4 | digit;
+        }
+        return (char) c;
+      default:
+        throw error("malformed escape");
+    }
+  }
+
+  private MalformedJsonException error(String message) {
+    return new MalformedJsonException(message + " at " + pos);
+  }
+
+}
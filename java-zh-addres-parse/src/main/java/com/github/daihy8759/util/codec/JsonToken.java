@@ -0,0 +1,16 @@
+package com.github.daihy8759.util.codec;
+
+/**
+ * {@link JsonReader#peek()} 返回的下一个值的类型
+ */
+public enum JsonToken {
+  BEGIN_OBJECT,
+  END_OBJECT,
+  BEGIN_ARRAY,
+  END_ARRAY,
+  STRING,
+  NUMBER,
+  BOOLEAN,
+  NULL,
+  END_DOCUMENT
+}
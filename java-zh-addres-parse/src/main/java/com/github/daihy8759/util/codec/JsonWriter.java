@@ -0,0 +1,294 @@
+package com.github.daihy8759.util.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 把 JSON 直接以 UTF-8 写入可复用的字节缓冲区
+ * <p>
+ * 字符串逐个字符编码、转义，不创建中间的 String、Map 或 byte[]；写完一批后用
+ * {@link #writeTo(OutputStream)} 一次写出，再 {@link #reset()} 复用缓冲区。
+ * 逗号、冒号由写入器维护，嵌套不超过 63 层。非线程安全。
+ *
+ * <pre>
+ *   JsonWriter writer = new JsonWriter();
+ *   writer.beginObject().name("row").value(1).name("result");
+ *   ParseResultJson.write(writer, result);
+ *   writer.endObject().newLine().writeTo(out);
+ * </pre>
+ */
+public final class JsonWriter {
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+  private static final int MAX_DEPTH = 63;
+
+  private byte[] buf;
+
+  private int size;
+
+  private int depth;
+
+  /**
+   * 第 n 位表示第 n 层容器还没有写入元素
+   */
+  private long empty;
+
+  private boolean afterName;
+
+  public JsonWriter() {
+    this(256);
+  }
+
+  public JsonWriter(int capacity) {
+    this.buf = new byte[Math.max(16, capacity)];
+  }
+
+  public JsonWriter beginObject() {
+    return open('{');
+  }
+
+  public JsonWriter endObject() {
+    return close('}');
+  }
+
+  public JsonWriter beginArray() {
+    return open('[');
+  }
+
+  public JsonWriter endArray() {
+    return close(']');
+  }
+
+  public JsonWriter name(String name) {
+    if (depth == 0 || afterName) {
+      throw new IllegalStateException("name outside of object");
+    }
+    separator();
+    string(name);
+    ensure(1);
+    buf[size++] = ':';
+    afterName = true;
+    return this;
+  }
+
+  /**
+   * 写入字符串，value 为 null 时写入 null
+   */
+  public JsonWriter value(String value) {
+    beforeValue();
+    if (value == null) {
+      raw(NULL);
+    } else {
+      string(value);
+    }
+    return this;
+  }
+
+  public JsonWriter value(long value) {
+    beforeValue();
+    if (value == Long.MIN_VALUE) {
+      raw(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+      return this;
+    }
+    ensure(20);
+    if (value < 0) {
+      buf[size++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long v = value; v >= 10; v /= 10) {
+      digits++;
+    }
+    for (int i = size + digits - 1; i >= size; i--) {
+      buf[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    size += digits;
+    return this;
+  }
+
+  public JsonWriter value(boolean value) {
+    beforeValue();
+    raw(value ? TRUE : FALSE);
+    return this;
+  }
+
+  public JsonWriter nullValue() {
+    beforeValue();
+    raw(NULL);
+    return this;
+  }
+
+  /**
+   * 在顶层写入换行，用于 JSON Lines / NDJSON
+   */
+  public JsonWriter newLine() {
+    if (depth != 0) {
+      throw new IllegalStateException("new line inside of container");
+    }
+    ensure(1);
+    buf[size++] = '\n';
+    return this;
+  }
+
+  /**
+   * 已写入的字节数
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * 清空已写入的内容，保留缓冲区
+   */
+  public JsonWriter reset() {
+    size = 0;
+    depth = 0;
+    empty = 0;
+    afterName = false;
+    return this;
+  }
+
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(buf, 0, size);
+  }
+
+  /**
+   * 写入 ByteBuffer，剩余空间不足时抛出 {@link BufferOverflowException}，buffer 不变
+   */
+  public void writeTo(ByteBuffer buffer) {
+    buffer.put(buf, 0, size);
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buf, size);
+  }
+
+  @Override
+  public String toString() {
+    return new String(buf, 0, size, StandardCharsets.UTF_8);
+  }
+
+  private JsonWriter open(char c) {
+    beforeValue();
+    if (depth == MAX_DEPTH) {
+      throw new IllegalStateException("nesting too deep");
+    }
+    ensure(1);
+    buf[size++] = (byte) c;
+    depth++;
+    empty |= 1L << depth;
+    return this;
+  }
+
+  private JsonWriter close(char c) {
+    if (depth == 0 || afterName) {
+      throw new IllegalStateException("unbalanced " + c);
+    }
+    empty &= ~(1L << depth);
+    depth--;
+    ensure(1);
+    buf[size++] = (byte) c;
+    return this;
+  }
+
+  private void beforeValue() {
+    if (afterName) {
+      afterName = false;
+      return;
+    }
+    separator();
+  }
+
+  private void separator() {
+    if (depth == 0) {
+      return;
+    }
+    long bit = 1L << depth;
+    if ((empty & bit) != 0) {
+      empty &= ~bit;
+    } else {
+      ensure(1);
+      buf[size++] = ',';
+    }
+  }
+
+  /**
+   * 写入带引号的字符串，转义引号、反斜杠和控制字符，其余字符按 UTF-8 原样写入
+   */
+  private void string(String s) {
+    int length = s.length();
+    // 每个字符最多 6 个字节（\\u00XX），代理对共 4 个字节
+    ensure(length * 6 + 2);
+    byte[] b = buf;
+    int pos = size;
+    b[pos++] = '"';
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        pos = Utf8.encode(s, i, b, pos);
+        if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          i++;
+        }
+      } else if (c >= 0x20 && c != '"' && c != '\\') {
+        b[pos++] = (byte) c;
+      } else {
+        b[pos++] = '\\';
+        switch (c) {
+          case '"':
+          case '\\':
+            b[pos++] = (byte) c;
+            break;
+          case '\n':
+            b[pos++] = 'n';
+            break;
+          case '\r':
+            b[pos++] = 'r';
+            break;
+          case '\t':
+            b[pos++] = 't';
+            break;
+          case '\b':
+            b[pos++] = 'b';
+            break;
+          case '\f':
+            b[pos++] = 'f';
+            break;
+          default:
+            b[pos++] = 'u';
+            b[pos++] = '0';
+            b[pos++] = '0';
+            b[pos++] = HEX[c >> 4];
+            b[pos++] = HEX[c & 0xF];
+        }
+      }
+    }
+    b[pos++] = '"';
+    size = pos;
+  }
+
+  private void raw(byte[] bytes) {
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buf, size, bytes.length);
+    size += bytes.length;
+  }
+
+  private void ensure(int extra) {
+    if (size + extra > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+    }
+  }
+
+}
@@ -0,0 +1,12 @@
+package com.github.daihy8759.util.codec;
+
+/**
+ * JSON 格式错误，消息中包含出错的字节位置
+ */
+public class MalformedJsonException extends IllegalArgumentException {
+
+  public MalformedJsonException(String message) {
+    super(message);
+  }
+
+}
@@ -0,0 +1,116 @@
+package com.github.daihy8759.util.codec;
+
+import com.github.daihy8759.util.model.ParseResult;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ParseResult 与 JSON 互转，不经过反射
+ * <p>
+ * 字段按名称排序、省略 null 字段，输出与 fastjson 的 JSON.toJSONString 逐字节一致；
+ * 读取时忽略未知字段，缺少的字段保持 ParseResult 的默认值。
+ */
+public final class ParseResultJson {
+
+  /**
+   * 按 JSON 字段名排序的字段
+   */
+  private static final ResultField[] JSON_ORDER;
+
+  private static final String[] JSON_NAMES;
+
+  private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+
+  static {
+    JSON_ORDER = ResultField.VALUES.clone();
+    Arrays.sort(JSON_ORDER, Comparator.comparing(ResultField::jsonName));
+    JSON_NAMES = new String[JSON_ORDER.length];
+    for (int i = 0; i < JSON_ORDER.length; i++) {
+      JSON_NAMES[i] = JSON_ORDER[i].jsonName();
+    }
+  }
+
+  private ParseResultJson() {
+  }
+
+  /**
+   * 作为一个值写入 writer，result 为 null 时写入 null
+   */
+  public static void write(JsonWriter writer, ParseResult result) {
+    if (result == null) {
+      writer.nullValue();
+      return;
+    }
+    writer.beginObject();
+    for (ResultField field : JSON_ORDER) {
+      String value = field.get(result);
+      if (value != null) {
+        writer.name(field.jsonName()).value(value);
+      }
+    }
+    writer.endObject();
+  }
+
+  public static void write(ParseResult result, OutputStream out) throws IOException {
+    JsonWriter writer = WRITERS.get().reset();
+    write(writer, result);
+    writer.writeTo(out);
+  }
+
+  /**
+   * 剩余空间不足时抛出 {@link BufferOverflowException}，buffer 不变
+   */
+  public static void write(ParseResult result, ByteBuffer buffer) {
+    JsonWriter writer = WRITERS.get().reset();
+    write(writer, result);
+    writer.writeTo(buffer);
+  }
+
+  public static byte[] toBytes(ParseResult result) {
+    JsonWriter writer = WRITERS.get().reset();
+    write(writer, result);
+    return writer.toByteArray();
+  }
+
+  /**
+   * 读取一个值，为 null 时返回 null
+   */
+  public static ParseResult read(JsonReader reader) {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    ParseResult result = new ParseResult();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      int index = reader.selectName(JSON_NAMES);
+      if (index < 0) {
+        reader.skipValue();
+      } else {
+        JSON_ORDER[index].set(result, reader.nextStringOrNull());
+      }
+    }
+    reader.endObject();
+    return result;
+  }
+
+  public static ParseResult read(byte[] bytes, int offset, int length) {
+    return read(new JsonReader(bytes, offset, length));
+  }
+
+  /**
+   * 从 buffer 的当前位置读取一个值，完成后 buffer 的位置移到该值之后
+   */
+  public static ParseResult read(ByteBuffer buffer) {
+    JsonReader reader = JsonReader.of(buffer);
+    int start = reader.position();
+    ParseResult result = read(reader);
+    buffer.position(buffer.position() + reader.position() - start);
+    return result;
+  }
+
+}
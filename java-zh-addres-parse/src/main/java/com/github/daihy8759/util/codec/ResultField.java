@@ -0,0 +1,169 @@
+package com.github.daihy8759.util.codec;
+
+import com.github.daihy8759.util.model.ParseResult;
+
+/**
+ * ParseResult 的字段，顺序与声明顺序一致，二进制格式按此顺序编号
+ */
+enum ResultField {
+  PROVINCE_CODE("provinceCode") {
+    @Override
+    String get(ParseResult result) {
+      return result.getProvinceCode();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setProvinceCode(value);
+    }
+  },
+  PROVINCE_NAME("provinceName") {
+    @Override
+    String get(ParseResult result) {
+      return result.getProvinceName();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setProvinceName(value);
+    }
+  },
+  CITY_CODE("cityCode") {
+    @Override
+    String get(ParseResult result) {
+      return result.getCityCode();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setCityCode(value);
+    }
+  },
+  CITY_NAME("cityName") {
+    @Override
+    String get(ParseResult result) {
+      return result.getCityName();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setCityName(value);
+    }
+  },
+  AREA_CODE("areaCode") {
+    @Override
+    String get(ParseResult result) {
+      return result.getAreaCode();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setAreaCode(value);
+    }
+  },
+  AREA_NAME("areaName") {
+    @Override
+    String get(ParseResult result) {
+      return result.getAreaName();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setAreaName(value);
+    }
+  },
+  STREET_CODE("streetCode") {
+    @Override
+    String get(ParseResult result) {
+      return result.getStreetCode();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setStreetCode(value);
+    }
+  },
+  STREET_NAME("streetName") {
+    @Override
+    String get(ParseResult result) {
+      return result.getStreetName();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setStreetName(value);
+    }
+  },
+  POSTAL_CODE("postalCode") {
+    @Override
+    String get(ParseResult result) {
+      return result.getPostalCode();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setPostalCode(value);
+    }
+  },
+  NAME("name") {
+    @Override
+    String get(ParseResult result) {
+      return result.getName();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setName(value);
+    }
+  },
+  PHONE("phone") {
+    @Override
+    String get(ParseResult result) {
+      return result.getPhone();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setPhone(value);
+    }
+  },
+  DETAIL("detail") {
+    @Override
+    String get(ParseResult result) {
+      return result.getDetail();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setDetail(value);
+    }
+  },
+  DATASET_VERSION("datasetVersion") {
+    @Override
+    String get(ParseResult result) {
+      return result.getDatasetVersion();
+    }
+
+    @Override
+    void set(ParseResult result, String value) {
+      result.setDatasetVersion(value);
+    }
+  };
+
+  static final ResultField[] VALUES = values();
+
+  private final String jsonName;
+
+  ResultField(String jsonName) {
+    this.jsonName = jsonName;
+  }
+
+  String jsonName() {
+    return jsonName;
+  }
+
+  abstract String get(ParseResult result);
+
+  abstract void set(ParseResult result, String value);
+
+}
@@ -0,0 +1,87 @@
+package com.github.daihy8759.util.codec;
+
+/**
+ * 直接在 byte[] 上进行 UTF-8 编码，不经过 String.getBytes 创建临时数组
+ * <p>
+ * 不成对的代理字符与 String.getBytes 一样替换为 '?'。
+ */
+final class Utf8 {
+
+  private Utf8() {
+  }
+
+  /**
+   * 编码后的字节数
+   */
+  static int encodedLength(CharSequence s) {
+    int length = s.length();
+    int bytes = length;
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          bytes += 1;
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          // 两个 char 编码为 4 个字节
+          bytes += 2;
+          i++;
+        } else if (Character.isSurrogate(c)) {
+          // '?'
+        } else {
+          bytes += 2;
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * 把 s 编码到 dst 的 pos 处，dst 至少还有 {@link #encodedLength(CharSequence)} 个字节
+   *
+   * @return 编码结束的位置
+   */
+  static int encode(CharSequence s, byte[] dst, int pos) {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      pos = encode(s, i, dst, pos);
+      if (Character.isHighSurrogate(s.charAt(i)) && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        i++;
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * 编码 s 中下标为 i 的字符，高代理字符与其后的低代理字符一起编码
+   *
+   * @return 编码结束的位置
+   */
+  static int encode(CharSequence s, int i, byte[] dst, int pos) {
+    char c = s.charAt(i);
+    if (c < 0x80) {
+      dst[pos++] = (byte) c;
+    } else if (c < 0x800) {
+      dst[pos++] = (byte) (0xC0 | c >> 6);
+      dst[pos++] = (byte) (0x80 | c & 0x3F);
+    } else if (Character.isSurrogate(c)) {
+      if (Character.isHighSurrogate(c) && i + 1 < s.length()
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+        dst[pos++] = (byte) (0xF0 | codePoint >> 18);
+        dst[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        dst[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        dst[pos++] = (byte) (0x80 | codePoint & 0x3F);
+      } else {
+        dst[pos++] = '?';
+      }
+    } else {
+      dst[pos++] = (byte) (0xE0 | c >> 12);
+      dst[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+      dst[pos++] = (byte) (0x80 | c & 0x3F);
+    }
+    return pos;
+  }
+
+}
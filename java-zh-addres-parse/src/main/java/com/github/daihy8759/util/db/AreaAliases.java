@@ -0,0 +1,88 @@
+package com.github.daihy8759.util.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 区划别名
+ * <p>
+ * 去掉省、市、区、县等后缀的写法（广西、内蒙、福清）本身就是全称的前缀，字典树按前缀匹配即可命中，不再重复收录。
+ * 这里只生成不是全称前缀的常见写法：民族自治地方去掉民族名称的简称（恩施州、长阳县、伊犁州），
+ * 以及自治区按省的习惯写法（广西省、内蒙古省）。
+ */
+public final class AreaAliases {
+
+  /**
+   * 自治地方后缀 -> 简称后缀
+   */
+  private static final String[][] SUFFIXES = {
+      {"自治区", "省"},
+      {"自治州", "州"},
+      {"自治县", "县"},
+      {"自治旗", "旗"}
+  };
+
+  /**
+   * 少数民族名称，按长度从长到短排列，优先匹配较长的名称
+   */
+  private static final String[] ETHNIC_GROUPS;
+
+  static {
+    String[] groups = {"蒙古", "回", "藏", "维吾尔", "苗", "彝", "壮", "布依", "朝鲜", "满", "侗", "瑶", "白",
+        "土家", "哈尼", "哈萨克", "傣", "黎", "傈僳", "佤", "畲", "高山", "拉祜", "水", "东乡", "纳西", "景颇",
+        "柯尔克孜", "土", "达斡尔", "仫佬", "羌", "布朗", "撒拉", "毛南", "仡佬", "锡伯", "阿昌", "普米", "塔吉克",
+        "怒", "乌孜别克", "俄罗斯", "鄂温克", "德昂", "保安", "裕固", "京", "塔塔尔", "独龙", "鄂伦春", "赫哲",
+        "门巴", "珞巴", "基诺"};
+    Arrays.sort(groups, (o1, o2) -> o2.length() - o1.length());
+    ETHNIC_GROUPS = groups;
+  }
+
+  private AreaAliases() {
+  }
+
+  /**
+   * 区划全称的别名，没有时返回空列表
+   */
+  public static List<String> of(String name) {
+    for (String[] suffix : SUFFIXES) {
+      if (!name.endsWith(suffix[0])) {
+        continue;
+      }
+      String base = name.substring(0, name.length() - suffix[0].length());
+      for (String stripped = stripEthnic(base); stripped != null; stripped = stripEthnic(base)) {
+        base = stripped;
+      }
+      if (base.length() < 2 || base.endsWith("族")) {
+        return Collections.emptyList();
+      }
+      List<String> aliases = new ArrayList<>(1);
+      aliases.add(base + suffix[1]);
+      return aliases;
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * 去掉末尾的一个民族名称，剩余不足两个字时不去掉
+   *
+   * @return 没有可去掉的民族名称时返回 null
+   */
+  private static String stripEthnic(String base) {
+    for (String group : ETHNIC_GROUPS) {
+      String stripped = null;
+      if (base.endsWith(group + "族")) {
+        stripped = base.substring(0, base.length() - group.length() - 1);
+      } else if (group.length() > 1 && base.endsWith(group)) {
+        // 维吾尔、哈萨克、蒙古等多字名称常省略“族”字，单字名称省略后容易误伤地名，例如西藏
+        stripped = base.substring(0, base.length() - group.length());
+      }
+      if (stripped != null && stripped.length() >= 2) {
+        return stripped;
+      }
+    }
+    return null;
+  }
+
+}
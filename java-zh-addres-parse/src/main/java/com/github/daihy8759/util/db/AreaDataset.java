@@ -0,0 +1,203 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 一份已加载完成的区划数据及其版本，加载后不可变
+ * <p>
+ * 支持 db/snapshot.py 生成的二进制快照和 data.db，两者都加载为内存字典；读取 data.db 需要 sqlite-jdbc。
+ * 未指定版本时以文件内容的 CRC32 作为版本，同样的数据版本相同。
+ *
+ * @see AreaDatasetManager
+ */
+public final class AreaDataset {
+
+  private static final byte[] SQLITE_HEADER = "SQLite format 3\u0000"
+      .getBytes(StandardCharsets.US_ASCII);
+
+  private final String version;
+
+  private final String source;
+
+  private final DictionaryAreaRepository repository;
+
+  private final Instant loadedAt = Instant.now();
+
+  private AreaDataset(String version, String source, AreaDictionary dictionary) {
+    if (version == null || dictionary == null) {
+      throw new IllegalArgumentException("version and dictionary must not be null");
+    }
+    this.version = version;
+    this.source = source;
+    this.repository = new DictionaryAreaRepository(dictionary, version);
+  }
+
+  /**
+   * 使用已构建好的字典
+   */
+  public static AreaDataset of(String version, AreaDictionary dictionary) {
+    return new AreaDataset(version, "", dictionary);
+  }
+
+  /**
+   * 从文件加载，文件为二进制快照或 data.db
+   */
+  public static AreaDataset load(Path path) {
+    try {
+      byte[] content = Files.readAllBytes(path);
+      return load(content, path.toString());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 从 classpath 加载，资源为二进制快照或 data.db
+   */
+  public static AreaDataset loadResource(String resource) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = AreaDataset.class.getClassLoader();
+    }
+    try (InputStream in = classLoader.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new IllegalArgumentException("resource not found in classpath: " + resource);
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+      return load(out.toByteArray(), "classpath:" + resource);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 版本和数据都来自同一份 content，加载期间源文件被替换也不会错配
+   */
+  private static AreaDataset load(byte[] content, String source) {
+    CRC32 crc = new CRC32();
+    crc.update(content, 0, content.length);
+    String version = String.format("%08x", crc.getValue());
+    if (startsWith(content, SQLITE_HEADER)) {
+      return new AreaDataset(version, source, readSqlite(content, source));
+    }
+    return new AreaDataset(version, source, AreaSnapshot.read(ByteBuffer.wrap(content)));
+  }
+
+  /**
+   * sqlite-jdbc 只能从文件读取，把已读入的内容写到私有的临时文件再读取，读完即删除
+   */
+  private static AreaDictionary readSqlite(byte[] content, String source) {
+    Path copy = null;
+    try {
+      copy = Files.createTempFile("zh-address-", ".db");
+      Files.write(copy, content);
+      return readSqlite("jdbc:sqlite:" + copy.toAbsolutePath(), source);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      deleteQuietly(copy);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // 删除失败不影响已读出的数据，临时文件留给系统清理
+      path.toFile().deleteOnExit();
+    }
+  }
+
+  /**
+   * 直接通过 JDBC 读取，不依赖 SqliteUtil 的连接池
+   */
+  private static AreaDictionary readSqlite(String url, String source) {
+    List<Area> areaList = new ArrayList<>();
+    List<Integer> levelList = new ArrayList<>();
+    try (Connection connection = DriverManager.getConnection(url);
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select code,name,level,parent_code from area")) {
+      while (rs.next()) {
+        Area area = new Area();
+        area.setCode(rs.getString(1));
+        area.setName(rs.getString(2));
+        area.setParentCode(rs.getString(4));
+        areaList.add(area);
+        levelList.add(rs.getInt(3));
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("failed to read " + source, e);
+    }
+    return AreaDictionary.of(areaList, levelList);
+  }
+
+  private static boolean startsWith(byte[] content, byte[] prefix) {
+    if (content.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (content[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * 数据来源，文件路径或 classpath:资源名，由字典直接创建时为空字符串
+   */
+  public String getSource() {
+    return source;
+  }
+
+  public AreaDictionary getDictionary() {
+    return repository.dictionary();
+  }
+
+  /**
+   * 固定在这份数据上的仓库
+   */
+  public AreaRepository getRepository() {
+    return repository;
+  }
+
+  public Instant getLoadedAt() {
+    return loadedAt;
+  }
+
+  @Override
+  public String toString() {
+    return "AreaDataset{version=" + version + ", source=" + source + ", areas="
+        + repository.dictionary().size() + "}";
+  }
+
+}
@@ -0,0 +1,235 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 按名称管理多份区划数据，支持不停机热更新
+ * <p>
+ * 新数据在后台线程加载并建好字典、字典树后，通过 volatile 引用一次性替换；替换前已开始的解析
+ * 通过 {@link AreaRepository#snapshot()} 固定在旧数据上直至结束，替换后开始的解析使用新数据。
+ * 同一名称的多次加载按发起顺序生效，先发起、后完成的加载不会覆盖较新的数据。
+ * 多个名称的数据可以同时存在，例如分别创建解析器对比新旧数据的解析结果。
+ *
+ * <pre>
+ *   AreaDatasetManager datasets = new AreaDatasetManager();
+ *   datasets.load("default", Paths.get("area.bin")).join();
+ *   AddressParser parser = new AddressParser(datasets.repository("default"));
+ *   datasets.load("default", Paths.get("area-2024.bin"));
+ * </pre>
+ */
+public class AreaDatasetManager implements AutoCloseable {
+
+  private final ConcurrentMap<String, DatasetRepository> datasets = new ConcurrentHashMap<>();
+
+  private final Executor executor;
+
+  /**
+   * 执行器由本类创建时为 true，关闭时一并关闭
+   */
+  private final boolean ownsExecutor;
+
+  /**
+   * 使用单个守护线程加载数据
+   */
+  public AreaDatasetManager() {
+    this(Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "area-dataset-loader");
+      thread.setDaemon(true);
+      return thread;
+    }), true);
+  }
+
+  /**
+   * @param executor 加载数据的线程池，由调用方负责关闭
+   */
+  public AreaDatasetManager(Executor executor) {
+    this(executor, false);
+  }
+
+  private AreaDatasetManager(Executor executor, boolean ownsExecutor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("executor is null");
+    }
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * 在后台加载文件并替换同名数据，文件为二进制快照或 data.db
+   *
+   * @return 加载完成并生效后完成；加载失败时以异常完成，原有数据不变
+   */
+  public CompletableFuture<AreaDataset> load(String name, Path path) {
+    return load(name, () -> AreaDataset.load(path));
+  }
+
+  /**
+   * 在后台加载 classpath 中的资源并替换同名数据
+   *
+   * @see #load(String, Path)
+   */
+  public CompletableFuture<AreaDataset> loadResource(String name, String resource) {
+    return load(name, () -> AreaDataset.loadResource(resource));
+  }
+
+  /**
+   * 在后台执行 loader 并替换同名数据，可用于自定义版本号或数据来源
+   *
+   * @see #load(String, Path)
+   */
+  public CompletableFuture<AreaDataset> load(String name, Supplier<AreaDataset> loader) {
+    if (name == null || loader == null) {
+      throw new IllegalArgumentException("name and loader must not be null");
+    }
+    DatasetRepository repository = datasets.computeIfAbsent(name, DatasetRepository::new);
+    long sequence = repository.nextSequence();
+    return CompletableFuture.supplyAsync(() -> {
+      AreaDataset dataset = loader.get();
+      if (dataset == null) {
+        throw new IllegalStateException("loader returned null for dataset " + name);
+      }
+      repository.swap(sequence, dataset);
+      return dataset;
+    }, executor);
+  }
+
+  /**
+   * 立即替换为已加载好的数据
+   */
+  public void put(String name, AreaDataset dataset) {
+    if (name == null || dataset == null) {
+      throw new IllegalArgumentException("name and dataset must not be null");
+    }
+    DatasetRepository repository = datasets.computeIfAbsent(name, DatasetRepository::new);
+    repository.swap(repository.nextSequence(), dataset);
+  }
+
+  /**
+   * 当前生效的数据，尚未加载完成时返回 null
+   */
+  public AreaDataset get(String name) {
+    DatasetRepository repository = datasets.get(name);
+    return repository == null ? null : repository.current;
+  }
+
+  /**
+   * 始终使用该名称当前生效数据的仓库，数据替换后无需重新创建持有它的解析器
+   * <p>
+   * 数据尚未加载完成时查询会抛出 {@link IllegalStateException}。
+   */
+  public AreaRepository repository(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("name is null");
+    }
+    return datasets.computeIfAbsent(name, DatasetRepository::new);
+  }
+
+  /**
+   * 已登记的名称
+   */
+  public Set<String> names() {
+    return Collections.unmodifiableSet(datasets.keySet());
+  }
+
+  /**
+   * 移除数据，已创建的仓库随后的查询抛出 {@link IllegalStateException}
+   */
+  public void remove(String name) {
+    DatasetRepository repository = datasets.remove(name);
+    if (repository != null) {
+      repository.swap(Long.MAX_VALUE, null);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      ((ExecutorService) executor).shutdown();
+    }
+  }
+
+  /**
+   * 转发到同名的当前数据
+   */
+  private static final class DatasetRepository implements AreaRepository {
+
+    private final String name;
+
+    private volatile AreaDataset current;
+
+    /**
+     * 已发起的加载次数
+     */
+    private long requested;
+
+    /**
+     * 当前数据对应的加载序号
+     */
+    private long applied;
+
+    private DatasetRepository(String name) {
+      this.name = name;
+    }
+
+    private synchronized long nextSequence() {
+      return ++requested;
+    }
+
+    private synchronized void swap(long sequence, AreaDataset dataset) {
+      if (sequence > applied) {
+        applied = sequence;
+        current = dataset;
+      }
+    }
+
+    private AreaRepository delegate() {
+      AreaDataset dataset = current;
+      if (dataset == null) {
+        throw new IllegalStateException("dataset not loaded: " + name);
+      }
+      return dataset.getRepository();
+    }
+
+    @Override
+    public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+      return delegate().findByPrefix(parentCode, namePrefix, level);
+    }
+
+    @Override
+    public List<Area> findChildren(String parentCode, int level) {
+      return delegate().findChildren(parentCode, level);
+    }
+
+    @Override
+    public Area findByCode(String code, int level) {
+      return delegate().findByCode(code, level);
+    }
+
+    @Override
+    public AreaDictionary dictionary() {
+      return delegate().dictionary();
+    }
+
+    @Override
+    public AreaRepository snapshot() {
+      return delegate();
+    }
+
+    @Override
+    public String version() {
+      return delegate().version();
+    }
+  }
+
+}
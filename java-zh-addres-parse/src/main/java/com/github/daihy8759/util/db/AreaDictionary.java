@@ -0,0 +1,705 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行政区划内存字典
+ * <p>
+ * 启动时一次性加载，加载后不可变，可在多线程间共享。
+ * 全部区划按 code 排序，下标即区划索引；编码以 int 存放，名称存放在同一个字符池中，上下级关系为下标数组，
+ * 除按需创建的 {@link Area} 外不持有对象，全部区划连同字典树约占 4 MB 堆内存。
+ * 每个区划的下级、每个级别的全部区划按名称排序，前缀查询使用二分查找；按编码查询使用散列表。
+ */
+public final class AreaDictionary {
+
+  /**
+   * 省、市、区、街道
+   */
+  public static final int MAX_LEVEL = 4;
+
+  /**
+   * 没有匹配
+   */
+  public static final int NONE = -1;
+
+  /**
+   * 匹配到多个
+   */
+  public static final int MANY = -2;
+
+  /**
+   * 最长的编码，街道为 9 位
+   */
+  private static final int CODE_WIDTH = 9;
+
+  private final byte[] levels;
+
+  private final int[] codes;
+
+  /**
+   * 上级区划索引，没有上级时为 {@link #NONE}
+   */
+  private final int[] parents;
+
+  /**
+   * 区划 i 的名称为 names[nameOffsets[i], nameOffsets[i + 1])
+   */
+  private final int[] nameOffsets;
+
+  private final char[] names;
+
+  /**
+   * 别名 a 属于区划 aliasAreas[a]，按区划索引排序
+   */
+  private final int[] aliasAreas;
+
+  /**
+   * 别名 a 为 aliasNames[aliasOffsets[a], aliasOffsets[a + 1])
+   */
+  private final int[] aliasOffsets;
+
+  private final char[] aliasNames;
+
+  /**
+   * 区划 i 的下级为 children[childOffsets[i], childOffsets[i + 1])，按名称排序
+   * <p>
+   * children、levelAreas 中存放的是名称键：小于区划数时为区划全称，否则为别名 key - size()
+   */
+  private final int[] childOffsets;
+
+  private final int[] children;
+
+  /**
+   * 每个级别的全部名称键，按名称排序
+   */
+  private final int[][] levelAreas;
+
+  private final AreaTrie trie;
+
+  /**
+   * 编码 -> 下标的开放寻址散列表，存放下标 + 1，0 表示空位；编码不以 0 开头，数值与编码一一对应
+   */
+  private final int[] codeTable;
+
+  /**
+   * 参数与二进制快照的内容一一对应，见 db/snapshot.py
+   *
+   * @param levels      级别，按 code 排序
+   * @param codes       编码
+   * @param parents     上级区划索引
+   * @param nameOffsets 名称在字符池中的起止位置，长度为区划数 + 1
+   * @param names       名称字符池
+   * @param nameOrder   按名称排序的区划索引
+   */
+  AreaDictionary(byte[] levels, int[] codes, int[] parents, int[] nameOffsets, char[] names,
+      int[] nameOrder) {
+    this.levels = levels;
+    this.codes = codes;
+    this.parents = parents;
+    this.nameOffsets = nameOffsets;
+    this.names = names;
+    int size = codes.length;
+    List<Integer> aliasAreaList = new ArrayList<>();
+    List<String> aliasList = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      for (String alias : AreaAliases.of(nameOf(i))) {
+        aliasAreaList.add(i);
+        aliasList.add(alias);
+      }
+    }
+    this.aliasAreas = new int[aliasList.size()];
+    this.aliasOffsets = new int[aliasList.size() + 1];
+    StringBuilder aliasPool = new StringBuilder();
+    for (int i = 0; i < aliasAreas.length; i++) {
+      aliasAreas[i] = aliasAreaList.get(i);
+      aliasPool.append(aliasList.get(i));
+      aliasOffsets[i + 1] = aliasPool.length();
+    }
+    this.aliasNames = aliasPool.toString().toCharArray();
+    int[] keyOrder = keyOrder(nameOrder, aliasList);
+
+    this.childOffsets = new int[size + 1];
+    int[] levelCounts = new int[MAX_LEVEL + 1];
+    for (int key : keyOrder) {
+      int index = keyArea(key);
+      if (parents[index] >= 0) {
+        childOffsets[parents[index] + 1]++;
+      }
+      levelCounts[levels[index]]++;
+    }
+    for (int i = 0; i < size; i++) {
+      childOffsets[i + 1] += childOffsets[i];
+    }
+    this.children = new int[childOffsets[size]];
+    int[] filled = Arrays.copyOf(childOffsets, size);
+    this.levelAreas = new int[MAX_LEVEL + 1][];
+    for (int level = 0; level <= MAX_LEVEL; level++) {
+      levelAreas[level] = new int[levelCounts[level]];
+      levelCounts[level] = 0;
+    }
+    for (int key : keyOrder) {
+      int index = keyArea(key);
+      if (parents[index] >= 0) {
+        children[filled[parents[index]]++] = key;
+      }
+      levelAreas[levels[index]][levelCounts[levels[index]]++] = key;
+    }
+    this.trie = AreaTrie.build(this, keyOrder);
+    this.codeTable = new int[Integer.highestOneBit(Math.max(size, 1) * 2) * 2];
+    int mask = codeTable.length - 1;
+    for (int i = 0; i < size; i++) {
+      int slot = hash(codes[i]) & mask;
+      while (codeTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      codeTable[slot] = i + 1;
+    }
+  }
+
+  /**
+   * 全称与别名合并后按名称排序
+   */
+  private int[] keyOrder(int[] nameOrder, List<String> aliasList) {
+    int size = codes.length;
+    Integer[] aliasOrder = new Integer[aliasList.size()];
+    for (int i = 0; i < aliasOrder.length; i++) {
+      aliasOrder[i] = size + i;
+    }
+    Arrays.sort(aliasOrder, Comparator.comparing(key -> aliasList.get(key - size)));
+    int[] keyOrder = new int[size + aliasOrder.length];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < keyOrder.length; k++) {
+      if (j == aliasOrder.length || i < size
+          && compareKeys(nameOrder[i], aliasOrder[j]) <= 0) {
+        keyOrder[k] = nameOrder[i++];
+      } else {
+        keyOrder[k] = aliasOrder[j++];
+      }
+    }
+    return keyOrder;
+  }
+
+  /**
+   * 由任意顺序的区划构建字典，超出 1-4 级的区划会被忽略
+   *
+   * @param areaList  区划，编码为不超过 9 位、不以 0 开头的数字
+   * @param levelList 与 areaList 一一对应的级别
+   */
+  public static AreaDictionary of(List<Area> areaList, List<Integer> levelList) {
+    List<Integer> order = new ArrayList<>(areaList.size());
+    for (int i = 0; i < areaList.size(); i++) {
+      if (levelList.get(i) >= 1 && levelList.get(i) <= MAX_LEVEL) {
+        order.add(i);
+      }
+    }
+    order.sort(Comparator.comparing(i -> areaList.get(i).getCode()));
+    int size = order.size();
+    byte[] levels = new byte[size];
+    int[] codes = new int[size];
+    int[] parents = new int[size];
+    int[] nameOffsets = new int[size + 1];
+    Map<String, Integer> indexes = new HashMap<>(size * 2);
+    StringBuilder names = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      Area area = areaList.get(order.get(i));
+      levels[i] = levelList.get(order.get(i)).byteValue();
+      codes[i] = parseCode(area.getCode());
+      names.append(area.getName());
+      nameOffsets[i + 1] = names.length();
+      indexes.put(area.getCode(), i);
+    }
+    for (int i = 0; i < size; i++) {
+      String parentCode = areaList.get(order.get(i)).getParentCode();
+      parents[i] = parentCode == null ? NONE : indexes.getOrDefault(parentCode, NONE);
+    }
+    List<Integer> byName = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      byName.add(i);
+    }
+    byName.sort(Comparator.<Integer, String>comparing(i -> areaList.get(order.get(i)).getName())
+        .thenComparing(i -> i));
+    int[] nameOrder = new int[size];
+    for (int i = 0; i < size; i++) {
+      nameOrder[i] = byName.get(i);
+    }
+    char[] pool = new char[names.length()];
+    names.getChars(0, pool.length, pool, 0);
+    return new AreaDictionary(levels, codes, parents, nameOffsets, pool, nameOrder);
+  }
+
+  /**
+   * 查询名称以 namePrefix 开头的区划，语义与 SqliteUtil.getArea 一致，结果按 code 排序
+   *
+   * @param parentCode 上级编码，为空时在整个级别内查找
+   * @param namePrefix 名称前缀
+   * @param level      级别
+   */
+  public List<Area> getArea(String parentCode, String namePrefix, int level) {
+    int parent = parentIndex(parentCode);
+    if (level < 1 || level > MAX_LEVEL || parent == MANY) {
+      return Collections.emptyList();
+    }
+    int[] bucket = parent == NONE ? levelAreas[level] : children;
+    int start = parent == NONE ? 0 : childOffsets[parent];
+    int end = parent == NONE ? bucket.length : childOffsets[parent + 1];
+    int[] matched = null;
+    int size = 0;
+    for (int i = lowerBound(bucket, start, end, namePrefix, 0, namePrefix.length());
+        i < end && startsWith(bucket[i], namePrefix, 0, namePrefix.length()); i++) {
+      // 与 data.db 的前缀查询一致，只匹配全称
+      if (bucket[i] >= codes.length || levels[bucket[i]] != level) {
+        continue;
+      }
+      if (matched == null) {
+        matched = new int[Math.min(16, end - i)];
+      } else if (size == matched.length) {
+        matched = Arrays.copyOf(matched, size * 2);
+      }
+      matched[size++] = bucket[i];
+    }
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    if (size == 1) {
+      return Collections.singletonList(getArea(matched[0]));
+    }
+    // 索引即 code 顺序
+    Arrays.sort(matched, 0, size);
+    List<Area> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(getArea(matched[i]));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * 查询全称或别名以 text[from, from + length) 开头的区划，不产生中间对象
+   *
+   * @return 唯一匹配时返回区划索引，否则返回 {@link #NONE} 或 {@link #MANY}
+   */
+  public int findPrefix(String parentCode, int level, CharSequence text, int from, int length) {
+    int parent = parentIndex(parentCode);
+    return parent == MANY ? NONE : findPrefix(parent, level, text, from, length);
+  }
+
+  /**
+   * 按上级区划索引查询，上级为 {@link #NONE} 时在整个级别内查找
+   *
+   * @see #findPrefix(String, int, CharSequence, int, int)
+   */
+  public int findPrefix(int parent, int level, CharSequence text, int from, int length) {
+    if (level < 1 || level > MAX_LEVEL || parent < NONE || parent >= codes.length) {
+      return NONE;
+    }
+    int[] bucket = parent == NONE ? levelAreas[level] : children;
+    int start = parent == NONE ? 0 : childOffsets[parent];
+    int end = parent == NONE ? bucket.length : childOffsets[parent + 1];
+    int found = NONE;
+    for (int i = lowerBound(bucket, start, end, text, from, length);
+        i < end && startsWith(bucket[i], text, from, length); i++) {
+      int index = keyArea(bucket[i]);
+      if (levels[index] == level && index != found) {
+        if (found != NONE) {
+          return MANY;
+        }
+        found = index;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * 收集全称或别名以 text[from, from + length) 开头的全部区划，按索引去重，顺序与名称排序一致
+   *
+   * @param parent 上级区划索引，为 {@link #NONE} 时在整个级别内查找
+   * @param out    接收区划索引
+   * @return 区划数，超过 out.length 时返回 -1
+   * @see #findPrefix(int, int, CharSequence, int, int)
+   */
+  public int collectPrefix(int parent, int level, CharSequence text, int from, int length,
+      int[] out) {
+    return collectPrefix(parent, level, text, from, length, out, 0, out.length);
+  }
+
+  /**
+   * 同 {@link #collectPrefix(int, int, CharSequence, int, int, int[])}，结果写入
+   * out[outFrom, outFrom + capacity)，便于调用方复用同一个数组
+   *
+   * @return 区划数，超过 capacity 时返回 -1
+   */
+  public int collectPrefix(int parent, int level, CharSequence text, int from, int length,
+      int[] out, int outFrom, int capacity) {
+    if (level < 1 || level > MAX_LEVEL || parent < NONE || parent >= codes.length) {
+      return 0;
+    }
+    int[] bucket = parent == NONE ? levelAreas[level] : children;
+    int start = parent == NONE ? 0 : childOffsets[parent];
+    int end = parent == NONE ? bucket.length : childOffsets[parent + 1];
+    int count = 0;
+    for (int i = lowerBound(bucket, start, end, text, from, length);
+        i < end && startsWith(bucket[i], text, from, length); i++) {
+      int index = keyArea(bucket[i]);
+      if (levels[index] != level || contains(out, outFrom, count, index)) {
+        continue;
+      }
+      if (count == capacity) {
+        return -1;
+      }
+      out[outFrom + count++] = index;
+    }
+    return count;
+  }
+
+  /**
+   * 查询 ancestor 之下全称或别名为 name 的区划；没有完全相同的名称时按前缀唯一匹配
+   * <p>
+   * ancestor 为上一级时只在其下级中二分查找，跨级时在整个级别内查找后按上级链过滤。
+   *
+   * @param ancestor 上级区划索引，为 {@link #NONE} 时在整个级别内查找
+   * @return 唯一匹配时返回区划索引，否则返回 {@link #NONE} 或 {@link #MANY}
+   */
+  public int findName(int ancestor, int level, CharSequence name) {
+    if (level < 1 || level > MAX_LEVEL || ancestor < NONE || ancestor >= codes.length
+        || name.length() == 0) {
+      return NONE;
+    }
+    boolean direct = ancestor >= 0 && levels[ancestor] == level - 1;
+    int[] bucket = direct ? children : levelAreas[level];
+    int start = direct ? childOffsets[ancestor] : 0;
+    int end = direct ? childOffsets[ancestor + 1] : bucket.length;
+    int exact = NONE;
+    int prefix = NONE;
+    for (int i = lowerBound(bucket, start, end, name, 0, name.length());
+        i < end && startsWith(bucket[i], name, 0, name.length()); i++) {
+      int index = keyArea(bucket[i]);
+      if (levels[index] != level || !direct && ancestor >= 0 && !isAncestor(ancestor, index)) {
+        continue;
+      }
+      if (keyLength(bucket[i]) == name.length()) {
+        exact = exact == NONE || exact == index ? index : MANY;
+      } else {
+        prefix = prefix == NONE || prefix == index ? index : MANY;
+      }
+    }
+    return exact != NONE ? exact : prefix;
+  }
+
+  /**
+   * ancestor 是否为 index 的上级或更上级，沿上级数组最多走三步
+   */
+  public boolean isAncestor(int ancestor, int index) {
+    int level = levels[ancestor];
+    for (int parent = parents[index]; parent >= 0; parent = parents[parent]) {
+      if (parent == ancestor) {
+        return true;
+      }
+      if (levels[parent] <= level) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private static boolean contains(int[] values, int from, int count, int value) {
+    for (int i = from; i < from + count; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 根据编码查询区划
+   */
+  public Area getAreaSingle(String code, int level) {
+    int index = indexOf(code, level);
+    return index < 0 ? null : getArea(index);
+  }
+
+  /**
+   * 根据编码查询区划索引，不存在时返回 {@link #NONE}
+   */
+  public int indexOf(String code, int level) {
+    int index = indexOf(code);
+    return index >= 0 && levels[index] == level ? index : NONE;
+  }
+
+  /**
+   * 根据编码查询区划索引，不存在时返回 {@link #NONE}
+   */
+  public int indexOf(String code) {
+    if (code == null || code.isEmpty() || code.length() > CODE_WIDTH || code.charAt(0) == '0') {
+      return NONE;
+    }
+    int value = 0;
+    for (int i = 0; i < code.length(); i++) {
+      int digit = code.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return NONE;
+      }
+      value = value * 10 + digit;
+    }
+    return indexOf(value);
+  }
+
+  /**
+   * 根据数值编码查询区划索引，查散列表，不存在时返回 {@link #NONE}
+   */
+  public int indexOf(int code) {
+    int mask = codeTable.length - 1;
+    for (int slot = hash(code) & mask; codeTable[slot] != 0; slot = (slot + 1) & mask) {
+      int index = codeTable[slot] - 1;
+      if (codes[index] == code) {
+        return index;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * 根据索引创建区划
+   */
+  public Area getArea(int index) {
+    Area area = new Area();
+    area.setCode(codeOf(index));
+    area.setName(nameOf(index));
+    if (parents[index] >= 0) {
+      area.setParentCode(codeOf(parents[index]));
+    }
+    return area;
+  }
+
+  /**
+   * 区划编码
+   */
+  public int code(int index) {
+    return codes[index];
+  }
+
+  public String codeOf(int index) {
+    return String.valueOf(codes[index]);
+  }
+
+  public String nameOf(int index) {
+    return new String(names, nameOffsets[index], nameLength(index));
+  }
+
+  public int nameLength(int index) {
+    return nameOffsets[index + 1] - nameOffsets[index];
+  }
+
+  /**
+   * text 从 from 开始是否为区划全称
+   */
+  public boolean nameMatches(int index, CharSequence text, int from) {
+    return keyMatches(index, text, from);
+  }
+
+  /**
+   * text 从 from 开始为区划全称时返回全称长度，否则返回匹配到的最长别名的长度，都不匹配时返回 0
+   */
+  public int matchLength(int index, CharSequence text, int from) {
+    if (keyMatches(index, text, from)) {
+      return nameLength(index);
+    }
+    int matched = 0;
+    for (int alias = firstAlias(index); alias < aliasAreas.length && aliasAreas[alias] == index;
+        alias++) {
+      int key = codes.length + alias;
+      if (keyLength(key) > matched && keyMatches(key, text, from)) {
+        matched = keyLength(key);
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * text 从 from 开始与区划全称相同的字数
+   */
+  public int commonPrefixLength(int index, CharSequence text, int from) {
+    int offset = nameOffsets[index];
+    int n = Math.min(nameLength(index), text.length() - from);
+    int i = 0;
+    while (i < n && names[offset + i] == text.charAt(from + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * 区划的别名，见 {@link AreaAliases}
+   */
+  public List<String> aliasesOf(int index) {
+    List<String> aliases = new ArrayList<>(0);
+    for (int alias = firstAlias(index); alias < aliasAreas.length && aliasAreas[alias] == index;
+        alias++) {
+      aliases.add(keyName(codes.length + alias));
+    }
+    return aliases;
+  }
+
+  /**
+   * 别名总数
+   */
+  public int aliasCount() {
+    return aliasAreas.length;
+  }
+
+  /**
+   * 名称键对应的区划索引
+   */
+  int keyArea(int key) {
+    return key < codes.length ? key : aliasAreas[key - codes.length];
+  }
+
+  String keyName(int key) {
+    return new String(keyPool(key), keyOffset(key), keyLength(key));
+  }
+
+  /**
+   * 上级区划索引，没有上级时返回 {@link #NONE}
+   */
+  public int parentOf(int index) {
+    return parents[index];
+  }
+
+  /**
+   * 区划所属级别
+   */
+  public int levelOf(int index) {
+    return levels[index];
+  }
+
+  /**
+   * 区划总数
+   */
+  public int size() {
+    return codes.length;
+  }
+
+  /**
+   * 全部区划名称组成的自动机
+   */
+  public AreaTrie trie() {
+    return trie;
+  }
+
+  /**
+   * @return 上级为空时返回 {@link #NONE}，上级不存在时返回 {@link #MANY}
+   */
+  private int parentIndex(String parentCode) {
+    if (parentCode == null || parentCode.isEmpty()) {
+      return NONE;
+    }
+    int index = indexOf(parentCode);
+    return index < 0 ? MANY : index;
+  }
+
+  private static int hash(int code) {
+    int h = code * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int parseCode(String code) {
+    if (code == null || code.isEmpty() || code.length() > CODE_WIDTH || code.charAt(0) == '0') {
+      throw new IllegalArgumentException("unsupported area code: " + code);
+    }
+    for (int i = 0; i < code.length(); i++) {
+      if (code.charAt(i) < '0' || code.charAt(i) > '9') {
+        throw new IllegalArgumentException("unsupported area code: " + code);
+      }
+    }
+    return Integer.parseInt(code);
+  }
+
+  private int lowerBound(int[] bucket, int low, int high, CharSequence text, int from,
+      int length) {
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(bucket[mid], text, from, length) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int firstAlias(int index) {
+    int low = 0;
+    int high = aliasAreas.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (aliasAreas[mid] < index) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private char[] keyPool(int key) {
+    return key < codes.length ? names : aliasNames;
+  }
+
+  private int keyOffset(int key) {
+    return key < codes.length ? nameOffsets[key] : aliasOffsets[key - codes.length];
+  }
+
+  private int keyLength(int key) {
+    return key < codes.length ? nameLength(key)
+        : aliasOffsets[key - codes.length + 1] - aliasOffsets[key - codes.length];
+  }
+
+  private boolean keyMatches(int key, CharSequence text, int from) {
+    int length = keyLength(key);
+    return text.length() - from >= length && startsWith(key, text, from, length);
+  }
+
+  private int compareKeys(int key1, int key2) {
+    char[] pool = keyPool(key2);
+    int offset = keyOffset(key2);
+    return compare(key1, CharBuffer.wrap(pool, offset, keyLength(key2)), 0, keyLength(key2));
+  }
+
+  private int compare(int key, CharSequence text, int from, int length) {
+    char[] pool = keyPool(key);
+    int offset = keyOffset(key);
+    int keyLength = keyLength(key);
+    int n = Math.min(keyLength, length);
+    for (int i = 0; i < n; i++) {
+      char c1 = pool[offset + i];
+      char c2 = text.charAt(from + i);
+      if (c1 != c2) {
+        return c1 - c2;
+      }
+    }
+    return keyLength - length;
+  }
+
+  private boolean startsWith(int key, CharSequence text, int from, int length) {
+    if (keyLength(key) < length) {
+      return false;
+    }
+    char[] pool = keyPool(key);
+    int offset = keyOffset(key);
+    for (int i = 0; i < length; i++) {
+      if (pool[offset + i] != text.charAt(from + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,44 @@
+package com.github.daihy8759.util.db;
+
+import java.util.Objects;
+
+/**
+ * 区划查询缓存的键
+ */
+final class AreaLookupKey {
+
+  private final int level;
+
+  private final String parentCode;
+
+  private final String value;
+
+  /**
+   * @param level      级别
+   * @param parentCode 上级编码，按编码查询时为 null
+   * @param value      名称前缀或编码
+   */
+  AreaLookupKey(int level, String parentCode, String value) {
+    this.level = level;
+    this.parentCode = parentCode == null ? "" : parentCode;
+    this.value = value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AreaLookupKey)) {
+      return false;
+    }
+    AreaLookupKey that = (AreaLookupKey) o;
+    return level == that.level && parentCode.equals(that.parentCode)
+        && Objects.equals(value, that.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return (Objects.hashCode(value) * 31 + parentCode.hashCode()) * 31 + level;
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+
+/**
+ * 区划数据访问接口
+ * <p>
+ * 实现需要线程安全，返回的列表按 code 排序且只读；返回的区划是副本，调用方修改不影响仓库中的数据。
+ *
+ * @see SqliteAreaRepository
+ * @see DictionaryAreaRepository
+ * @see MappedAreaRepository
+ * @see AreaDatasetManager
+ */
+public interface AreaRepository {
+
+  /**
+   * 查询名称以 namePrefix 开头的区划
+   *
+   * @param parentCode 上级编码，为空时在整个级别内查找
+   * @param namePrefix 名称前缀
+   * @param level      级别
+   */
+  List<Area> findByPrefix(String parentCode, String namePrefix, int level);
+
+  /**
+   * 查询下级区划
+   *
+   * @param parentCode 上级编码，为空时返回整个级别
+   * @param level      下级区划的级别
+   */
+  List<Area> findChildren(String parentCode, int level);
+
+  /**
+   * 根据编码查询区划，不存在时返回 null
+   */
+  Area findByCode(String code, int level);
+
+  /**
+   * 数据已全部加载到内存字典时返回字典，解析器会改用字典上的自动机匹配；否则返回 null
+   */
+  default AreaDictionary dictionary() {
+    return null;
+  }
+
+  /**
+   * 一次解析期间使用的仓库。数据可以热切换的仓库返回当前版本的仓库，同一次解析的查询都落在同一份数据上
+   */
+  default AreaRepository snapshot() {
+    return this;
+  }
+
+  /**
+   * 数据版本，没有版本时返回空字符串
+   */
+  default String version() {
+    return "";
+  }
+
+}
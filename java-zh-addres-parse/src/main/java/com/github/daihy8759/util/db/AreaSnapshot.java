@@ -0,0 +1,104 @@
+package com.github.daihy8759.util.db;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 区划二进制快照
+ * <p>
+ * 由 db/snapshot.py 从 data.db 编译生成，默认随 jar 发布为 area.bin。
+ * 加载快照不需要 SQLite、HikariCP 和 commons-dbutils。
+ */
+public final class AreaSnapshot {
+
+  public static final String RESOURCE = "area.bin";
+
+  static final int MAGIC = 0x5A484144;
+
+  static final int VERSION = 1;
+
+  private AreaSnapshot() {
+  }
+
+  /**
+   * classpath 中是否存在快照
+   */
+  public static boolean exists() {
+    return classLoader().getResource(RESOURCE) != null;
+  }
+
+  /**
+   * 从 classpath 读取快照
+   */
+  public static AreaDictionary load() {
+    try (InputStream in = classLoader().getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("snapshot not found in classpath: " + RESOURCE);
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+      return read(ByteBuffer.wrap(out.toByteArray()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 以内存映射方式读取快照文件
+   */
+  public static AreaDictionary map(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 解析快照内容
+   */
+  public static AreaDictionary read(ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("not an area snapshot");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("unsupported snapshot version: " + version);
+    }
+    int count = buffer.getInt();
+    byte[] levels = new byte[count];
+    buffer.get(levels);
+    int[] codes = readInts(buffer, count);
+    int[] parents = readInts(buffer, count);
+    int[] offsets = readInts(buffer, count + 1);
+    char[] chars = new char[buffer.getInt()];
+    buffer.asCharBuffer().get(chars);
+    buffer.position(buffer.position() + chars.length * 2);
+    int[] nameOrder = readInts(buffer, count);
+
+    return new AreaDictionary(levels, codes, parents, offsets, chars, nameOrder);
+  }
+
+  private static int[] readInts(ByteBuffer buffer, int count) {
+    int[] values = new int[count];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + count * 4);
+    return values;
+  }
+
+  private static ClassLoader classLoader() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    return classLoader != null ? classLoader : AreaSnapshot.class.getClassLoader();
+  }
+
+}
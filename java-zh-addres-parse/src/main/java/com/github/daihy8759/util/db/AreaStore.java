@@ -0,0 +1,156 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+
+/**
+ * 默认区划数据
+ * <p>
+ * ZhAddressParser 的静态方法通过这里访问区划数据。默认每次查询 data.db；启用内存字典后，
+ * 区划只在启动时读取一次，之后的查询全部在内存中完成。
+ * 字典优先从 classpath 中的二进制快照 area.bin 加载，没有快照时再读取 data.db。
+ * 也可以通过系统属性 {@code zh-address-parse.dictionary=true} 在启动时启用；
+ * classpath 中没有 sqlite-jdbc 或 data.db（sqlite 分类的 jar）时会自动启用。
+ */
+public class AreaStore {
+
+  public static final String PROPERTY_DICTIONARY = "zh-address-parse.dictionary";
+
+  private static final String SQLITE_DRIVER = "org.sqlite.JDBC";
+
+  private static final String SQLITE_RESOURCE = "data.db";
+
+  private static volatile AreaRepository repository;
+
+  /**
+   * 始终转发到当前默认仓库
+   */
+  private static final AreaRepository DEFAULT = new AreaRepository() {
+    @Override
+    public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+      return repository.findByPrefix(parentCode, namePrefix, level);
+    }
+
+    @Override
+    public List<Area> findChildren(String parentCode, int level) {
+      return repository.findChildren(parentCode, level);
+    }
+
+    @Override
+    public Area findByCode(String code, int level) {
+      return repository.findByCode(code, level);
+    }
+
+    @Override
+    public AreaDictionary dictionary() {
+      return repository.dictionary();
+    }
+
+    @Override
+    public AreaRepository snapshot() {
+      return repository.snapshot();
+    }
+
+    @Override
+    public String version() {
+      return repository.version();
+    }
+  };
+
+  static {
+    if (Boolean.getBoolean(PROPERTY_DICTIONARY) || !isSqliteAvailable()) {
+      enableDictionary();
+    } else {
+      repository = new SqliteAreaRepository();
+    }
+  }
+
+  private AreaStore() {
+  }
+
+  /**
+   * 启用内存字典，首次调用时加载
+   */
+  public static synchronized AreaDictionary enableDictionary() {
+    AreaRepository current = repository;
+    if (current != null && current.dictionary() != null) {
+      return current.dictionary();
+    }
+    AreaDictionary dictionary = AreaSnapshot.exists() ? AreaSnapshot.load()
+        : SqliteUtil.loadDictionary();
+    repository = new DictionaryAreaRepository(dictionary);
+    return dictionary;
+  }
+
+  /**
+   * 使用指定的字典，例如 {@link AreaSnapshot#map(java.nio.file.Path)} 映射的外部快照
+   */
+  public static synchronized void enableDictionary(AreaDictionary areaDictionary) {
+    repository = new DictionaryAreaRepository(areaDictionary);
+  }
+
+  /**
+   * 关闭内存字典，恢复逐次查询 data.db
+   */
+  public static synchronized void disableDictionary() {
+    if (!isSqliteAvailable()) {
+      throw new IllegalStateException("sqlite-jdbc or data.db is not in classpath");
+    }
+    repository = new SqliteAreaRepository();
+  }
+
+  public static boolean isDictionaryEnabled() {
+    return repository.dictionary() != null;
+  }
+
+  /**
+   * 当前启用的内存字典，未启用时返回 null
+   */
+  public static AreaDictionary getDictionary() {
+    return repository.dictionary();
+  }
+
+  /**
+   * 当前默认仓库
+   */
+  public static AreaRepository getRepository() {
+    return repository;
+  }
+
+  /**
+   * 替换默认仓库，例如 {@link MappedAreaRepository}；
+   * 传入 {@link AreaDatasetManager#repository(String)} 后默认解析器跟随数据集热更新
+   */
+  public static synchronized void setRepository(AreaRepository areaRepository) {
+    if (areaRepository == null) {
+      throw new IllegalArgumentException("repository is null");
+    }
+    repository = areaRepository;
+  }
+
+  /**
+   * 跟随默认仓库切换的仓库，切换后无需重新创建持有它的解析器
+   */
+  public static AreaRepository defaultRepository() {
+    return DEFAULT;
+  }
+
+  public static List<Area> getArea(String parentCode, String nameLike, int level) {
+    return repository.findByPrefix(parentCode, nameLike, level);
+  }
+
+  public static Area getAreaSingle(String code, int level) {
+    return repository.findByCode(code, level);
+  }
+
+  private static boolean isSqliteAvailable() {
+    ClassLoader classLoader = AreaStore.class.getClassLoader();
+    try {
+      Class.forName(SQLITE_DRIVER, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+    return classLoader.getResource(SQLITE_RESOURCE) != null;
+  }
+
+}
@@ -0,0 +1,234 @@
+package com.github.daihy8759.util.db;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * 全部区划名称及别名构成的双数组字典树
+ * <p>
+ * 每个节点记录以该节点为前缀的各级区划命中情况（无、唯一、多个），
+ * 从片段开头逐字转移一次即可同时得到省、市、区、街道四级候选，转移过程不分配对象。
+ */
+public final class AreaTrie {
+
+  /**
+   * 根节点
+   */
+  public static final int ROOT = 0;
+
+  /**
+   * 字符 -> 紧凑编码，0 表示不在字母表中
+   */
+  private final char[] charCodes;
+
+  private final int[] base;
+
+  private final int[] check;
+
+  /**
+   * 节点 * MAX_LEVEL + (level - 1) -> 命中的区划索引 / NONE / MANY
+   */
+  private final int[] hits;
+
+  private AreaTrie(char[] charCodes, int[] base, int[] check, int[] hits) {
+    this.charCodes = charCodes;
+    this.base = base;
+    this.check = check;
+    this.hits = hits;
+  }
+
+  /**
+   * 状态转移，失败时返回 -1
+   */
+  public int next(int state, char c) {
+    int code = charCodes[c];
+    if (code == 0) {
+      return -1;
+    }
+    int target = base[state] + code;
+    if (target >= check.length || check[target] != state) {
+      return -1;
+    }
+    return target;
+  }
+
+  /**
+   * 从 text[from] 开始转移 length 个字符，失败时返回 -1
+   */
+  public int walk(CharSequence text, int from, int length) {
+    int state = ROOT;
+    for (int i = 0; i < length && state >= 0; i++) {
+      state = next(state, text.charAt(from + i));
+    }
+    return state;
+  }
+
+  /**
+   * 节点对应前缀在指定级别的命中情况
+   *
+   * @return 唯一命中时返回区划索引，否则返回 {@link AreaDictionary#NONE} 或 {@link AreaDictionary#MANY}
+   */
+  public int hit(int state, int level) {
+    return hits[state * AreaDictionary.MAX_LEVEL + level - 1];
+  }
+
+  /**
+   * @param keyOrder 按名称排序的全称与别名，见 {@link AreaDictionary#keyArea(int)}
+   */
+  static AreaTrie build(AreaDictionary dictionary, int[] keyOrder) {
+    // 去重后的名称，以及每个名称在各级的命中情况
+    String[] keys = new String[keyOrder.length];
+    int[] keyHits = new int[keyOrder.length * AreaDictionary.MAX_LEVEL];
+    Arrays.fill(keyHits, AreaDictionary.NONE);
+    int keyCount = 0;
+    char[] charCodes = new char[Character.MAX_VALUE + 1];
+    char alphabet = 0;
+    for (int key : keyOrder) {
+      String name = dictionary.keyName(key);
+      int index = dictionary.keyArea(key);
+      if (keyCount == 0 || !keys[keyCount - 1].equals(name)) {
+        keys[keyCount++] = name;
+      }
+      int slot = (keyCount - 1) * AreaDictionary.MAX_LEVEL + dictionary.levelOf(index) - 1;
+      keyHits[slot] = merge(keyHits[slot], index);
+      for (int i = 0; i < name.length(); i++) {
+        if (charCodes[name.charAt(i)] == 0) {
+          charCodes[name.charAt(i)] = ++alphabet;
+        }
+      }
+    }
+    return new Builder(charCodes, keys, keyHits, keyCount).build();
+  }
+
+  /**
+   * 全称和别名指向同一区划时仍算唯一命中
+   */
+  private static int merge(int current, int hit) {
+    if (current == AreaDictionary.NONE || current == hit) {
+      return hit;
+    }
+    if (hit == AreaDictionary.NONE) {
+      return current;
+    }
+    return AreaDictionary.MANY;
+  }
+
+  private static final class Builder {
+
+    private final char[] charCodes;
+    private final String[] keys;
+    private final int[] keyHits;
+    private final int keyCount;
+
+    private int[] base;
+    private int[] check;
+    private int[] hits;
+    private int nextCheck = 1;
+    private int maxState;
+
+    private Builder(char[] charCodes, String[] keys, int[] keyHits, int keyCount) {
+      this.charCodes = charCodes;
+      this.keys = keys;
+      this.keyHits = keyHits;
+      this.keyCount = keyCount;
+      resize(Math.max(1024, keyCount * 4));
+    }
+
+    private AreaTrie build() {
+      // 节点：state, depth, [left, right) 为共享该前缀的名称区间
+      Deque<int[]> queue = new ArrayDeque<>();
+      check[AreaTrie.ROOT] = AreaTrie.ROOT;
+      queue.add(new int[]{AreaTrie.ROOT, 0, 0, keyCount});
+      int[] codes = new int[Character.MAX_VALUE + 1];
+      int[] bounds = new int[Character.MAX_VALUE + 2];
+      while (!queue.isEmpty()) {
+        int[] node = queue.poll();
+        int state = node[0];
+        int depth = node[1];
+        int left = node[2];
+        int right = node[3];
+        fillHits(state, left, right);
+
+        int siblings = 0;
+        for (int i = left; i < right; i++) {
+          if (keys[i].length() <= depth) {
+            continue;
+          }
+          int code = charCodes[keys[i].charAt(depth)];
+          if (siblings == 0 || codes[siblings - 1] != code) {
+            codes[siblings] = code;
+            bounds[siblings] = i;
+            siblings++;
+          }
+        }
+        if (siblings == 0) {
+          continue;
+        }
+        bounds[siblings] = right;
+        int begin = findBase(codes, siblings);
+        base[state] = begin;
+        for (int i = 0; i < siblings; i++) {
+          int child = begin + codes[i];
+          check[child] = state;
+          maxState = Math.max(maxState, child);
+          queue.add(new int[]{child, depth + 1, bounds[i], bounds[i + 1]});
+        }
+      }
+      int length = maxState + 1;
+      return new AreaTrie(charCodes, Arrays.copyOf(base, length), Arrays.copyOf(check, length),
+          Arrays.copyOf(hits, length * AreaDictionary.MAX_LEVEL));
+    }
+
+    private void fillHits(int state, int left, int right) {
+      for (int level = 0; level < AreaDictionary.MAX_LEVEL; level++) {
+        int hit = AreaDictionary.NONE;
+        for (int i = left; i < right && hit != AreaDictionary.MANY; i++) {
+          hit = merge(hit, keyHits[i * AreaDictionary.MAX_LEVEL + level]);
+        }
+        hits[state * AreaDictionary.MAX_LEVEL + level] = hit;
+      }
+    }
+
+    private int findBase(int[] codes, int siblings) {
+      int position = Math.max(nextCheck, codes[0] + 1);
+      boolean dense = true;
+      while (true) {
+        int begin = position - codes[0];
+        if (begin + codes[siblings - 1] >= check.length) {
+          resize(Math.max(check.length * 2, begin + codes[siblings - 1] + 1));
+        }
+        if (check[position] != -1) {
+          position++;
+          continue;
+        }
+        if (dense) {
+          // 跳过已被占满的前段，减少后续查找
+          nextCheck = position;
+          dense = false;
+        }
+        boolean free = true;
+        for (int i = 1; i < siblings; i++) {
+          if (check[begin + codes[i]] != -1) {
+            free = false;
+            break;
+          }
+        }
+        if (free && begin > 0) {
+          return begin;
+        }
+        position++;
+      }
+    }
+
+    private void resize(int size) {
+      int old = base == null ? 0 : base.length;
+      base = base == null ? new int[size] : Arrays.copyOf(base, size);
+      check = check == null ? new int[size] : Arrays.copyOf(check, size);
+      hits = hits == null ? new int[size * AreaDictionary.MAX_LEVEL]
+          : Arrays.copyOf(hits, size * AreaDictionary.MAX_LEVEL);
+      Arrays.fill(check, old, size, -1);
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+
+/**
+ * 基于内存字典的区划查询
+ */
+public class DictionaryAreaRepository implements AreaRepository {
+
+  private final AreaDictionary dictionary;
+
+  private final String version;
+
+  public DictionaryAreaRepository(AreaDictionary dictionary) {
+    this(dictionary, "");
+  }
+
+  /**
+   * @param version 数据版本，见 {@link AreaDataset#getVersion()}
+   */
+  public DictionaryAreaRepository(AreaDictionary dictionary, String version) {
+    if (dictionary == null || version == null) {
+      throw new IllegalArgumentException("dictionary and version must not be null");
+    }
+    this.dictionary = dictionary;
+    this.version = version;
+  }
+
+  @Override
+  public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+    return dictionary.getArea(parentCode, namePrefix, level);
+  }
+
+  @Override
+  public List<Area> findChildren(String parentCode, int level) {
+    return dictionary.getArea(parentCode, "", level);
+  }
+
+  @Override
+  public Area findByCode(String code, int level) {
+    return dictionary.getAreaSingle(code, level);
+  }
+
+  @Override
+  public AreaDictionary dictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public String version() {
+    return version;
+  }
+
+}
@@ -0,0 +1,352 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 直接在内存映射的快照文件上查询区划
+ * <p>
+ * 不把区划加载到堆中，只在返回结果时创建 {@link Area}，适合内存紧张或多个进程共享同一份快照的场景。
+ * 快照中区划按 code 排序，同一区划的全部下级在文件中紧跟其后连续存放。名称前缀查询在上级已知、
+ * 且这一段不长时（区县下的几十个街道）直接逐个比较，否则在按名称排序的下标上二分查找。
+ */
+public class MappedAreaRepository implements AreaRepository {
+
+  /**
+   * 最长的编码，街道为 9 位
+   */
+  private static final int CODE_WIDTH = 9;
+
+  /**
+   * 上级的全部下级不超过该数量时直接逐个比较，不走名称索引
+   */
+  private static final int SCAN_LIMIT = 64;
+
+  private static final int[] POW10 = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000,
+      100000000, 1000000000};
+
+  private final ByteBuffer buffer;
+
+  private final int count;
+
+  private final int levelPos;
+
+  private final int codePos;
+
+  private final int parentPos;
+
+  private final int nameOffsetPos;
+
+  private final int charPos;
+
+  private final int nameOrderPos;
+
+  /**
+   * @param buffer 快照内容，见 db/snapshot.py
+   */
+  public MappedAreaRepository(ByteBuffer buffer) {
+    if (buffer.getInt(0) != AreaSnapshot.MAGIC) {
+      throw new IllegalArgumentException("not an area snapshot");
+    }
+    int version = buffer.getInt(4);
+    if (version != AreaSnapshot.VERSION) {
+      throw new IllegalArgumentException("unsupported snapshot version: " + version);
+    }
+    this.buffer = buffer;
+    this.count = buffer.getInt(8);
+    this.levelPos = 12;
+    this.codePos = levelPos + count;
+    this.parentPos = codePos + count * 4;
+    this.nameOffsetPos = parentPos + count * 4;
+    int charCountPos = nameOffsetPos + (count + 1) * 4;
+    this.charPos = charCountPos + 4;
+    this.nameOrderPos = charPos + buffer.getInt(charCountPos) * 2;
+  }
+
+  /**
+   * 以只读方式映射快照文件
+   */
+  public static MappedAreaRepository open(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new MappedAreaRepository(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+    if (namePrefix.isEmpty()) {
+      return findChildren(parentCode, level);
+    }
+    int parent = parentIndex(parentCode);
+    if (parent == AreaDictionary.MANY) {
+      return Collections.emptyList();
+    }
+    int[] matched = new int[4];
+    int size = 0;
+    if (parent >= 0) {
+      int end = descendantEnd(parent, parent + 1 + SCAN_LIMIT);
+      if (end <= parent + SCAN_LIMIT) {
+        // 下标即 code 顺序，不需要排序
+        for (int index = parent + 1; index < end; index++) {
+          if (level(index) == level && parent(index) == parent
+              && nameStartsWith(index, namePrefix)) {
+            if (size == matched.length) {
+              matched = Arrays.copyOf(matched, size * 2);
+            }
+            matched[size++] = index;
+          }
+        }
+        return toAreas(matched, size);
+      }
+    }
+    for (int i = lowerBound(namePrefix); i < count; i++) {
+      int index = nameOrder(i);
+      if (!nameStartsWith(index, namePrefix)) {
+        break;
+      }
+      if (level(index) == level && (parent == AreaDictionary.NONE || parent(index) == parent)) {
+        if (size == matched.length) {
+          matched = Arrays.copyOf(matched, size * 2);
+        }
+        matched[size++] = index;
+      }
+    }
+    // 下标即 code 顺序
+    Arrays.sort(matched, 0, size);
+    return toAreas(matched, size);
+  }
+
+  @Override
+  public List<Area> findChildren(String parentCode, int level) {
+    int parent = parentIndex(parentCode);
+    if (parent == AreaDictionary.MANY) {
+      return Collections.emptyList();
+    }
+    List<Area> result = new ArrayList<>();
+    if (parent == AreaDictionary.NONE) {
+      for (int index = 0; index < count; index++) {
+        if (level(index) == level) {
+          result.add(toArea(index));
+        }
+      }
+      return Collections.unmodifiableList(result);
+    }
+    // 下级编码以上级编码开头，紧跟在上级之后
+    for (int index = parent + 1, end = descendantEnd(parent, count); index < end; index++) {
+      if (level(index) == level && parent(index) == parent) {
+        result.add(toArea(index));
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public Area findByCode(String code, int level) {
+    int index = indexOf(code);
+    return index >= 0 && level(index) == level ? toArea(index) : null;
+  }
+
+  /**
+   * 区划总数
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return 上级为空时返回 NONE，上级不存在时返回 MANY
+   */
+  private int parentIndex(String parentCode) {
+    if (parentCode == null || parentCode.isEmpty()) {
+      return AreaDictionary.NONE;
+    }
+    int index = indexOf(parentCode);
+    return index < 0 ? AreaDictionary.MANY : index;
+  }
+
+  private int indexOf(String code) {
+    if (code == null || code.isEmpty() || code.length() > CODE_WIDTH || code.charAt(0) == '0') {
+      return AreaDictionary.NONE;
+    }
+    long padded = 0;
+    for (int i = 0; i < CODE_WIDTH; i++) {
+      int digit = 0;
+      if (i < code.length()) {
+        digit = code.charAt(i) - '0';
+        if (digit < 0 || digit > 9) {
+          return AreaDictionary.NONE;
+        }
+      }
+      padded = padded * 10 + digit;
+    }
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareCode(code(mid), padded, code.length());
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return AreaDictionary.NONE;
+  }
+
+  /**
+   * 按字符串顺序比较编码：数字串的字典序等价于先比较右补 0 后的值，再比较长度
+   */
+  private static int compareCode(int code, long padded, int length) {
+    int width = digits(code);
+    long value = code;
+    for (int i = width; i < CODE_WIDTH; i++) {
+      value *= 10;
+    }
+    if (value != padded) {
+      return value < padded ? -1 : 1;
+    }
+    return Integer.compare(width, length);
+  }
+
+  private static int digits(int code) {
+    int width = 1;
+    while (width < POW10.length && code >= POW10[width]) {
+      width++;
+    }
+    return width;
+  }
+
+  /**
+   * parent 之后的下级结束位置，只在 [parent + 1, limit) 内二分查找，下级超过这一范围时返回 limit
+   */
+  private int descendantEnd(int parent, int limit) {
+    int parentValue = code(parent);
+    int parentWidth = digits(parentValue);
+    int low = parent + 1;
+    int high = Math.min(limit, count);
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (isDescendant(mid, parentValue, parentWidth)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private boolean isDescendant(int index, int parentValue, int parentWidth) {
+    int code = code(index);
+    int width = digits(code);
+    return width > parentWidth && code / POW10[width - parentWidth] == parentValue;
+  }
+
+  private int lowerBound(String prefix) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compareName(nameOrder(mid), prefix) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int compareName(int index, String text) {
+    int from = nameOffset(index);
+    int length = nameOffset(index + 1) - from;
+    int n = Math.min(length, text.length());
+    for (int i = 0; i < n; i++) {
+      char c1 = nameChar(from + i);
+      char c2 = text.charAt(i);
+      if (c1 != c2) {
+        return c1 - c2;
+      }
+    }
+    return length - text.length();
+  }
+
+  private boolean nameStartsWith(int index, String prefix) {
+    int from = nameOffset(index);
+    if (nameOffset(index + 1) - from < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (nameChar(from + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<Area> toAreas(int[] indexes, int size) {
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    if (size == 1) {
+      return Collections.singletonList(toArea(indexes[0]));
+    }
+    List<Area> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(toArea(indexes[i]));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private Area toArea(int index) {
+    Area area = new Area();
+    area.setCode(String.valueOf(code(index)));
+    int from = nameOffset(index);
+    char[] name = new char[nameOffset(index + 1) - from];
+    for (int i = 0; i < name.length; i++) {
+      name[i] = nameChar(from + i);
+    }
+    area.setName(new String(name));
+    int parent = parent(index);
+    if (parent >= 0) {
+      area.setParentCode(String.valueOf(code(parent)));
+    }
+    return area;
+  }
+
+  private int level(int index) {
+    return buffer.get(levelPos + index);
+  }
+
+  private int code(int index) {
+    return buffer.getInt(codePos + index * 4);
+  }
+
+  private int parent(int index) {
+    return buffer.getInt(parentPos + index * 4);
+  }
+
+  private int nameOffset(int index) {
+    return buffer.getInt(nameOffsetPos + index * 4);
+  }
+
+  private char nameChar(int offset) {
+    return buffer.getChar(charPos + offset * 2);
+  }
+
+  private int nameOrder(int i) {
+    return buffer.getInt(nameOrderPos + i * 4);
+  }
+
+}
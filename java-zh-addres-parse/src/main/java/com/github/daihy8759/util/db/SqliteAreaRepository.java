@@ -0,0 +1,26 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+
+/**
+ * 逐次查询 data.db，查询结果由 {@link SqliteUtil} 缓存
+ */
+public class SqliteAreaRepository implements AreaRepository {
+
+  @Override
+  public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+    return SqliteUtil.getArea(parentCode, namePrefix, level);
+  }
+
+  @Override
+  public List<Area> findChildren(String parentCode, int level) {
+    return SqliteUtil.getArea(parentCode, "", level);
+  }
+
+  @Override
+  public Area findByCode(String code, int level) {
+    return SqliteUtil.getAreaSingle(code, level);
+  }
+
+}
@@ -0,0 +1,138 @@
+package com.github.daihy8759.util.db;
+
+import com.github.daihy8759.util.model.Area;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * 一个数据库连接及其上预编译好的查询语句，同一时间只能被一个线程使用
+ */
+final class SqliteSession implements AutoCloseable {
+
+  /**
+   * 名称前缀使用范围查询：LIKE 默认不区分大小写，无法使用索引
+   */
+  static final String SQL_BY_LEVEL = "select code,name,parent_code as parentCode from area where level = ? and name >= ? and name < ?";
+
+  static final String SQL_BY_PARENT = "select code,name,parent_code as parentCode from area where level = ? and parent_code = ? and name >= ? and name < ?";
+
+  static final String SQL_BY_CODE = "select code,name,parent_code as parentCode from area where level = ? and code = ?";
+
+  /**
+   * 追加在前缀后作为范围上界，U+10FFFF 的 UTF-8 编码大于其他任何字符
+   */
+  private static final String PREFIX_END = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+  private final Connection connection;
+
+  private final PreparedStatement byLevel;
+
+  private final PreparedStatement byParent;
+
+  private final PreparedStatement byCode;
+
+  SqliteSession(DataSource dataSource) throws SQLException {
+    this.connection = dataSource.getConnection();
+    try {
+      this.byLevel = connection.prepareStatement(SQL_BY_LEVEL);
+      this.byParent = connection.prepareStatement(SQL_BY_PARENT);
+      this.byCode = connection.prepareStatement(SQL_BY_CODE);
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  List<Area> getArea(String parentCode, String nameLike, int level) throws SQLException {
+    PreparedStatement statement;
+    int index = 1;
+    if (parentCode == null || "".equals(parentCode)) {
+      statement = byLevel;
+      statement.setInt(index++, level);
+    } else {
+      statement = byParent;
+      statement.setInt(index++, level);
+      statement.setString(index++, parentCode);
+    }
+    statement.setString(index++, nameLike);
+    statement.setString(index, nameLike + PREFIX_END);
+    try (ResultSet rs = statement.executeQuery()) {
+      if (!rs.next()) {
+        return Collections.emptyList();
+      }
+      Area first = toArea(rs);
+      if (!rs.next()) {
+        return Collections.singletonList(first);
+      }
+      List<Area> result = new ArrayList<>();
+      result.add(first);
+      do {
+        result.add(toArea(rs));
+      } while (rs.next());
+      return Collections.unmodifiableList(result);
+    }
+  }
+
+  Area getAreaSingle(String code, int level) throws SQLException {
+    byCode.setInt(1, level);
+    byCode.setString(2, code);
+    try (ResultSet rs = byCode.executeQuery()) {
+      return rs.next() ? toArea(rs) : null;
+    }
+  }
+
+  /**
+   * 各查询语句的执行计划
+   *
+   * @return 查询语句 -> 执行计划，多行之间以换行分隔
+   */
+  Map<String, String> explainQueryPlans() throws SQLException {
+    Map<String, String> plans = new LinkedHashMap<>();
+    for (String sql : Arrays.asList(SQL_BY_LEVEL, SQL_BY_PARENT, SQL_BY_CODE)) {
+      try (PreparedStatement statement = connection.prepareStatement("explain query plan " + sql)) {
+        int count = statement.getParameterMetaData().getParameterCount();
+        for (int i = 1; i <= count; i++) {
+          statement.setString(i, "");
+        }
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            if (plan.length() > 0) {
+              plan.append('\n');
+            }
+            plan.append(rs.getString("detail"));
+          }
+        }
+        plans.put(sql, plan.toString());
+      }
+    }
+    return plans;
+  }
+
+  private static Area toArea(ResultSet rs) throws SQLException {
+    Area area = new Area();
+    area.setCode(rs.getString(1));
+    area.setName(rs.getString(2));
+    area.setParentCode(rs.getString(3));
+    return area;
+  }
+
+  @Override
+  public void close() {
+    try {
+      // 关闭连接时一并关闭其上的语句
+      connection.close();
+    } catch (SQLException ignored) {
+      // 连接已不可用
+    }
+  }
+}
@@ -1,13 +1,22 @@
 package com.github.daihy8759.util.db;
 
+import com.github.daihy8759.util.cache.BoundedCache;
+import com.github.daihy8759.util.cache.CacheStats;
 import com.github.daihy8759.util.model.Area;
 import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import org.apache.commons.dbutils.QueryRunner;
-import org.apache.commons.dbutils.handlers.BeanHandler;
-import org.apache.commons.dbutils.handlers.BeanListHandler;
 
 public class SqliteUtil {
 
@@ -16,41 +25,319 @@ public class SqliteUtil {
 
   public static HikariDataSource dataSource = new HikariDataSource();
 
+  /**
+   * 每个缓存最多保存的查询数
+   */
+  private static final int CACHE_SIZE = 1 << 16;
+
+  /**
+   * 未查到区划时缓存的占位
+   */
+  private static final Area MISSING = new Area();
+
+  /**
+   * (level, parentCode, 名称前缀) -> 区划
+   */
+  private static final BoundedCache<AreaLookupKey, List<Area>> PREFIX_CACHE = new BoundedCache<>(
+      CACHE_SIZE, null);
+
+  /**
+   * (level, parentCode) -> 全部下级，按名称排序；上级已知时的前缀查询在这里二分查找，每个上级只查询一次数据库
+   */
+  private static final BoundedCache<AreaLookupKey, List<Area>> CHILDREN_CACHE = new BoundedCache<>(
+      CACHE_SIZE, null);
+
+  /**
+   * (level, code) -> 区划
+   */
+  private static final BoundedCache<AreaLookupKey, Area> CODE_CACHE = new BoundedCache<>(
+      CACHE_SIZE, null);
+
   static {
     dataSource.setDriverClassName("org.sqlite.JDBC");
     dataSource.setJdbcUrl("jdbc:sqlite::resource:data.db");
   }
 
+  /**
+   * 空闲的会话，每个会话独占一个连接以复用预编译语句，为 loadDictionary 等其他查询至少留出一个连接；
+   * 连接在会话关闭前不归还连接池，见 {@link #closeSessions()}
+   */
+  private static final int SESSION_POOL_SIZE = Math
+      .max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+          dataSource.getMaximumPoolSize() - 1));
+
+  private static final BlockingQueue<SqliteSession> IDLE_SESSIONS = new ArrayBlockingQueue<>(
+      SESSION_POOL_SIZE);
+
+  private static final AtomicInteger SESSION_COUNT = new AtomicInteger();
+
   public static DataSource getDataSource() {
     return dataSource;
   }
 
-  @SneakyThrows
+  /**
+   * 查询名称以 nameLike 开头的区划，返回只读列表，其中的区划是缓存结果的副本
+   */
   public static List<Area> getArea(String parentCode, String nameLike, int level) {
-    if (parentCode == null || "".equals(parentCode)) {
-      return getArea(nameLike, level);
+    return copy(lookup(parentCode, nameLike, level));
+  }
+
+  private static List<Area> lookup(String parentCode, String nameLike, int level) {
+    AreaLookupKey key = new AreaLookupKey(level, parentCode, nameLike);
+    List<Area> areaList = PREFIX_CACHE.get(key);
+    if (areaList != null) {
+      return areaList;
     }
-    QueryRunner qr = new QueryRunner(getDataSource());
-    return qr
-        .query("select code,name,parent_code as parentCode from area where level = ? and parentCode=? and name like ?",
-            new BeanListHandler<>(Area.class),
-            level, parentCode, nameLike + "%");
+    if (parentCode == null || parentCode.isEmpty()) {
+      areaList = sortByCode(query(parentCode, nameLike, level));
+    } else {
+      areaList = sortByCode(prefixRange(children(parentCode, level), nameLike));
+    }
+    PREFIX_CACHE.put(key, areaList);
+    // 匹配到的区划随后通常会按编码回查
+    for (Area area : areaList) {
+      CODE_CACHE.put(new AreaLookupKey(level, null, area.getCode()), area);
+    }
+    return areaList;
+  }
+
+  /**
+   * 上级的全部下级，按名称排序，仅作前缀查找的索引，返回前由 {@link #sortByCode(List)} 恢复 code 顺序
+   */
+  private static List<Area> children(String parentCode, int level) {
+    AreaLookupKey key = new AreaLookupKey(level, parentCode, null);
+    List<Area> children = CHILDREN_CACHE.get(key);
+    if (children == null) {
+      List<Area> areaList = new ArrayList<>(query(parentCode, "", level));
+      // 与索引中的名称顺序一致，同名时保持查询顺序
+      areaList.sort(Comparator.comparing(Area::getName));
+      children = Collections.unmodifiableList(areaList);
+      CHILDREN_CACHE.put(key, children);
+    }
+    return children;
+  }
+
+  /**
+   * 按名称排序的区划中名称以 prefix 开头的连续一段
+   */
+  private static List<Area> prefixRange(List<Area> sorted, String prefix) {
+    int low = 0;
+    int high = sorted.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted.get(mid).getName().compareTo(prefix) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    int end = low;
+    while (end < sorted.size() && sorted.get(end).getName().startsWith(prefix)) {
+      end++;
+    }
+    if (end == low) {
+      return Collections.emptyList();
+    }
+    return end - low == 1 ? Collections.singletonList(sorted.get(low)) : sorted.subList(low, end);
+  }
+
+  /**
+   * 按 code 排序，与 {@link AreaRepository} 的约定及内存字典的结果顺序一致
+   */
+  private static List<Area> sortByCode(List<Area> areaList) {
+    if (areaList.size() < 2) {
+      return areaList;
+    }
+    List<Area> sorted = new ArrayList<>(areaList);
+    sorted.sort(Comparator.comparing(Area::getCode));
+    return Collections.unmodifiableList(sorted);
   }
 
   @SneakyThrows
-  private static List<Area> getArea(String nameLike, int level) {
-    QueryRunner qr = new QueryRunner(getDataSource());
-    return qr
-        .query("select code,name,parent_code as parentCode from area where level = ? and name like ?",
-            new BeanListHandler<>(Area.class), level, nameLike + "%");
+  private static List<Area> query(String parentCode, String nameLike, int level) {
+    SqliteSession session = borrowSession();
+    boolean completed = false;
+    try {
+      List<Area> areaList = session.getArea(parentCode, nameLike, level);
+      completed = true;
+      return areaList;
+    } finally {
+      returnSession(session, completed);
+    }
   }
 
+  /**
+   * 读取全部区划构建内存字典
+   */
   @SneakyThrows
-  public static Area getAreaSingle(String code, int level) {
+  public static AreaDictionary loadDictionary() {
+    List<Area> areaList = new ArrayList<>();
+    List<Integer> levelList = new ArrayList<>();
     QueryRunner qr = new QueryRunner(getDataSource());
-    return qr
-        .query("select code,name,parent_code as parentCode from area where level = ? and code = ?",
-            new BeanHandler<>(Area.class), level, code);
+    qr.query("select code,name,level,parent_code from area", rs -> {
+      while (rs.next()) {
+        Area area = new Area();
+        area.setCode(rs.getString(1));
+        area.setName(rs.getString(2));
+        area.setParentCode(rs.getString(4));
+        areaList.add(area);
+        levelList.add(rs.getInt(3));
+      }
+      return null;
+    });
+    return AreaDictionary.of(areaList, levelList);
+  }
+
+  /**
+   * 按编码查询区划，返回缓存结果的副本
+   */
+  public static Area getAreaSingle(String code, int level) {
+    Area area = lookupSingle(code, level);
+    return area == null ? null : copy(area);
+  }
+
+  @SneakyThrows
+  private static Area lookupSingle(String code, int level) {
+    AreaLookupKey key = new AreaLookupKey(level, null, code);
+    Area area = CODE_CACHE.get(key);
+    if (area != null) {
+      return area == MISSING ? null : area;
+    }
+    SqliteSession session = borrowSession();
+    boolean completed = false;
+    try {
+      area = session.getAreaSingle(code, level);
+      completed = true;
+    } finally {
+      returnSession(session, completed);
+    }
+    CODE_CACHE.put(key, area == null ? MISSING : area);
+    return area;
+  }
+
+  /**
+   * 前缀查询、编码查询的执行计划，用于确认 data.db 的索引可用
+   *
+   * @return 查询语句 -> EXPLAIN QUERY PLAN 的结果
+   */
+  @SneakyThrows
+  public static Map<String, String> explainQueryPlans() {
+    try (SqliteSession session = new SqliteSession(getDataSource())) {
+      return session.explainQueryPlans();
+    }
+  }
+
+  /**
+   * 清空查询缓存，修改 data.db 后调用
+   */
+  public static void clearCache() {
+    PREFIX_CACHE.clear();
+    CHILDREN_CACHE.clear();
+    CODE_CACHE.clear();
+  }
+
+  /**
+   * 前缀查询缓存的统计信息
+   */
+  public static CacheStats prefixCacheStats() {
+    return PREFIX_CACHE.stats();
+  }
+
+  /**
+   * 下级索引缓存的统计信息
+   */
+  public static CacheStats childrenCacheStats() {
+    return CHILDREN_CACHE.stats();
+  }
+
+  /**
+   * 编码查询缓存的统计信息
+   */
+  public static CacheStats codeCacheStats() {
+    return CODE_CACHE.stats();
+  }
+
+  /**
+   * 关闭空闲的会话，把连接还给连接池，例如关闭 dataSource 之前；之后的查询按需重新建立会话
+   */
+  public static void closeSessions() {
+    for (SqliteSession session = IDLE_SESSIONS.poll(); session != null;
+        session = IDLE_SESSIONS.poll()) {
+      discardSession(session);
+    }
+  }
+
+  /**
+   * 缓存中的区划被多个调用方共享，对外只返回副本
+   */
+  private static Area copy(Area area) {
+    Area copy = new Area();
+    copy.setCode(area.getCode());
+    copy.setName(area.getName());
+    copy.setParentCode(area.getParentCode());
+    return copy;
+  }
+
+  private static List<Area> copy(List<Area> areaList) {
+    if (areaList.isEmpty()) {
+      return Collections.emptyList();
+    }
+    if (areaList.size() == 1) {
+      return Collections.singletonList(copy(areaList.get(0)));
+    }
+    List<Area> copies = new ArrayList<>(areaList.size());
+    for (Area area : areaList) {
+      copies.add(copy(area));
+    }
+    return Collections.unmodifiableList(copies);
+  }
+
+  private static SqliteSession borrowSession() throws SQLException {
+    try {
+      return pollSession();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while waiting for a SQLite session", e);
+    }
+  }
+
+  private static SqliteSession pollSession() throws SQLException, InterruptedException {
+    while (true) {
+      SqliteSession session = IDLE_SESSIONS.poll();
+      if (session != null) {
+        return session;
+      }
+      if (SESSION_COUNT.incrementAndGet() <= SESSION_POOL_SIZE) {
+        try {
+          return new SqliteSession(getDataSource());
+        } catch (SQLException e) {
+          SESSION_COUNT.decrementAndGet();
+          throw e;
+        }
+      }
+      SESSION_COUNT.decrementAndGet();
+      // 会话可能因异常被丢弃，限时等待后重新检查是否可以新建
+      session = IDLE_SESSIONS.poll(100, TimeUnit.MILLISECONDS);
+      if (session != null) {
+        return session;
+      }
+    }
+  }
+
+  /**
+   * 归还借出的会话；查询中途抛出任何异常时会话状态未知，关闭而不放回
+   */
+  private static void returnSession(SqliteSession session, boolean completed) {
+    if (completed) {
+      IDLE_SESSIONS.offer(session);
+    } else {
+      discardSession(session);
+    }
+  }
+
+  private static void discardSession(SqliteSession session) {
+    session.close();
+    SESSION_COUNT.decrementAndGet();
   }
 
 }
@@ -0,0 +1,74 @@
+package com.github.daihy8759.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把解析统计写入 Micrometer
+ * <p>
+ * 需要自行引入 micrometer-core；配合 micrometer-registry-jmx 即可通过 JMX 查看。
+ * 指标：
+ * <ul>
+ *   <li>address.parse：整体耗时</li>
+ *   <li>address.parse.stage：各阶段耗时，标签 stage</li>
+ *   <li>address.parse.lookups：每次解析的区划查询次数</li>
+ *   <li>address.parse.depth：解析深度，标签 depth</li>
+ *   <li>address.parse.cache：结果缓存，标签 result=hit|miss</li>
+ * </ul>
+ */
+public class MicrometerParseInstrumentation implements ParseInstrumentation {
+
+  private final Timer parse;
+
+  private final Map<ParseStage, Timer> stages = new EnumMap<>(ParseStage.class);
+
+  private final DistributionSummary lookups;
+
+  private final Counter[] depths = new Counter[5];
+
+  private final Counter cacheHit;
+
+  private final Counter cacheMiss;
+
+  public MicrometerParseInstrumentation(MeterRegistry registry) {
+    this.parse = Timer.builder("address.parse").publishPercentileHistogram().register(registry);
+    for (ParseStage stage : ParseStage.values()) {
+      stages.put(stage, Timer.builder("address.parse.stage")
+          .tag("stage", stage.name().toLowerCase())
+          .publishPercentileHistogram()
+          .register(registry));
+    }
+    this.lookups = DistributionSummary.builder("address.parse.lookups").register(registry);
+    for (int i = 0; i < depths.length; i++) {
+      depths[i] = Counter.builder("address.parse.depth").tag("depth", String.valueOf(i))
+          .register(registry);
+    }
+    this.cacheHit = Counter.builder("address.parse.cache").tag("result", "hit")
+        .register(registry);
+    this.cacheMiss = Counter.builder("address.parse.cache").tag("result", "miss")
+        .register(registry);
+  }
+
+  @Override
+  public void recordStage(ParseStage stage, long nanos) {
+    stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordParse(long nanos, int lookupCount, int depth) {
+    parse.record(nanos, TimeUnit.NANOSECONDS);
+    lookups.record(lookupCount);
+    depths[Math.max(0, Math.min(depth, depths.length - 1))].increment();
+  }
+
+  @Override
+  public void recordCache(boolean hit) {
+    (hit ? cacheHit : cacheMiss).increment();
+  }
+
+}
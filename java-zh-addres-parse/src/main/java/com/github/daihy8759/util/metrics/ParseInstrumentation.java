@@ -0,0 +1,50 @@
+package com.github.daihy8759.util.metrics;
+
+/**
+ * 解析过程的埋点
+ * <p>
+ * 实现需要线程安全，各方法在解析线程上同步调用，应尽量轻量。
+ * {@link #isEnabled()} 返回 false 时解析器不会计时，也不会调用其他方法。
+ *
+ * @see ParseMetrics
+ * @see MicrometerParseInstrumentation
+ */
+public interface ParseInstrumentation {
+
+  /**
+   * 不做任何记录
+   */
+  ParseInstrumentation NOOP = new ParseInstrumentation() {
+    @Override
+    public boolean isEnabled() {
+      return false;
+    }
+  };
+
+  default boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * 单次解析中某个阶段的耗时，同一阶段在一次解析中处理多个片段时合并为一次
+   */
+  default void recordStage(ParseStage stage, long nanos) {
+  }
+
+  /**
+   * 单次解析结束
+   *
+   * @param nanos   总耗时
+   * @param lookups 区划查询次数，命中结果缓存时为 0
+   * @param depth   解析到的最深级别：0 未解析出区划，1 省，2 市，3 区县，4 街道
+   */
+  default void recordParse(long nanos, int lookups, int depth) {
+  }
+
+  /**
+   * 结果缓存是否命中，未开启缓存时不调用
+   */
+  default void recordCache(boolean hit) {
+  }
+
+}
@@ -0,0 +1,222 @@
+package com.github.daihy8759.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * 内置的解析统计，不依赖第三方库
+ * <p>
+ * 记录总耗时和各阶段耗时的直方图、每次解析的区划查询次数、结果缓存命中率以及解析深度分布，
+ * 可以通过 {@link #registerMBean(String)} 注册到 JMX，在 JConsole 等工具中查看。
+ */
+public class ParseMetrics implements ParseInstrumentation, DynamicMBean {
+
+  public static final String DEFAULT_OBJECT_NAME = "com.github.daihy8759.util:type=ParseMetrics";
+
+  private final LatencyHistogram total = new LatencyHistogram();
+
+  private final Map<ParseStage, LatencyHistogram> stages = new EnumMap<>(ParseStage.class);
+
+  private final LongAdder lookups = new LongAdder();
+
+  private final LongAdder cacheHits = new LongAdder();
+
+  private final LongAdder cacheMisses = new LongAdder();
+
+  private final LongAdder[] depths = new LongAdder[5];
+
+  /**
+   * JMX 属性名 -> 取值
+   */
+  private final Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+
+  public ParseMetrics() {
+    for (ParseStage stage : ParseStage.values()) {
+      stages.put(stage, new LatencyHistogram());
+    }
+    for (int i = 0; i < depths.length; i++) {
+      depths[i] = new LongAdder();
+    }
+    attributes.put("ParseCount", total::getCount);
+    addLatency("Parse", total);
+    attributes.put("LookupsPerParse", this::getLookupsPerParse);
+    attributes.put("CacheHitRatio", this::getCacheHitRatio);
+    for (int i = 0; i < depths.length; i++) {
+      int depth = i;
+      attributes.put("Depth" + depth + "Count", () -> getDepthCount(depth));
+    }
+    for (ParseStage stage : ParseStage.values()) {
+      addLatency(stageName(stage), stages.get(stage));
+    }
+  }
+
+  @Override
+  public void recordStage(ParseStage stage, long nanos) {
+    stages.get(stage).record(nanos);
+  }
+
+  @Override
+  public void recordParse(long nanos, int lookupCount, int depth) {
+    total.record(nanos);
+    lookups.add(lookupCount);
+    depths[Math.max(0, Math.min(depth, depths.length - 1))].increment();
+  }
+
+  @Override
+  public void recordCache(boolean hit) {
+    (hit ? cacheHits : cacheMisses).increment();
+  }
+
+  /**
+   * 整体解析耗时
+   */
+  public LatencyHistogram getParseLatency() {
+    return total;
+  }
+
+  public LatencyHistogram getStageLatency(ParseStage stage) {
+    return stages.get(stage);
+  }
+
+  /**
+   * 平均每次解析的区划查询次数
+   */
+  public double getLookupsPerParse() {
+    long count = total.getCount();
+    return count == 0 ? 0 : (double) lookups.sum() / count;
+  }
+
+  /**
+   * 结果缓存命中率，没有请求时为 0
+   */
+  public double getCacheHitRatio() {
+    long hits = cacheHits.sum();
+    long requests = hits + cacheMisses.sum();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  /**
+   * 解析到指定深度的次数
+   *
+   * @param depth 0 未解析出区划，1 省，2 市，3 区县，4 街道
+   */
+  public long getDepthCount(int depth) {
+    return depths[depth].sum();
+  }
+
+  public void reset() {
+    total.reset();
+    stages.values().forEach(LatencyHistogram::reset);
+    lookups.reset();
+    cacheHits.reset();
+    cacheMisses.reset();
+    for (LongAdder depth : depths) {
+      depth.reset();
+    }
+  }
+
+  /**
+   * 注册到平台 MBeanServer，已存在同名 MBean 时替换
+   */
+  public ObjectName registerMBean(String objectName) throws JMException {
+    ObjectName name = new ObjectName(objectName);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    if (server.isRegistered(name)) {
+      server.unregisterMBean(name);
+    }
+    server.registerMBean(this, name);
+    return name;
+  }
+
+  @Override
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    Supplier<Object> supplier = attributes.get(attribute);
+    if (supplier == null) {
+      throw new AttributeNotFoundException(attribute);
+    }
+    return supplier.get();
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("read-only attribute: " + attribute.getName());
+  }
+
+  @Override
+  public AttributeList getAttributes(String[] names) {
+    AttributeList list = new AttributeList();
+    for (String name : names) {
+      Supplier<Object> supplier = attributes.get(name);
+      if (supplier != null) {
+        list.add(new Attribute(name, supplier.get()));
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public AttributeList setAttributes(AttributeList list) {
+    return new AttributeList();
+  }
+
+  @Override
+  public Object invoke(String actionName, Object[] params, String[] signature)
+      throws ReflectionException {
+    if ("reset".equals(actionName)) {
+      reset();
+      return null;
+    }
+    throw new ReflectionException(new NoSuchMethodException(actionName));
+  }
+
+  @Override
+  public MBeanInfo getMBeanInfo() {
+    List<MBeanAttributeInfo> infos = new ArrayList<>(attributes.size());
+    attributes.forEach((name, supplier) -> {
+      String type = supplier.get() instanceof Long ? "long" : "double";
+      infos.add(new MBeanAttributeInfo(name, type, name, true, false, false));
+    });
+    MBeanOperationInfo reset = new MBeanOperationInfo("reset", "清空统计", null, "void",
+        MBeanOperationInfo.ACTION);
+    return new MBeanInfo(getClass().getName(), "地址解析统计",
+        infos.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[]{reset}, null);
+  }
+
+  private void addLatency(String prefix, LatencyHistogram histogram) {
+    if (histogram != total) {
+      attributes.put(prefix + "Count", histogram::getCount);
+    }
+    attributes.put(prefix + "MeanMicros", () -> histogram.getMean() / 1000);
+    attributes.put(prefix + "P50Micros", () -> histogram.getPercentile(0.5) / 1000.0);
+    attributes.put(prefix + "P99Micros", () -> histogram.getPercentile(0.99) / 1000.0);
+  }
+
+  /**
+   * POSTAL_CODE -> PostalCode
+   */
+  private static String stageName(ParseStage stage) {
+    StringBuilder name = new StringBuilder();
+    for (String part : stage.name().split("_")) {
+      name.append(part.charAt(0)).append(part.substring(1).toLowerCase());
+    }
+    return name.toString();
+  }
+
+}
@@ -0,0 +1,58 @@
+package com.github.daihy8759.util.metrics;
+
+/**
+ * 解析阶段
+ */
+public enum ParseStage {
+
+  /**
+   * 清洗地址
+   */
+  CLEAN,
+
+  /**
+   * 提取手机号
+   */
+  PHONE,
+
+  /**
+   * 提取邮编
+   */
+  POSTAL_CODE,
+
+  /**
+   * 拆分地址片段
+   */
+  SPLIT,
+
+  /**
+   * 逐级查询省，未启用内存字典时
+   */
+  PROVINCE,
+
+  /**
+   * 逐级查询市，未启用内存字典时
+   */
+  CITY,
+
+  /**
+   * 逐级查询区县，未启用内存字典时
+   */
+  AREA,
+
+  /**
+   * 逐级查询街道，未启用内存字典时
+   */
+  STREET,
+
+  /**
+   * 在内存字典上一次解析四级区划
+   */
+  REGION,
+
+  /**
+   * 识别姓名
+   */
+  NAME
+
+}
@@ -0,0 +1,77 @@
+package com.github.daihy8759.util.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 调用方已知的区划，例如表单中单独填写的省、市
+ * <p>
+ * 每一级可以给出编码或名称，编码优先；名称可以是全称、别名或唯一的前缀（浙江、杭州）。
+ * 解析时先按上下级关系校验，校验通过的级别直接采用，只在其下级中继续匹配；
+ * 找不到或与上级不一致的级别视为未知，仍从地址中解析。
+ *
+ * <pre>
+ *   AddressHint.builder().provinceName("浙江省").cityCode("3301").build()
+ * </pre>
+ */
+@Value
+@Builder
+public class AddressHint {
+
+  String provinceCode;
+
+  String provinceName;
+
+  String cityCode;
+
+  String cityName;
+
+  String areaCode;
+
+  String areaName;
+
+  String streetCode;
+
+  String streetName;
+
+  /**
+   * 指定级别的编码，没有时返回 null
+   *
+   * @param level 1-4 分别为省、市、区、街道
+   */
+  public String getCode(int level) {
+    switch (level) {
+      case 1:
+        return provinceCode;
+      case 2:
+        return cityCode;
+      case 3:
+        return areaCode;
+      case 4:
+        return streetCode;
+      default:
+        throw new IllegalArgumentException("level must be in [1, 4]: " + level);
+    }
+  }
+
+  /**
+   * 指定级别的名称，没有时返回 null
+   *
+   * @param level 1-4 分别为省、市、区、街道
+   */
+  public String getName(int level) {
+    switch (level) {
+      case 1:
+        return provinceName;
+      case 2:
+        return cityName;
+      case 3:
+        return areaName;
+      case 4:
+        return streetName;
+      default:
+        throw new IllegalArgumentException("level must be in [1, 4]: " + level);
+    }
+  }
+
+}
@@ -0,0 +1,332 @@
+package com.github.daihy8759.util.model;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import java.util.Arrays;
+
+/**
+ * 不可变的解析结果，创建后可在多线程间共享、直接缓存
+ * <p>
+ * 使用内存字典解析时，省市区街道只保存区划在字典中的下标，读取时才生成编码和名称；
+ * 其他数据源保存查询得到的字符串。{@link #toParseResult()} 转换为兼容旧接口的 {@link ParseResult}。
+ */
+public final class AddressResult {
+
+  /**
+   * 各级的编码、名称依次存放：省编码、省名称、市编码、市名称……
+   */
+  private static final int SLOTS = AreaDictionary.MAX_LEVEL * 2;
+
+  /**
+   * 空地址的解析结果
+   */
+  public static final AddressResult EMPTY = builder(null).build();
+
+  private final AreaDictionary dictionary;
+
+  /**
+   * 字典下标，为 {@link AreaDictionary#NONE} 时取 {@link #values} 中的字符串
+   */
+  private final int[] refs;
+
+  private final String[] values;
+
+  private final String postalCode;
+
+  private final String name;
+
+  private final String phone;
+
+  private final String detail;
+
+  private final String datasetVersion;
+
+  private AddressResult(Builder builder) {
+    this.dictionary = builder.dictionary;
+    this.refs = builder.refs;
+    this.values = builder.values;
+    this.postalCode = builder.postalCode;
+    this.name = builder.name;
+    this.phone = builder.phone;
+    this.detail = builder.detail;
+    this.datasetVersion = builder.datasetVersion;
+  }
+
+  /**
+   * @param dictionary 区划引用所在的字典，不使用字典时为 null
+   */
+  public static Builder builder(AreaDictionary dictionary) {
+    return new Builder(dictionary);
+  }
+
+  public String getProvinceCode() {
+    return slot(0);
+  }
+
+  public String getProvinceName() {
+    return slot(1);
+  }
+
+  public String getCityCode() {
+    return slot(2);
+  }
+
+  public String getCityName() {
+    return slot(3);
+  }
+
+  public String getAreaCode() {
+    return slot(4);
+  }
+
+  public String getAreaName() {
+    return slot(5);
+  }
+
+  public String getStreetCode() {
+    return slot(6);
+  }
+
+  public String getStreetName() {
+    return slot(7);
+  }
+
+  /**
+   * 指定级别的编码
+   *
+   * @param level 1 省，2 市，3 区县，4 街道
+   */
+  public String getRegionCode(int level) {
+    return slot(codeSlot(level));
+  }
+
+  public String getRegionName(int level) {
+    return slot(codeSlot(level) + 1);
+  }
+
+  /**
+   * 解析到的最细级别，0 表示没有解析出区划
+   */
+  public int getDepth() {
+    return depth(refs, values);
+  }
+
+  public String getPostalCode() {
+    return postalCode;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getPhone() {
+    return phone;
+  }
+
+  public String getDetail() {
+    return detail;
+  }
+
+  /**
+   * 解析时使用的区划数据版本，见 {@link com.github.daihy8759.util.db.AreaRepository#version()}
+   */
+  public String getDatasetVersion() {
+    return datasetVersion;
+  }
+
+  /**
+   * 转换为可修改的 {@link ParseResult}，每次返回新对象
+   */
+  public ParseResult toParseResult() {
+    ParseResult parseResult = new ParseResult();
+    parseResult.setProvinceCode(getProvinceCode());
+    parseResult.setProvinceName(getProvinceName());
+    parseResult.setCityCode(getCityCode());
+    parseResult.setCityName(getCityName());
+    parseResult.setAreaCode(getAreaCode());
+    parseResult.setAreaName(getAreaName());
+    parseResult.setStreetCode(getStreetCode());
+    parseResult.setStreetName(getStreetName());
+    parseResult.setPostalCode(postalCode);
+    parseResult.setName(name);
+    parseResult.setPhone(phone);
+    parseResult.setDetail(detail);
+    parseResult.setDatasetVersion(datasetVersion);
+    return parseResult;
+  }
+
+  private String slot(int slot) {
+    return read(dictionary, refs, values, slot);
+  }
+
+  private static String read(AreaDictionary dictionary, int[] refs, String[] values, int slot) {
+    int ref = refs[slot];
+    if (ref == AreaDictionary.NONE) {
+      return values[slot];
+    }
+    return (slot & 1) == 0 ? dictionary.codeOf(ref) : dictionary.nameOf(ref);
+  }
+
+  private static boolean hasCode(int[] refs, String[] values, int level) {
+    int slot = codeSlot(level);
+    if (refs[slot] != AreaDictionary.NONE) {
+      return true;
+    }
+    String value = values[slot];
+    return value != null && !value.isEmpty();
+  }
+
+  private static int depth(int[] refs, String[] values) {
+    for (int level = AreaDictionary.MAX_LEVEL; level >= 1; level--) {
+      if (hasCode(refs, values, level)) {
+        return level;
+      }
+    }
+    return 0;
+  }
+
+  private static int codeSlot(int level) {
+    if (level < 1 || level > AreaDictionary.MAX_LEVEL) {
+      throw new IllegalArgumentException("level must be in [1, 4]: " + level);
+    }
+    return (level - 1) * 2;
+  }
+
+  /**
+   * 解析过程中逐步填充结果，只在单个线程内使用
+   * <p>
+   * {@link #build()} 直接移交内部数组，之后不能再修改。
+   */
+  public static final class Builder {
+
+    private final AreaDictionary dictionary;
+
+    private int[] refs = new int[SLOTS];
+
+    private String[] values = new String[SLOTS];
+
+    private String postalCode = "";
+
+    private String name = "";
+
+    private String phone = "";
+
+    private String detail = "";
+
+    private String datasetVersion = "";
+
+    private Builder(AreaDictionary dictionary) {
+      this.dictionary = dictionary;
+      Arrays.fill(refs, AreaDictionary.NONE);
+      Arrays.fill(values, "");
+    }
+
+    public AreaDictionary getDictionary() {
+      return dictionary;
+    }
+
+    public String getRegionCode(int level) {
+      return read(dictionary, refs, values, codeSlot(level));
+    }
+
+    public String getRegionName(int level) {
+      return read(dictionary, refs, values, codeSlot(level) + 1);
+    }
+
+    /**
+     * 指定级别是否已有编码，不生成字符串
+     */
+    public boolean hasCode(int level) {
+      return AddressResult.hasCode(refs, values, level);
+    }
+
+    /**
+     * 指定级别编码对应的字典下标，编码不是来自字典时为 {@link AreaDictionary#NONE}
+     */
+    public int getCodeIndex(int level) {
+      return refs[codeSlot(level)];
+    }
+
+    public int getDepth() {
+      return depth(refs, values);
+    }
+
+    public Builder code(int level, String code) {
+      return put(codeSlot(level), code);
+    }
+
+    public Builder name(int level, String name) {
+      return put(codeSlot(level) + 1, name);
+    }
+
+    /**
+     * 编码引用字典中的区划
+     */
+    public Builder codeOf(int level, int index) {
+      return ref(codeSlot(level), index);
+    }
+
+    /**
+     * 名称引用字典中的区划
+     */
+    public Builder nameOf(int level, int index) {
+      return ref(codeSlot(level) + 1, index);
+    }
+
+    public Builder postalCode(String postalCode) {
+      this.postalCode = postalCode;
+      return this;
+    }
+
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public Builder phone(String phone) {
+      this.phone = phone;
+      return this;
+    }
+
+    public Builder detail(String detail) {
+      this.detail = detail;
+      return this;
+    }
+
+    public Builder datasetVersion(String datasetVersion) {
+      this.datasetVersion = datasetVersion;
+      return this;
+    }
+
+    public AddressResult build() {
+      checkOpen();
+      AddressResult result = new AddressResult(this);
+      refs = null;
+      values = null;
+      return result;
+    }
+
+    private Builder put(int slot, String value) {
+      checkOpen();
+      refs[slot] = AreaDictionary.NONE;
+      values[slot] = value;
+      return this;
+    }
+
+    private Builder ref(int slot, int index) {
+      checkOpen();
+      if (dictionary == null || index < 0) {
+        throw new IllegalArgumentException("index " + index + " is not in dictionary");
+      }
+      refs[slot] = index;
+      values[slot] = null;
+      return this;
+    }
+
+    private void checkOpen() {
+      if (refs == null) {
+        throw new IllegalStateException("builder already built");
+      }
+    }
+  }
+
+}
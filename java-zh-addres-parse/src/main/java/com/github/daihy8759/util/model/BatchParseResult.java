@@ -0,0 +1,51 @@
+package com.github.daihy8759.util.model;
+
+/**
+ * 批量解析中单条地址的结果
+ */
+public class BatchParseResult {
+
+  private final int index;
+
+  private final String address;
+
+  private final ParseResult result;
+
+  private final Exception error;
+
+  public BatchParseResult(int index, String address, ParseResult result, Exception error) {
+    this.index = index;
+    this.address = address;
+    this.result = result;
+    this.error = error;
+  }
+
+  /**
+   * 在输入中的位置
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  /**
+   * 解析结果，解析失败时为 null
+   */
+  public ParseResult getResult() {
+    return result;
+  }
+
+  /**
+   * 解析失败的原因，成功时为 null
+   */
+  public Exception getError() {
+    return error;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
@@ -26,6 +26,8 @@ public class ParseResult {
 
   private String detail = "";
 
+  private String datasetVersion = "";
+
   public String getProvinceCode() {
     return provinceCode;
   }
@@ -121,4 +123,16 @@ public class ParseResult {
   public void setDetail(String detail) {
     this.detail = detail;
   }
+
+  /**
+   * 解析时使用的区划数据版本，数据热更新期间可据此区分结果来自哪一份数据
+   */
+  public String getDatasetVersion() {
+    return datasetVersion;
+  }
+
+  public void setDatasetVersion(String datasetVersion) {
+    this.datasetVersion = datasetVersion;
+  }
+
 }
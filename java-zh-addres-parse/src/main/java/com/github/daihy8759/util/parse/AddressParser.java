@@ -0,0 +1,475 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.cache.BoundedCache;
+import com.github.daihy8759.util.cache.CacheStats;
+import com.github.daihy8759.util.common.StrUtil;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.metrics.ParseInstrumentation;
+import com.github.daihy8759.util.metrics.ParseStage;
+import com.github.daihy8759.util.model.AddressHint;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.github.daihy8759.util.model.ParseResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 地址解析器
+ * <p>
+ * 每个解析器绑定一个区划仓库，可以同时创建多个使用不同数据的解析器；解析器线程安全。
+ * 使用默认数据时直接调用 {@link ZhAddressParser} 的静态方法即可。
+ */
+@Slf4j
+public class AddressParser {
+
+  /**
+   * 直辖市
+   */
+  private static final List<String> MUNICIPALITY = Arrays.asList("北京市", "天津市", "上海市", "重庆市");
+
+  private static final List<String> SPECIAL_AREA = Arrays.asList("市辖区", "区", "县", "镇");
+
+  /**
+   * 批量解析时每个任务处理的地址数
+   */
+  private static final int BATCH_CHUNK_SIZE = 256;
+
+  /**
+   * 解析结果缓存，为 null 时不缓存
+   */
+  private volatile BoundedCache<ResultCacheKey, AddressResult> resultCache;
+
+  private final AreaRepository repository;
+
+  private volatile ParseInstrumentation instrumentation = ParseInstrumentation.NOOP;
+
+  /**
+   * 解析过程采样，为 null 时只在 DEBUG 日志开启时记录
+   */
+  private volatile TraceSampler traceSampler;
+
+  private volatile RegionMatching regionMatching = RegionMatching.PREFIX;
+
+  public AddressParser(AreaRepository repository) {
+    if (repository == null) {
+      throw new IllegalArgumentException("repository is null");
+    }
+    this.repository = repository;
+  }
+
+  public AreaRepository getRepository() {
+    return repository;
+  }
+
+  /**
+   * 设置埋点，为 null 时恢复为不记录
+   */
+  public void setInstrumentation(ParseInstrumentation instrumentation) {
+    this.instrumentation = instrumentation == null ? ParseInstrumentation.NOOP : instrumentation;
+  }
+
+  public ParseInstrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  /**
+   * 设置区划匹配规则，默认为 {@link RegionMatching#PREFIX}；切换后清空结果缓存
+   */
+  public void setRegionMatching(RegionMatching regionMatching) {
+    if (regionMatching == null) {
+      throw new IllegalArgumentException("regionMatching is null");
+    }
+    this.regionMatching = regionMatching;
+    clearResultCache();
+  }
+
+  public RegionMatching getRegionMatching() {
+    return regionMatching;
+  }
+
+  /**
+   * 按比例抽取解析过程交给 listener，listener 在解析线程上调用
+   * <p>
+   * 未开启时，DEBUG 日志开启后每次解析的过程都输出到 DEBUG 日志。
+   *
+   * @param rate     抽取比例，(0, 1]
+   * @param listener 接收解析过程
+   */
+  public void enableTracing(double rate, Consumer<ParseTrace> listener) {
+    traceSampler = new TraceSampler(rate, listener);
+  }
+
+  public void disableTracing() {
+    traceSampler = null;
+  }
+
+  /**
+   * 解析地址并返回中间过程，不读取结果缓存
+   *
+   * @see #parse(String, boolean, boolean, boolean)
+   */
+  public ParseTrace trace(String address, boolean parseName, boolean parsePhone,
+      boolean postalCode) {
+    ParseTrace trace = new ParseTrace(address);
+    trace.finish(parse(address, null, parseName, parsePhone, postalCode, trace, false));
+    return trace;
+  }
+
+  /**
+   * 开启解析结果缓存，以清洗后的地址和解析选项为键；已开启时替换为新的空缓存
+   * <p>
+   * 缓存内保存不可变的 {@link AddressResult}，每次命中转换出新的 {@link ParseResult}，
+   * 调用方修改结果不会影响缓存。
+   * 缓存键包含 {@link AreaRepository#version()}，数据热更新后旧结果不再命中；
+   * 切换没有版本的区划数据后应调用 {@link #clearResultCache()}。
+   *
+   * @param maximumSize      最多缓存的结果数
+   * @param expireAfterWrite 写入后多久过期，为 null 时不过期
+   */
+  public void enableResultCache(int maximumSize, Duration expireAfterWrite) {
+    resultCache = new BoundedCache<>(maximumSize, expireAfterWrite);
+  }
+
+  public void disableResultCache() {
+    resultCache = null;
+  }
+
+  public void clearResultCache() {
+    BoundedCache<ResultCacheKey, AddressResult> cache = resultCache;
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * 结果缓存的统计信息，未开启缓存时返回 null
+   */
+  public CacheStats resultCacheStats() {
+    BoundedCache<ResultCacheKey, AddressResult> cache = resultCache;
+    return cache == null ? null : cache.stats();
+  }
+
+  /**
+   * 判断是否是名字
+   */
+  static String judgeFragmentIsName(String fragment, int nameMaxLength) {
+    return NameDetector.isName(fragment, nameMaxLength) ? fragment : "";
+  }
+
+  /**
+   * 解析地址
+   *
+   * @param address    待解析地址
+   * @param parseName  是否解析用户名
+   * @param parsePhone 是否解析手机号码
+   * @param postalCode 是否解析邮编
+   */
+  public ParseResult parse(String address, boolean parseName, boolean parsePhone,
+      boolean postalCode) {
+    return parseAddress(address, parseName, parsePhone, postalCode).toParseResult();
+  }
+
+  /**
+   * 已知部分区划时解析地址，校验通过的级别直接采用，其余级别只在已知区划的下级中匹配
+   *
+   * @param address    待解析地址
+   * @param hint       已知的区划，为 null 时与不带提示的解析相同
+   * @param parseName  是否解析用户名
+   * @param parsePhone 是否解析手机号码
+   * @param postalCode 是否解析邮编
+   * @see AddressHint
+   */
+  public ParseResult parse(String address, AddressHint hint, boolean parseName,
+      boolean parsePhone, boolean postalCode) {
+    return parseAddress(address, hint, parseName, parsePhone, postalCode).toParseResult();
+  }
+
+  /**
+   * 解析地址，返回不可变结果
+   *
+   * @see #parse(String, boolean, boolean, boolean)
+   */
+  public AddressResult parseAddress(String address, boolean parseName, boolean parsePhone,
+      boolean postalCode) {
+    return parseAddress(address, null, parseName, parsePhone, postalCode);
+  }
+
+  /**
+   * 已知部分区划时解析地址，返回不可变结果
+   *
+   * @see #parse(String, AddressHint, boolean, boolean, boolean)
+   */
+  public AddressResult parseAddress(String address, AddressHint hint, boolean parseName,
+      boolean parsePhone, boolean postalCode) {
+    TraceSampler sampler = traceSampler;
+    boolean traced = sampler == null ? log.isDebugEnabled() : sampler.sample();
+    if (!traced) {
+      return parse(address, hint, parseName, parsePhone, postalCode, null, true);
+    }
+    ParseTrace trace = new ParseTrace(address);
+    AddressResult result = parse(address, hint, parseName, parsePhone, postalCode, trace, true);
+    trace.finish(result);
+    if (sampler == null) {
+      log.debug("解析过程\n{}", trace);
+    } else {
+      sampler.accept(trace);
+    }
+    return result;
+  }
+
+  /**
+   * 预热用的解析，不读写结果缓存、不记录埋点
+   */
+  AddressResult warmUp(String address, boolean parseName, boolean parsePhone,
+      boolean postalCode) {
+    return parse(address, null, parseName, parsePhone, postalCode, null, false,
+        ParseInstrumentation.NOOP);
+  }
+
+  private AddressResult parse(String address, AddressHint hint, boolean parseName,
+      boolean parsePhone, boolean postalCode, ParseTrace trace, boolean useCache) {
+    return parse(address, hint, parseName, parsePhone, postalCode, trace, useCache,
+        instrumentation);
+  }
+
+  private AddressResult parse(String address, AddressHint hint, boolean parseName,
+      boolean parsePhone, boolean postalCode, ParseTrace trace, boolean useCache,
+      ParseInstrumentation metrics) {
+    if (StrUtil.isBlank(address)) {
+      return AddressResult.EMPTY;
+    }
+    StageClock clock = metrics.isEnabled() ? new StageClock(metrics) : null;
+    AddressTokenizer tokenizer = AddressTokenizer.clean(address);
+    lap(clock, ParseStage.CLEAN);
+    // 数据热更新时，已开始的解析继续使用开始时的数据
+    AreaRepository snapshot = repository.snapshot();
+    BoundedCache<ResultCacheKey, AddressResult> cache = useCache ? resultCache : null;
+    if (cache == null) {
+      return parse(snapshot, tokenizer, hint, parseName, parsePhone, postalCode, clock, trace);
+    }
+    ResultCacheKey key = new ResultCacheKey(tokenizer.toString(), hint, parseName, parsePhone,
+        postalCode, snapshot.version());
+    AddressResult result = cache.get(key);
+    if (clock != null) {
+      clock.cache(result != null);
+    }
+    if (result != null) {
+      if (trace != null) {
+        trace.cacheHit();
+      }
+      if (clock != null) {
+        clock.finish(result);
+      }
+      return result;
+    }
+    result = parse(snapshot, tokenizer, hint, parseName, parsePhone, postalCode, clock, trace);
+    cache.put(key, result);
+    return result;
+  }
+
+  private AddressResult parse(AreaRepository repository, AddressTokenizer tokenizer,
+      AddressHint hint, boolean parseName, boolean parsePhone, boolean postalCode,
+      StageClock clock, ParseTrace trace) {
+    AreaDictionary dictionary = repository.dictionary();
+    AddressResult.Builder result = AddressResult.builder(dictionary)
+        .datasetVersion(repository.version());
+    if (parsePhone) {
+      result.phone(tokenizer.extractPhone());
+      lap(clock, ParseStage.PHONE);
+    }
+    if (postalCode) {
+      result.postalCode(tokenizer.extractPostalCode());
+      lap(clock, ParseStage.POSTAL_CODE);
+    }
+    List<String> splitAddressList = tokenizer.fragments();
+    if (trace != null) {
+      trace.cleaned(tokenizer.toString(), splitAddressList);
+    }
+    List<String> detail = new ArrayList<>();
+    boolean scored = regionMatching == RegionMatching.SCORED;
+    // 计时时包装仓库统计查询次数
+    AreaRepository areaRepository = clock == null ? repository : clock.count(repository);
+    lap(clock, ParseStage.SPLIT);
+    // 提示的区划先填入结果，片段中重复的部分去掉后只匹配更下级的区划
+    HintResolver known = null;
+    if (hint != null) {
+      known = HintResolver.apply(areaRepository, result, hint);
+      lap(clock, ParseStage.REGION);
+    }
+    for (String splitAddress : splitAddressList) {
+      if (known != null) {
+        splitAddress = known.strip(splitAddress);
+        if (splitAddress.isEmpty()) {
+          continue;
+        }
+      }
+      if (!result.hasCode(1) || !result.hasCode(2) || !result.hasCode(3)
+          || !result.hasCode(4)) {
+        String fragment;
+        if (dictionary != null) {
+          fragment = scored
+              ? ScoredRegionResolver.resolve(dictionary, result, splitAddress, clock)
+              : RegionResolver.resolve(dictionary, result, splitAddress, clock);
+          lap(clock, ParseStage.REGION);
+        } else {
+          fragment = ProvinceParser.parseProvince(areaRepository, result, splitAddress);
+          lap(clock, ParseStage.PROVINCE);
+          fragment = CityParser.parseCity(areaRepository, result, fragment);
+          lap(clock, ParseStage.CITY);
+          fragment = AreaParser.parseArea(areaRepository, result, fragment);
+          lap(clock, ParseStage.AREA);
+          fragment = StreetParser.parseStreet(areaRepository, result, fragment);
+          lap(clock, ParseStage.STREET);
+        }
+        if (trace != null) {
+          trace.region(splitAddress, fragment, result);
+        }
+        if (StrUtil.isNotBlank(fragment)) {
+          detail.add(fragment);
+        }
+      } else {
+        detail.add(splitAddress);
+      }
+    }
+    if (parseName && !detail.isEmpty()) {
+      if (trace != null) {
+        List<String> sortDetail = new ArrayList<>(detail);
+        sortDetail.sort(Comparator.comparingInt(String::length));
+        trace.nameCandidates(sortDetail);
+      }
+      int index = NameDetector.find(detail, ZhAddressParser.NAME_MAX_LENGTH);
+      if (index >= 0) {
+        result.name(detail.remove(index));
+      }
+    }
+    lap(clock, ParseStage.NAME);
+    result.detail(detail.stream().collect(Collectors.joining("")));
+    replaceMunicipality(repository, result);
+    AddressResult addressResult = result.build();
+    if (clock != null) {
+      clock.finish(addressResult);
+    }
+    return addressResult;
+  }
+
+  /**
+   * 批量解析地址，使用 ForkJoin 公共线程池
+   *
+   * @see #parseBatch(Iterable, boolean, boolean, boolean, Executor)
+   */
+  public List<BatchParseResult> parseBatch(Iterable<String> addresses, boolean parseName,
+      boolean parsePhone, boolean postalCode) {
+    return parseBatch(addresses, parseName, parsePhone, postalCode, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * 批量解析地址
+   *
+   * @see #parseBatch(Iterable, boolean, boolean, boolean, Executor)
+   */
+  public List<BatchParseResult> parseBatch(Stream<String> addresses, boolean parseName,
+      boolean parsePhone, boolean postalCode, Executor executor) {
+    return parseBatch(addresses.collect(Collectors.toList()), parseName, parsePhone, postalCode,
+        executor);
+  }
+
+  /**
+   * 批量解析地址
+   * <p>
+   * 相同的地址只解析一次；地址按批次分发到 executor 并行解析，结果与输入顺序一致。
+   * 单条地址解析失败不影响其他地址，失败原因记录在对应的结果中。
+   *
+   * @param addresses  待解析地址
+   * @param parseName  是否解析用户名
+   * @param parsePhone 是否解析手机号码
+   * @param postalCode 是否解析邮编
+   * @param executor   执行解析的线程池
+   */
+  public List<BatchParseResult> parseBatch(Iterable<String> addresses, boolean parseName,
+      boolean parsePhone, boolean postalCode, Executor executor) {
+    List<String> addressList = new ArrayList<>();
+    addresses.forEach(addressList::add);
+    // 地址 -> 所在位置
+    Map<String, List<Integer>> positions = new LinkedHashMap<>();
+    for (int i = 0; i < addressList.size(); i++) {
+      positions.computeIfAbsent(addressList.get(i), k -> new ArrayList<>(1)).add(i);
+    }
+    List<Map.Entry<String, List<Integer>>> distinct = new ArrayList<>(positions.entrySet());
+    BatchParseResult[] results = new BatchParseResult[addressList.size()];
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int from = 0; from < distinct.size(); from += BATCH_CHUNK_SIZE) {
+      List<Map.Entry<String, List<Integer>>> chunk = distinct
+          .subList(from, Math.min(from + BATCH_CHUNK_SIZE, distinct.size()));
+      futures.add(CompletableFuture.runAsync(() -> {
+        for (Map.Entry<String, List<Integer>> entry : chunk) {
+          parseInto(results, entry.getKey(), entry.getValue(), parseName, parsePhone, postalCode);
+        }
+      }, executor));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    return Arrays.asList(results);
+  }
+
+  private void parseInto(BatchParseResult[] results, String address, List<Integer> positions,
+      boolean parseName, boolean parsePhone, boolean postalCode) {
+    AddressResult addressResult = null;
+    Exception error = null;
+    try {
+      addressResult = parseAddress(address, parseName, parsePhone, postalCode);
+    } catch (Exception e) {
+      error = e;
+    }
+    for (int i = 0; i < positions.size(); i++) {
+      // 重复地址各自持有一份结果，避免调用方修改时互相影响
+      ParseResult result = addressResult == null ? null : addressResult.toParseResult();
+      int index = positions.get(i);
+      results[index] = new BatchParseResult(index, address, result, error);
+    }
+  }
+
+  /**
+   * 开启计时时把上次计时以来的耗时记到 stage 上
+   */
+  private static void lap(StageClock clock, ParseStage stage) {
+    if (clock != null) {
+      clock.lap(stage);
+    }
+  }
+
+  /**
+   * 替换直辖市
+   */
+  private void replaceMunicipality(AreaRepository repository, AddressResult.Builder result) {
+    String provinceName = result.getRegionName(1);
+    if (StrUtil.isBlank(provinceName)) {
+      return;
+    }
+    String cityName = result.getRegionName(2);
+    if (StrUtil.isBlank(cityName)) {
+      return;
+    }
+    if (MUNICIPALITY.contains(provinceName) && SPECIAL_AREA.contains(cityName)) {
+      List<Area> areaList = repository.findByPrefix(null, provinceName, 2);
+      if (!areaList.isEmpty()) {
+        Area area = areaList.get(0);
+        result.code(2, area.getCode());
+        result.name(2, area.getName());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,234 @@
+package com.github.daihy8759.util.parse;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 地址文本扫描
+ * <p>
+ * 在一个字符数组上完成清洗、手机号和邮编提取：换行、制表符、标点和关键字在一次扫描中替换为空格并合并连续空格，
+ * 手机号和邮编按位置定位后在原数组上删除，最后直接从数组切出各个片段，中间不产生临时字符串。
+ */
+final class AddressTokenizer {
+
+  private static final String[] KEYWORDS = {"详细地址", "收货地址", "收件地址", "地址", "所在地区", "地区",
+      "姓名", "收货人", "收件人", "联系人", "聯系人", "收", "邮编", "联系电话", "电话", "电話", "電話",
+      "联系人手机号码", "手机号码", "手机号"};
+
+  private static final String PUNCTUATION = "`~!@#$^&*()=|{}':;,[].<>/?！￥…（）—【】‘；：”“’。，、？";
+
+  private static final Pattern PATTERN_PHONE = Pattern
+      .compile("(\\d{7,12})|(\\d{3,4}-\\d{6,8})|(86-[1][0-9]{10})|(86[1][0-9]{10})|([1][0-9]{10})");
+
+  private static final int POSTAL_CODE_LENGTH = 6;
+
+  private static final BitSet PUNCTUATION_SET = new BitSet(Character.MAX_VALUE + 1);
+
+  /**
+   * 关键字首字符
+   */
+  private static final BitSet KEYWORD_FIRST = new BitSet(Character.MAX_VALUE + 1);
+
+  static {
+    for (int i = 0; i < PUNCTUATION.length(); i++) {
+      PUNCTUATION_SET.set(PUNCTUATION.charAt(i));
+    }
+    for (String keyword : KEYWORDS) {
+      KEYWORD_FIRST.set(keyword.charAt(0));
+    }
+  }
+
+  private final char[] buffer;
+
+  private int length;
+
+  private AddressTokenizer(char[] buffer, int length) {
+    this.buffer = buffer;
+    this.length = length;
+  }
+
+  /**
+   * 清洗地址：换行、制表符、标点和关键字替换为空格，连续空格合并为一个
+   */
+  static AddressTokenizer clean(String address) {
+    char[] buffer = new char[address.length()];
+    int length = 0;
+    int i = 0;
+    while (i < address.length()) {
+      char c = address.charAt(i);
+      int skip = 1;
+      boolean blank;
+      if (c == '\r' && i + 1 < address.length() && address.charAt(i + 1) == '\n') {
+        skip = 2;
+        blank = true;
+      } else if (c == '\n' || c == '\t' || c == ' ' || PUNCTUATION_SET.get(c)) {
+        blank = true;
+      } else if (KEYWORD_FIRST.get(c) && (skip = matchKeyword(address, i)) > 0) {
+        blank = true;
+      } else {
+        skip = 1;
+        blank = false;
+      }
+      if (!blank) {
+        buffer[length++] = c;
+      } else if (length == 0 || buffer[length - 1] != ' ') {
+        buffer[length++] = ' ';
+      }
+      i += skip;
+    }
+    return new AddressTokenizer(buffer, length);
+  }
+
+  /**
+   * 在 from 处匹配关键字，多个关键字同时匹配时取列表中靠前的一个，与依次替换各个关键字的结果一致
+   *
+   * @return 匹配的长度，没有匹配时返回 0
+   */
+  private static int matchKeyword(String address, int from) {
+    for (String keyword : KEYWORDS) {
+      if (address.startsWith(keyword, from)) {
+        return keyword.length();
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * 提取手机号码并从地址中删除，没有时返回空字符串
+   * <p>
+   * 先把 3-4-4、3 4 4、4 4 4 分组书写的号码合并，再取第一个匹配的号码，删除地址中该号码的所有出现
+   */
+  String extractPhone() {
+    joinDigits(3, '-');
+    joinDigits(3, ' ');
+    joinDigits(4, ' ');
+    Matcher matcher = PATTERN_PHONE.matcher(CharBuffer.wrap(buffer, 0, length));
+    if (!matcher.find()) {
+      return "";
+    }
+    String phone = new String(buffer, matcher.start(), matcher.end() - matcher.start());
+    removeAll(phone);
+    return phone;
+  }
+
+  /**
+   * 提取第一个连续 6 位数字作为邮编并从地址中删除，没有时返回空字符串
+   */
+  String extractPostalCode() {
+    int digits = 0;
+    for (int i = 0; i < length; i++) {
+      digits = isDigit(buffer[i]) ? digits + 1 : 0;
+      if (digits == POSTAL_CODE_LENGTH) {
+        int start = i + 1 - POSTAL_CODE_LENGTH;
+        String postalCode = new String(buffer, start, POSTAL_CODE_LENGTH);
+        removeAll(postalCode);
+        return postalCode;
+      }
+    }
+    return "";
+  }
+
+  /**
+   * 按空格切分，去掉首尾空白及空片段
+   */
+  List<String> fragments() {
+    List<String> fragments = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= length; i++) {
+      if (i < length && buffer[i] != ' ') {
+        continue;
+      }
+      int from = start;
+      int to = i;
+      while (from < to && buffer[from] <= ' ') {
+        from++;
+      }
+      while (to > from && buffer[to - 1] <= ' ') {
+        to--;
+      }
+      if (from < to) {
+        fragments.add(new String(buffer, from, to - from));
+      }
+      start = i + 1;
+    }
+    return fragments;
+  }
+
+  @Override
+  public String toString() {
+    return new String(buffer, 0, length);
+  }
+
+  /**
+   * 把 first 位、4 位、4 位数字以 separator 分隔的号码合并为连续数字
+   */
+  private void joinDigits(int first, char separator) {
+    int width = first + 4 + 4 + 2;
+    int write = 0;
+    int read = 0;
+    while (read < length) {
+      if (read + width <= length && isGroup(read, first, separator)) {
+        for (int i = 0; i < width; i++) {
+          char c = buffer[read + i];
+          if (c != separator) {
+            buffer[write++] = c;
+          }
+        }
+        read += width;
+      } else {
+        buffer[write++] = buffer[read++];
+      }
+    }
+    length = write;
+  }
+
+  private boolean isGroup(int from, int first, char separator) {
+    int second = from + first + 1;
+    int third = second + 4 + 1;
+    return isDigits(from, first) && buffer[second - 1] == separator && isDigits(second, 4)
+        && buffer[third - 1] == separator && isDigits(third, 4);
+  }
+
+  private boolean isDigits(int from, int count) {
+    for (int i = from; i < from + count; i++) {
+      if (!isDigit(buffer[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 把 target 在地址中的所有出现替换为一个空格
+   */
+  private void removeAll(String target) {
+    int write = 0;
+    int read = 0;
+    while (read < length) {
+      if (read + target.length() <= length && regionMatches(read, target)) {
+        buffer[write++] = ' ';
+        read += target.length();
+      } else {
+        buffer[write++] = buffer[read++];
+      }
+    }
+    length = write;
+  }
+
+  private boolean regionMatches(int from, String target) {
+    for (int i = 0; i < target.length(); i++) {
+      if (buffer[from + i] != target.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,137 @@
+package com.github.daihy8759.util.parse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+
+/**
+ * 启动预热
+ * <p>
+ * 依次完成两步：加载区划数据，默认数据在首次访问时才加载；
+ * 在 ForkJoin 线程池中并行重放地址样本，触发清洗、区划匹配、姓名判断等热点代码的 JIT 编译。
+ * 使用 data.db 时重放同时建立连接，样本应接近实际请求，查询缓存中留下的才是实际会用到的区划。
+ * 预热完成后再把实例标记为就绪，首批请求的延迟即接近稳定值。
+ * <p>
+ * 预热的解析不读写结果缓存，也不记录埋点。
+ */
+public final class AddressWarmup {
+
+  /**
+   * 内置的地址样本
+   */
+  public static final String CORPUS_RESOURCE = "warmup-addresses.txt";
+
+  /**
+   * 默认重放轮数，内置样本约 1 万次解析，超过 C2 编译阈值
+   */
+  public static final int DEFAULT_ROUNDS = 200;
+
+  /**
+   * 单个任务处理的解析次数，超过时继续拆分
+   */
+  private static final int TASK_SIZE = 512;
+
+  private AddressWarmup() {
+  }
+
+  /**
+   * 使用内置样本和 ForkJoin 公共线程池预热
+   */
+  public static WarmupReport warmUp(AddressParser parser) {
+    return warmUp(parser, builtInCorpus(), DEFAULT_ROUNDS, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param parser 预热的解析器
+   * @param corpus 重放的地址样本
+   * @param rounds 样本重放的轮数，为 0 时只加载数据
+   * @param pool   执行查询和重放的线程池
+   */
+  public static WarmupReport warmUp(AddressParser parser, List<String> corpus, int rounds,
+      ForkJoinPool pool) {
+    if (parser == null || corpus == null || pool == null) {
+      throw new IllegalArgumentException("parser, corpus and pool must not be null");
+    }
+    if (rounds < 0) {
+      throw new IllegalArgumentException("rounds must not be negative");
+    }
+    long start = System.nanoTime();
+    parser.getRepository().snapshot().dictionary();
+    long loaded = System.nanoTime();
+
+    int size = corpus.size();
+    long parses = (long) size * rounds;
+    if (parses > 0) {
+      pool.invoke(new RangeTask(0, parses, i -> {
+        // 交替开启、关闭姓名、电话、邮编的解析，覆盖两条分支
+        boolean all = ((i / size) & 1) == 0;
+        parser.warmUp(corpus.get((int) (i % size)), all, all, all);
+      }));
+    }
+    long replayed = System.nanoTime();
+    return new WarmupReport(loaded - start, replayed - loaded, parses);
+  }
+
+  /**
+   * 内置的地址样本
+   */
+  public static List<String> builtInCorpus() {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    if (classLoader == null) {
+      classLoader = AddressWarmup.class.getClassLoader();
+    }
+    try (InputStream in = classLoader.getResourceAsStream(CORPUS_RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("warm-up corpus not found in classpath: " + CORPUS_RESOURCE);
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      List<String> corpus = new ArrayList<>();
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.trim().isEmpty()) {
+          corpus.add(line);
+        }
+      }
+      return Collections.unmodifiableList(corpus);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 对 [from, to) 中的每个下标执行 action，超过 TASK_SIZE 时对半拆分
+   */
+  private static final class RangeTask extends RecursiveAction {
+
+    private final long from;
+    private final long to;
+    private final LongConsumer action;
+
+    private RangeTask(long from, long to, LongConsumer action) {
+      this.from = from;
+      this.to = to;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= TASK_SIZE) {
+        for (long i = from; i < to; i++) {
+          action.accept(i);
+        }
+        return;
+      }
+      long middle = (from + to) >>> 1;
+      invokeAll(new RangeTask(from, middle, action), new RangeTask(middle, to, action));
+    }
+  }
+
+}
@@ -0,0 +1,421 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.github.daihy8759.util.model.ParseResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 异步地址解析
+ * <p>
+ * {@link #parseAsync} 和 {@link #parseBatchAsync} 只负责提交，不会阻塞调用线程，可以直接在 Netty、Reactor
+ * 等事件循环线程上调用。同时解析的地址数不超过 maxConcurrency，超出的请求排队，有空位时依次提交到执行器；
+ * 排队数达到 maxPending 时 parseAsync 直接返回以 {@link RejectedExecutionException} 结束的 future。
+ * 默认执行器在 JDK 21 及以上使用虚拟线程，否则使用 maxConcurrency 个守护线程。
+ */
+public class AsyncAddressParser implements AutoCloseable {
+
+  /**
+   * 默认最多排队的地址数
+   */
+  public static final int DEFAULT_MAX_PENDING = 1 << 14;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final AddressParser parser;
+
+  private final Executor executor;
+
+  /**
+   * 执行器由本类创建时为 true，关闭时一并关闭
+   */
+  private final boolean ownsExecutor;
+
+  private final int maxConcurrency;
+
+  private final int maxPending;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+
+  /**
+   * 经 parseAsync 排队的地址数；批量和流式解析各自最多排队 maxConcurrency 条，不计入
+   */
+  private final AtomicInteger queued = new AtomicInteger();
+
+  /**
+   * 使用默认执行器
+   *
+   * @param parser         解析器
+   * @param maxConcurrency 最多同时解析的地址数
+   */
+  public AsyncAddressParser(AddressParser parser, int maxConcurrency) {
+    this(parser, maxConcurrency, DEFAULT_MAX_PENDING, defaultExecutor(maxConcurrency), true);
+  }
+
+  /**
+   * @param parser         解析器
+   * @param maxConcurrency 最多同时解析的地址数
+   * @param executor       执行解析的线程池，由调用方负责关闭
+   */
+  public AsyncAddressParser(AddressParser parser, int maxConcurrency, Executor executor) {
+    this(parser, maxConcurrency, DEFAULT_MAX_PENDING, executor, false);
+  }
+
+  /**
+   * @param parser         解析器
+   * @param maxConcurrency 最多同时解析的地址数
+   * @param maxPending     parseAsync 最多排队的地址数
+   * @param executor       执行解析的线程池，由调用方负责关闭
+   */
+  public AsyncAddressParser(AddressParser parser, int maxConcurrency, int maxPending,
+      Executor executor) {
+    this(parser, maxConcurrency, maxPending, executor, false);
+  }
+
+  private AsyncAddressParser(AddressParser parser, int maxConcurrency, int maxPending,
+      Executor executor, boolean ownsExecutor) {
+    if (parser == null || executor == null) {
+      throw new IllegalArgumentException("parser and executor must not be null");
+    }
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("maxConcurrency must be positive");
+    }
+    if (maxPending < 0) {
+      throw new IllegalArgumentException("maxPending must not be negative");
+    }
+    this.parser = parser;
+    this.maxConcurrency = maxConcurrency;
+    this.maxPending = maxPending;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * 异步解析地址
+   *
+   * @param address    待解析地址
+   * @param parseName  是否解析用户名
+   * @param parsePhone 是否解析手机号码
+   * @param postalCode 是否解析邮编
+   * @return 排队数已达 maxPending 时返回以 {@link RejectedExecutionException} 结束的 future
+   */
+  public CompletableFuture<ParseResult> parseAsync(String address, boolean parseName,
+      boolean parsePhone, boolean postalCode) {
+    Task task = new Task(address, parseName, parsePhone, postalCode, true);
+    if (queued.incrementAndGet() > maxPending) {
+      queued.decrementAndGet();
+      task.future.completeExceptionally(
+          new RejectedExecutionException("too many pending addresses: " + maxPending));
+      return task.future;
+    }
+    return submit(task);
+  }
+
+  /**
+   * 异步批量解析，结果与输入顺序一致；单条地址解析失败不影响其他地址
+   * <p>
+   * 地址随解析进度逐条提交，同一批次最多排队 maxConcurrency 条，不受 maxPending 限制。
+   */
+  public CompletableFuture<List<BatchParseResult>> parseBatchAsync(Iterable<String> addresses,
+      boolean parseName, boolean parsePhone, boolean postalCode) {
+    List<String> addressList = new ArrayList<>();
+    addresses.forEach(addressList::add);
+    AddressBatch batch = new AddressBatch(addressList, parseName, parsePhone, postalCode);
+    batch.pump();
+    return batch.done;
+  }
+
+  /**
+   * 流式解析，适合数量未知或很大的输入
+   * <p>
+   * 在调用线程上读取 addresses，正在处理的地址达到 maxConcurrency 时阻塞调用线程等待空位，
+   * 因此读取较慢或会阻塞的输入不会占用解析线程；不要在事件循环线程上调用。
+   * 结果按完成顺序逐条交给 consumer，可通过 {@link BatchParseResult#getIndex()} 对应输入位置；
+   * consumer 在解析线程上串行调用。
+   *
+   * @return 输入读完后返回，全部地址处理完成后结束；读取输入或 consumer 抛出异常、等待时被中断时以该异常结束，
+   * 并停止读取后续地址
+   */
+  public CompletableFuture<Void> parseStream(Iterator<String> addresses, boolean parseName,
+      boolean parsePhone, boolean postalCode, Consumer<BatchParseResult> consumer) {
+    AddressStream stream = new AddressStream(parseName, parsePhone, postalCode, consumer);
+    stream.read(addresses);
+    return stream.done;
+  }
+
+  /**
+   * 正在解析的地址数
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * 排队等待解析的地址数
+   */
+  public int getPending() {
+    return pending.size();
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  public int getMaxPending() {
+    return maxPending;
+  }
+
+  /**
+   * 关闭默认执行器，已提交的解析会继续执行完；使用外部执行器时不做任何事
+   */
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      ((ExecutorService) executor).shutdown();
+    }
+  }
+
+  private CompletableFuture<ParseResult> submit(Task task) {
+    pending.offer(task);
+    drain();
+    return task.future;
+  }
+
+  private void drain() {
+    while (!pending.isEmpty()) {
+      int current = inFlight.get();
+      if (current >= maxConcurrency) {
+        // 正在执行的任务结束后会再次调用 drain
+        return;
+      }
+      if (!inFlight.compareAndSet(current, current + 1)) {
+        continue;
+      }
+      Task task = pending.poll();
+      if (task == null) {
+        inFlight.decrementAndGet();
+        continue;
+      }
+      if (task.counted) {
+        queued.decrementAndGet();
+      }
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        inFlight.decrementAndGet();
+        task.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static Exception unwrap(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+  }
+
+  /**
+   * JDK 21 及以上使用虚拟线程，否则使用固定大小的守护线程池
+   */
+  private static ExecutorService defaultExecutor(int maxConcurrency) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      ThreadFactory threadFactory = r -> {
+        Thread thread = new Thread(r, "address-parser-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      };
+      return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+    }
+  }
+
+  private final class Task implements Runnable {
+
+    private final String address;
+    private final boolean parseName;
+    private final boolean parsePhone;
+    private final boolean postalCode;
+    /**
+     * 是否计入 queued
+     */
+    private final boolean counted;
+    private final CompletableFuture<ParseResult> future = new CompletableFuture<>();
+
+    private Task(String address, boolean parseName, boolean parsePhone, boolean postalCode,
+        boolean counted) {
+      this.address = address;
+      this.parseName = parseName;
+      this.parsePhone = parsePhone;
+      this.postalCode = postalCode;
+      this.counted = counted;
+    }
+
+    @Override
+    public void run() {
+      ParseResult result = null;
+      Throwable error = null;
+      try {
+        result = parser.parse(address, parseName, parsePhone, postalCode);
+      } catch (Throwable e) {
+        error = e;
+      }
+      // 先释放名额再通知调用方，回调中提交的新任务可以立即执行
+      inFlight.decrementAndGet();
+      drain();
+      if (error == null) {
+        future.complete(result);
+      } else {
+        future.completeExceptionally(error);
+      }
+    }
+  }
+
+  /**
+   * 批量解析：完成一条再提交下一条，保持最多 maxConcurrency 条在解析或排队
+   */
+  private final class AddressBatch {
+
+    private final List<String> addresses;
+    private final boolean parseName;
+    private final boolean parsePhone;
+    private final boolean postalCode;
+    private final BatchParseResult[] results;
+    private final CompletableFuture<List<BatchParseResult>> done = new CompletableFuture<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger remaining;
+    /**
+     * 保证同一时间只有一个线程在提交；执行器拒绝时回调同步执行，借此避免递归提交
+     */
+    private final AtomicInteger pumps = new AtomicInteger();
+    private int nextIndex;
+
+    private AddressBatch(List<String> addresses, boolean parseName, boolean parsePhone,
+        boolean postalCode) {
+      this.addresses = addresses;
+      this.parseName = parseName;
+      this.parsePhone = parsePhone;
+      this.postalCode = postalCode;
+      this.results = new BatchParseResult[addresses.size()];
+      this.remaining = new AtomicInteger(results.length);
+      if (results.length == 0) {
+        done.complete(Arrays.asList(results));
+      }
+    }
+
+    private void pump() {
+      if (pumps.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        while (nextIndex < results.length && active.get() < maxConcurrency) {
+          active.incrementAndGet();
+          int index = nextIndex++;
+          String address = addresses.get(index);
+          submit(new Task(address, parseName, parsePhone, postalCode, false))
+              .whenComplete((result, error) -> complete(new BatchParseResult(index, address,
+                  result, error == null ? null : unwrap(error))));
+        }
+      } while (pumps.decrementAndGet() != 0);
+    }
+
+    private void complete(BatchParseResult result) {
+      results[result.getIndex()] = result;
+      active.decrementAndGet();
+      if (remaining.decrementAndGet() == 0) {
+        done.complete(Arrays.asList(results));
+      } else {
+        pump();
+      }
+    }
+  }
+
+  private final class AddressStream {
+
+    private final boolean parseName;
+    private final boolean parsePhone;
+    private final boolean postalCode;
+    private final Consumer<BatchParseResult> consumer;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final Semaphore permits = new Semaphore(maxConcurrency);
+    private int outstanding;
+    private boolean exhausted;
+
+    private AddressStream(boolean parseName, boolean parsePhone, boolean postalCode,
+        Consumer<BatchParseResult> consumer) {
+      this.parseName = parseName;
+      this.parsePhone = parsePhone;
+      this.postalCode = postalCode;
+      this.consumer = consumer;
+    }
+
+    /**
+     * 在调用线程上读取地址并提交，有 maxConcurrency 条未完成时等待
+     */
+    private void read(Iterator<String> addresses) {
+      try {
+        for (int index = 0; ; index++) {
+          permits.acquire();
+          if (done.isDone() || !addresses.hasNext()) {
+            permits.release();
+            break;
+          }
+          String address = addresses.next();
+          synchronized (this) {
+            outstanding++;
+          }
+          int current = index;
+          submit(new Task(address, parseName, parsePhone, postalCode, false))
+              .whenComplete((result, error) -> complete(new BatchParseResult(current, address,
+                  result, error == null ? null : unwrap(error))));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        done.completeExceptionally(e);
+      } catch (RuntimeException e) {
+        done.completeExceptionally(e);
+      }
+      synchronized (this) {
+        exhausted = true;
+        if (outstanding == 0) {
+          done.complete(null);
+        }
+      }
+    }
+
+    private void complete(BatchParseResult result) {
+      synchronized (this) {
+        outstanding--;
+        if (!done.isDone()) {
+          try {
+            consumer.accept(result);
+          } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+          }
+        }
+        if (exhausted && outstanding == 0) {
+          done.complete(null);
+        }
+      }
+      permits.release();
+    }
+  }
+
+}
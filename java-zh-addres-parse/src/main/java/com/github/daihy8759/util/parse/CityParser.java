@@ -1,9 +1,8 @@
 package com.github.daihy8759.util.parse;
 
-import com.github.daihy8759.util.common.StrUtil;
-import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
 import com.github.daihy8759.util.model.Area;
-import com.github.daihy8759.util.model.ParseResult;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -12,26 +11,31 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 class CityParser {
 
-  protected String parseCity(ParseResult parseResult, String fragment) {
-    if (StrUtil.isEmpty(parseResult.getCityCode())) {
+  protected String parseCity(AreaRepository repository, AddressResult.Builder result,
+      String fragment) {
+    if (!result.hasCode(2)) {
       for (int i = 1; i < fragment.length(); i++) {
         String str = fragment.substring(0, i + 1);
-        String provinceCode = parseResult.getProvinceCode();
-        List<Area> areaList = SqliteUtil.getArea(provinceCode, str, 2);
+        String provinceCode = result.getRegionCode(1);
+        List<Area> areaList = repository.findByPrefix(provinceCode, str, 2);
         if (areaList.isEmpty()) {
           break;
         }
         if (areaList.size() == 1) {
           Area area = areaList.get(0);
           fragment = FillResult.replaceFragment(fragment, str, area);
-          parseResult.setCityCode(area.getCode());
-          parseResult.setCityName(area.getName());
-          parseResult.setProvinceCode(area.getParentCode());
-          FillResult.setProvince(parseResult);
+          fill(repository, result, area);
         }
       }
     }
     return fragment;
   }
 
+  protected void fill(AreaRepository repository, AddressResult.Builder result, Area area) {
+    result.code(2, area.getCode());
+    result.name(2, area.getName());
+    result.code(1, area.getParentCode());
+    FillResult.setProvince(repository, result);
+  }
+
 }
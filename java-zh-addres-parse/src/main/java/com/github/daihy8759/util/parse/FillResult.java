@@ -1,9 +1,9 @@
 package com.github.daihy8759.util.parse;
 
-import com.github.daihy8759.util.common.StrUtil;
-import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.db.AreaAliases;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
 import com.github.daihy8759.util.model.Area;
-import com.github.daihy8759.util.model.ParseResult;
 
 public class FillResult {
 
@@ -14,40 +14,53 @@ public class FillResult {
     if (fragment.startsWith(area.getName())) {
       fragment = fragment.replaceFirst(area.getName(), "");
     } else {
-      fragment = fragment.replaceFirst(str, "");
+      String alias = matchAlias(fragment, area);
+      fragment = fragment.replaceFirst(alias != null ? alias : str, "");
     }
     return fragment;
   }
 
-  protected static void setArea(ParseResult parseResult) {
-    if (StrUtil.isEmpty(parseResult.getAreaCode())) {
+  /**
+   * 片段以区划别名开头时返回该别名，例如恩施州、广西省
+   */
+  private static String matchAlias(String fragment, Area area) {
+    for (String alias : AreaAliases.of(area.getName())) {
+      if (fragment.startsWith(alias)) {
+        return alias;
+      }
+    }
+    return null;
+  }
+
+  protected static void setArea(AreaRepository repository, AddressResult.Builder result) {
+    if (!result.hasCode(3)) {
       return;
     }
-    Area area = SqliteUtil.getAreaSingle(parseResult.getAreaCode(), 3);
+    Area area = repository.findByCode(result.getRegionCode(3), 3);
     if (area != null) {
-      parseResult.setAreaName(area.getName());
-      parseResult.setCityCode(area.getParentCode());
+      result.name(3, area.getName());
+      result.code(2, area.getParentCode());
     }
   }
 
-  protected static void setCity(ParseResult parseResult) {
-    if (StrUtil.isEmpty(parseResult.getCityCode())) {
+  protected static void setCity(AreaRepository repository, AddressResult.Builder result) {
+    if (!result.hasCode(2)) {
       return;
     }
-    Area city = SqliteUtil.getAreaSingle(parseResult.getCityCode(), 2);
+    Area city = repository.findByCode(result.getRegionCode(2), 2);
     if (city != null) {
-      parseResult.setCityName(city.getName());
-      parseResult.setProvinceCode(city.getParentCode());
+      result.name(2, city.getName());
+      result.code(1, city.getParentCode());
     }
   }
 
-  protected static void setProvince(ParseResult parseResult) {
-    if (StrUtil.isEmpty(parseResult.getProvinceCode())) {
+  protected static void setProvince(AreaRepository repository, AddressResult.Builder result) {
+    if (!result.hasCode(1)) {
       return;
     }
-    Area province = SqliteUtil.getAreaSingle(parseResult.getProvinceCode(), 1);
+    Area province = repository.findByCode(result.getRegionCode(1), 1);
     if (province != null) {
-      parseResult.setProvinceName(province.getName());
+      result.name(1, province.getName());
     }
   }
 }
@@ -0,0 +1,295 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.common.StrUtil;
+import com.github.daihy8759.util.db.AreaAliases;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.model.AddressHint;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.model.Area;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 校验调用方给出的区划提示并填入结果
+ * <p>
+ * 自上而下逐级校验：编码直接定位，名称在已确认的上级之下查找，上下级关系沿上级链判断。
+ * 校验通过的最深一级连同其全部上级一次填入，之后的区划匹配跳过这些级别，只在其下级中查找。
+ * 使用内存字典时只记录区划下标，不创建区划对象和字符串。
+ */
+final class HintResolver {
+
+  /**
+   * 区划名称的后缀，按长度从长到短排列
+   */
+  private static final String[] SUFFIXES = {"特别行政区", "自治区", "自治州", "自治县", "自治旗", "地区",
+      "省", "市", "区", "县", "州", "盟", "旗"};
+
+  private final AreaRepository repository;
+
+  private final AreaDictionary dictionary;
+
+  /**
+   * 使用字典时为已确定区划的下标，按级别排列
+   */
+  private final int[] indexes;
+
+  /**
+   * 已确定区划的编码，按级别排列
+   */
+  private final String[] codes;
+
+  /**
+   * 已确定区划的全称，按级别排列
+   */
+  private final String[] names;
+
+  /**
+   * 最后一个已确定区划的级别
+   */
+  private final int depth;
+
+  private HintResolver(AreaRepository repository, AreaDictionary dictionary, int[] indexes,
+      String[] codes, String[] names, int depth) {
+    this.repository = repository;
+    this.dictionary = dictionary;
+    this.indexes = indexes;
+    this.codes = codes;
+    this.names = names;
+    this.depth = depth;
+  }
+
+  /**
+   * 校验提示并填入 result
+   *
+   * @return 没有可用的提示时返回 null
+   */
+  static HintResolver apply(AreaRepository repository, AddressResult.Builder result,
+      AddressHint hint) {
+    AreaDictionary dictionary = repository.dictionary();
+    return dictionary != null ? apply(repository, dictionary, result, hint)
+        : applyRepository(repository, result, hint);
+  }
+
+  private static HintResolver apply(AreaRepository repository, AreaDictionary dictionary,
+      AddressResult.Builder result, AddressHint hint) {
+    int ancestor = AreaDictionary.NONE;
+    int depth = 0;
+    for (int level = 1; level <= AreaDictionary.MAX_LEVEL; level++) {
+      int index = AreaDictionary.NONE;
+      String code = hint.getCode(level);
+      if (StrUtil.isNotBlank(code)) {
+        index = dictionary.indexOf(code.trim(), level);
+        if (index >= 0 && ancestor >= 0 && !dictionary.isAncestor(ancestor, index)) {
+          index = AreaDictionary.NONE;
+        }
+      }
+      String name = hint.getName(level);
+      if (index < 0 && StrUtil.isNotBlank(name)) {
+        index = dictionary.findName(ancestor, level, name.trim());
+      }
+      if (index >= 0) {
+        ancestor = index;
+        depth = level;
+      }
+    }
+    if (depth == 0) {
+      return null;
+    }
+    RegionResolver.fill(dictionary, result, ancestor, depth);
+    int[] indexes = new int[depth];
+    String[] names = new String[depth];
+    int count = 0;
+    for (int index = ancestor; index >= 0; index = dictionary.parentOf(index)) {
+      count++;
+      indexes[depth - count] = index;
+      names[depth - count] = dictionary.nameOf(index);
+    }
+    if (count < depth) {
+      indexes = Arrays.copyOfRange(indexes, depth - count, depth);
+      names = Arrays.copyOfRange(names, depth - count, depth);
+    }
+    return new HintResolver(repository, dictionary, indexes, null, names, depth);
+  }
+
+  /**
+   * 没有内存字典时通过仓库查询，上级链最多查询三次
+   */
+  private static HintResolver applyRepository(AreaRepository repository,
+      AddressResult.Builder result, AddressHint hint) {
+    Area ancestor = null;
+    int ancestorLevel = 0;
+    for (int level = 1; level <= AreaDictionary.MAX_LEVEL; level++) {
+      Area area = null;
+      String code = hint.getCode(level);
+      if (StrUtil.isNotBlank(code)) {
+        area = repository.findByCode(code.trim(), level);
+        if (area != null && ancestor != null
+            && !isAncestor(repository, ancestor, ancestorLevel, area, level)) {
+          area = null;
+        }
+      }
+      String name = hint.getName(level);
+      if (area == null && StrUtil.isNotBlank(name)) {
+        area = findName(repository, ancestor, ancestorLevel, level, name.trim());
+      }
+      if (area != null) {
+        ancestor = area;
+        ancestorLevel = level;
+      }
+    }
+    if (ancestor == null) {
+      return null;
+    }
+    String[] codes = new String[ancestorLevel];
+    String[] names = new String[ancestorLevel];
+    int count = 0;
+    Area area = ancestor;
+    for (int level = ancestorLevel; level >= 1 && area != null; level--) {
+      result.code(level, area.getCode()).name(level, area.getName());
+      count++;
+      codes[ancestorLevel - count] = area.getCode();
+      names[ancestorLevel - count] = area.getName();
+      area = level > 1 && area.getParentCode() != null
+          ? repository.findByCode(area.getParentCode(), level - 1) : null;
+    }
+    if (count < ancestorLevel) {
+      codes = Arrays.copyOfRange(codes, ancestorLevel - count, ancestorLevel);
+      names = Arrays.copyOfRange(names, ancestorLevel - count, ancestorLevel);
+    }
+    return new HintResolver(repository, null, null, codes, names, ancestorLevel);
+  }
+
+  private static boolean isAncestor(AreaRepository repository, Area ancestor, int ancestorLevel,
+      Area area, int level) {
+    Area current = area;
+    for (int upper = level - 1; upper >= ancestorLevel; upper--) {
+      if (current.getParentCode() == null) {
+        return false;
+      }
+      current = repository.findByCode(current.getParentCode(), upper);
+      if (current == null) {
+        return false;
+      }
+    }
+    return ancestor.getCode().equals(current.getCode());
+  }
+
+  /**
+   * 全称相同的优先，否则按前缀唯一匹配
+   */
+  private static Area findName(AreaRepository repository, Area ancestor, int ancestorLevel,
+      int level, String name) {
+    boolean direct = ancestor != null && ancestorLevel == level - 1;
+    List<Area> areaList = repository.findByPrefix(direct ? ancestor.getCode() : null, name,
+        level);
+    Area exact = null;
+    Area prefix = null;
+    int exactCount = 0;
+    int prefixCount = 0;
+    for (Area area : areaList) {
+      if (ancestor != null && !direct
+          && !isAncestor(repository, ancestor, ancestorLevel, area, level)) {
+        continue;
+      }
+      if (name.equals(area.getName())) {
+        exact = area;
+        exactCount++;
+      } else {
+        prefix = area;
+        prefixCount++;
+      }
+    }
+    if (exactCount > 0) {
+      return exactCount == 1 ? exact : null;
+    }
+    return prefixCount == 1 ? prefix : null;
+  }
+
+  /**
+   * 去掉片段开头与已确定区划重复的部分，例如提示了浙江省、杭州市时，“浙江杭州西湖区”只留下“西湖区”
+   * <p>
+   * 逐级判断：片段以本级或更下级的全称、别名开头时去掉全称或别名，上级可以省略；
+   * 否则去掉与本级全称相同的前缀，前缀至少覆盖去掉省、市、自治州等后缀后的部分，避免吉林省吃掉吉林市的“吉林”；
+   * 下级名称以该前缀开头并继续匹配时不去掉，例如泰州市下的泰州医药高新技术产业开发区。
+   */
+  String strip(String fragment) {
+    int offset = 0;
+    for (int level = 0; level < names.length && offset < fragment.length(); level++) {
+      int matched = 0;
+      for (int lower = level; lower < names.length && matched == 0; lower++) {
+        matched = exactLength(lower, fragment, offset);
+        if (matched > 0) {
+          level = lower;
+        }
+      }
+      if (matched == 0) {
+        matched = prefixLength(names[level], fragment, offset);
+        if (matched > 0 && offset + matched < fragment.length()
+            && childStartsWith(level, fragment, offset, matched + 1)) {
+          matched = 0;
+        }
+      }
+      offset += matched;
+    }
+    return offset == 0 ? fragment : fragment.substring(offset);
+  }
+
+  /**
+   * 片段从 offset 开始为全称或别名时返回其长度，否则返回 0
+   */
+  private int exactLength(int level, String fragment, int offset) {
+    if (dictionary != null) {
+      return dictionary.matchLength(indexes[level], fragment, offset);
+    }
+    String name = names[level];
+    if (fragment.startsWith(name, offset)) {
+      return name.length();
+    }
+    int matched = 0;
+    for (String alias : AreaAliases.of(name)) {
+      if (alias.length() > matched && fragment.startsWith(alias, offset)) {
+        matched = alias.length();
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * 是否有下级区划的全称或别名以 fragment[offset, offset + length) 开头
+   */
+  private boolean childStartsWith(int level, String fragment, int offset, int length) {
+    int childLevel = depth - names.length + level + 2;
+    if (childLevel > AreaDictionary.MAX_LEVEL) {
+      return false;
+    }
+    if (dictionary != null) {
+      return dictionary.findPrefix(indexes[level], childLevel, fragment, offset, length)
+          != AreaDictionary.NONE;
+    }
+    return !repository.findByPrefix(codes[level], fragment.substring(offset, offset + length),
+        childLevel).isEmpty();
+  }
+
+  private static int prefixLength(String name, String fragment, int offset) {
+    int n = Math.min(name.length(), fragment.length() - offset);
+    int matched = 0;
+    while (matched < n && name.charAt(matched) == fragment.charAt(offset + matched)) {
+      matched++;
+    }
+    return matched >= 2 && matched >= shortLength(name) ? matched : 0;
+  }
+
+  /**
+   * 去掉后缀后的长度，例如浙江省为 2、甘孜藏族自治州为 4
+   */
+  private static int shortLength(String name) {
+    for (String suffix : SUFFIXES) {
+      if (name.length() > suffix.length() && name.endsWith(suffix)) {
+        return name.length() - suffix.length();
+      }
+    }
+    return name.length();
+  }
+
+}
@@ -0,0 +1,252 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.constant.AddressConstant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 从详细地址的片段中找出姓名
+ * <p>
+ * 单字姓放在按字符编号的位图中，复姓按两个字符拼成的 int 排序后二分查找，称呼（先生、小姐等）构建为
+ * Aho-Corasick 自动机，判断一个片段只需顺序扫描一遍，不创建子串、正则匹配器等对象。
+ * 片段依次判断一遍即可选出结果，不需要按长度排序。
+ */
+final class NameDetector {
+
+  /**
+   * 称呼，片段中包含任一称呼即视为姓名
+   */
+  static final List<String> NAME_CALL = Arrays
+      .asList("先生", "小姐", "同志", "哥哥", "姐姐", "妹妹", "弟弟", "妈妈", "爸爸",
+          "爷爷", "奶奶", "姑姑", "舅舅");
+
+  /**
+   * 单字姓，下标为字符编号
+   */
+  private static final long[] SURNAMES = new long[(Character.MAX_VALUE + 1) >>> 6];
+
+  /**
+   * 复姓，两个字符拼成的 int，已排序
+   */
+  private static final int[] COMPOUND_SURNAMES;
+
+  private static final Automaton NAME_CALLS = new Automaton(NAME_CALL);
+
+  static {
+    int[] compound = new int[AddressConstant.ZH_NAME.size()];
+    int count = 0;
+    for (String surname : AddressConstant.ZH_NAME) {
+      if (surname.length() == 1) {
+        char c = surname.charAt(0);
+        SURNAMES[c >>> 6] |= 1L << c;
+      } else if (surname.length() == 2) {
+        compound[count++] = pair(surname.charAt(0), surname.charAt(1));
+      }
+    }
+    COMPOUND_SURNAMES = Arrays.copyOf(compound, count);
+    Arrays.sort(COMPOUND_SURNAMES);
+  }
+
+  private NameDetector() {
+  }
+
+  /**
+   * 选出姓名所在的片段：按长度从短到长、长度相同时按原顺序，第一个包含称呼或以姓开头的片段；
+   * 都不是时，最短的片段不超过 maxLength 且含有汉字也作为姓名
+   *
+   * @return 姓名在 fragments 中的下标，没有时返回 -1
+   */
+  static int find(List<String> fragments, int maxLength) {
+    int name = -1;
+    int shortest = -1;
+    for (int i = 0; i < fragments.size(); i++) {
+      int length = fragments.get(i).length();
+      if (shortest < 0 || length < fragments.get(shortest).length()) {
+        shortest = i;
+      }
+      if ((name < 0 || length < fragments.get(name).length())
+          && isName(fragments.get(i), maxLength)) {
+        name = i;
+      }
+    }
+    if (name >= 0) {
+      return name;
+    }
+    if (shortest >= 0 && fragments.get(shortest).length() <= maxLength
+        && hasChinese(fragments.get(shortest))) {
+      return shortest;
+    }
+    return -1;
+  }
+
+  /**
+   * 片段含有汉字，并且包含称呼或在 (1, maxLength] 个字以内以姓开头
+   */
+  static boolean isName(String fragment, int maxLength) {
+    if (fragment == null || !hasChinese(fragment)) {
+      return false;
+    }
+    if (NAME_CALLS.matches(fragment)) {
+      return true;
+    }
+    int length = fragment.length();
+    if (length <= 1 || length > maxLength) {
+      return false;
+    }
+    char first = fragment.charAt(0);
+    return isSurname(first)
+        || Arrays.binarySearch(COMPOUND_SURNAMES, pair(first, fragment.charAt(1))) >= 0;
+  }
+
+  static boolean isSurname(char c) {
+    return (SURNAMES[c >>> 6] & 1L << c) != 0;
+  }
+
+  /**
+   * 与正则 [\u4E00-\u9FA5] 一致
+   */
+  private static boolean hasChinese(String fragment) {
+    for (int i = 0; i < fragment.length(); i++) {
+      char c = fragment.charAt(i);
+      if (c >= '\u4E00' && c <= '\u9FA5') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int pair(char first, char second) {
+    return first << 16 | second;
+  }
+
+  /**
+   * 多模式匹配自动机，转移表为以 (状态, 字符) 为键的开放寻址哈希表
+   */
+  static final class Automaton {
+
+    private final long[] keys;
+
+    private final int[] targets;
+
+    private final int[] fail;
+
+    private final boolean[] output;
+
+    private int states = 1;
+
+    Automaton(List<String> patterns) {
+      int capacity = 1;
+      for (String pattern : patterns) {
+        capacity += pattern.length();
+      }
+      this.fail = new int[capacity];
+      this.output = new boolean[capacity];
+      int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+      this.keys = new long[tableSize];
+      this.targets = new int[tableSize];
+      Arrays.fill(keys, -1L);
+      for (String pattern : patterns) {
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+          int next = next(state, pattern.charAt(i));
+          if (next < 0) {
+            next = states++;
+            put(state, pattern.charAt(i), next);
+          }
+          state = next;
+        }
+        output[state] = true;
+      }
+      buildFailure();
+    }
+
+    /**
+     * 按广度优先顺序计算失败转移，并把失败状态的输出并入当前状态
+     */
+    private void buildFailure() {
+      int[] queue = new int[states];
+      char[] labels = new char[states];
+      int[] parents = new int[states];
+      for (int slot = 0; slot < keys.length; slot++) {
+        if (keys[slot] >= 0) {
+          int target = targets[slot];
+          parents[target] = (int) (keys[slot] >>> 16);
+          labels[target] = (char) keys[slot];
+        }
+      }
+      int head = 0;
+      int tail = 0;
+      for (int state = 1; state < states; state++) {
+        if (parents[state] == 0) {
+          queue[tail++] = state;
+        }
+      }
+      while (head < tail) {
+        int state = queue[head++];
+        if (parents[state] != 0) {
+          int f = fail[parents[state]];
+          int target = next(f, labels[state]);
+          while (target < 0 && f != 0) {
+            f = fail[f];
+            target = next(f, labels[state]);
+          }
+          fail[state] = target < 0 || target == state ? 0 : target;
+          output[state] |= output[fail[state]];
+        }
+        for (int child = 1; child < states; child++) {
+          if (parents[child] == state && child != state) {
+            queue[tail++] = child;
+          }
+        }
+      }
+    }
+
+    /**
+     * text 中是否出现任一模式
+     */
+    boolean matches(String text) {
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        int target = next(state, c);
+        while (target < 0 && state != 0) {
+          state = fail[state];
+          target = next(state, c);
+        }
+        state = target < 0 ? 0 : target;
+        if (output[state]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int next(int state, char c) {
+      long key = (long) state << 16 | c;
+      int mask = keys.length - 1;
+      for (int slot = hash(key) & mask; keys[slot] >= 0; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return targets[slot];
+        }
+      }
+      return -1;
+    }
+
+    private void put(int state, char c, int target) {
+      long key = (long) state << 16 | c;
+      int mask = keys.length - 1;
+      int slot = hash(key) & mask;
+      while (keys[slot] >= 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      targets[slot] = target;
+    }
+
+    private static int hash(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ h >>> 32);
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.model.AddressResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 单次解析的中间过程，用于排查解析结果不符合预期的地址
+ * <p>
+ * 只在 {@link AddressParser#trace}、开启采样或 DEBUG 日志时创建，正常解析不会产生。
+ */
+public final class ParseTrace {
+
+  private final String address;
+
+  private final long start = System.nanoTime();
+
+  private String cleaned = "";
+
+  private List<String> fragments = Collections.emptyList();
+
+  private final List<RegionStep> regions = new ArrayList<>();
+
+  private List<String> nameCandidates = Collections.emptyList();
+
+  private boolean cacheHit;
+
+  private AddressResult result;
+
+  private long elapsedNanos;
+
+  ParseTrace(String address) {
+    this.address = address;
+  }
+
+  void cleaned(String cleaned, List<String> fragments) {
+    this.cleaned = cleaned;
+    this.fragments = Collections.unmodifiableList(new ArrayList<>(fragments));
+  }
+
+  void region(String fragment, String remaining, AddressResult.Builder result) {
+    int depth = result.getDepth();
+    regions.add(new RegionStep(fragment, remaining, depth == 0 ? "" : result.getRegionCode(depth)));
+  }
+
+  void nameCandidates(List<String> candidates) {
+    this.nameCandidates = Collections.unmodifiableList(new ArrayList<>(candidates));
+  }
+
+  void cacheHit() {
+    this.cacheHit = true;
+  }
+
+  void finish(AddressResult result) {
+    this.result = result;
+    this.elapsedNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * 原始地址
+   */
+  public String getAddress() {
+    return address;
+  }
+
+  /**
+   * 清洗后的地址，片段之间以空格分隔
+   */
+  public String getCleaned() {
+    return cleaned;
+  }
+
+  /**
+   * 按空格分割后的片段
+   */
+  public List<String> getFragments() {
+    return fragments;
+  }
+
+  /**
+   * 依次参与区划匹配的片段；省市区街道都已解析出后剩余的片段不再匹配
+   */
+  public List<RegionStep> getRegions() {
+    return Collections.unmodifiableList(regions);
+  }
+
+  /**
+   * 按长度排序后参与姓名判断的片段，未解析姓名时为空
+   */
+  public List<String> getNameCandidates() {
+    return nameCandidates;
+  }
+
+  /**
+   * 是否命中结果缓存，命中时没有中间过程
+   */
+  public boolean isCacheHit() {
+    return cacheHit;
+  }
+
+  /**
+   * 解析结果
+   */
+  public AddressResult getResult() {
+    return result;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(256);
+    sb.append("地址:").append(address)
+        .append("\n清洗:").append(cleaned)
+        .append("\n分割:").append(fragments);
+    if (cacheHit) {
+      sb.append("\n命中缓存");
+    }
+    for (RegionStep region : regions) {
+      sb.append("\n区划:").append(region);
+    }
+    if (!nameCandidates.isEmpty()) {
+      sb.append("\n姓名候选:").append(nameCandidates);
+    }
+    if (result != null) {
+      sb.append("\n结果:").append(result.getProvinceName()).append(result.getCityName())
+          .append(result.getAreaName()).append(result.getStreetName())
+          .append(" 详细地址:").append(result.getDetail())
+          .append(" 姓名:").append(result.getName())
+          .append(" 电话:").append(result.getPhone())
+          .append(" 邮编:").append(result.getPostalCode());
+    }
+    return sb.append("\n耗时:").append(elapsedNanos / 1000).append("µs").toString();
+  }
+
+  /**
+   * 一个片段的区划匹配
+   */
+  public static final class RegionStep {
+
+    private final String fragment;
+
+    private final String remaining;
+
+    private final String code;
+
+    RegionStep(String fragment, String remaining, String code) {
+      this.fragment = fragment;
+      this.remaining = remaining;
+      this.code = code;
+    }
+
+    public String getFragment() {
+      return fragment;
+    }
+
+    /**
+     * 去掉已匹配区划后剩余的部分
+     */
+    public String getRemaining() {
+      return remaining;
+    }
+
+    /**
+     * 匹配完这个片段后解析到的最细一级区划代码，没有时为空字符串
+     */
+    public String getCode() {
+      return code;
+    }
+
+    @Override
+    public String toString() {
+      return fragment + " -> " + remaining + " [" + code + "]";
+    }
+  }
+
+}
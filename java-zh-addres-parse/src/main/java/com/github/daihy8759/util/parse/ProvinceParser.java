@@ -1,7 +1,8 @@
 package com.github.daihy8759.util.parse;
 
-import com.github.daihy8759.util.common.StrUtil;
-import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaStore;
+import com.github.daihy8759.util.model.AddressResult;
 import com.github.daihy8759.util.model.Area;
 import com.github.daihy8759.util.model.ParseResult;
 import java.util.List;
@@ -12,23 +13,46 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ProvinceParser {
 
+  public String parseProvince(AddressResult.Builder result, String fragment) {
+    return parseProvince(AreaStore.defaultRepository(), result, fragment);
+  }
+
+  /**
+   * @deprecated 使用 {@link #parseProvince(AddressResult.Builder, String)}
+   */
+  @Deprecated
   public String parseProvince(ParseResult parseResult, String fragment) {
-    if (StrUtil.isEmpty(parseResult.getProvinceCode())) {
+    AddressResult.Builder result = AddressResult.builder(null)
+        .code(1, parseResult.getProvinceCode())
+        .name(1, parseResult.getProvinceName());
+    fragment = parseProvince(result, fragment);
+    parseResult.setProvinceCode(result.getRegionCode(1));
+    parseResult.setProvinceName(result.getRegionName(1));
+    return fragment;
+  }
+
+  public String parseProvince(AreaRepository repository, AddressResult.Builder result,
+      String fragment) {
+    if (!result.hasCode(1)) {
       for (int i = 1; i < fragment.length(); i++) {
         String str = fragment.substring(0, i + 1);
-        List<Area> areaList = SqliteUtil.getArea(null, str, 1);
+        List<Area> areaList = repository.findByPrefix(null, str, 1);
         if (areaList.isEmpty()) {
           break;
         }
         if (areaList.size() == 1) {
           Area area = areaList.get(0);
           fragment = FillResult.replaceFragment(fragment, str, area);
-          parseResult.setProvinceCode(area.getCode());
-          parseResult.setProvinceName(area.getName());
+          fill(result, area);
         }
       }
     }
     return fragment;
   }
 
+  protected void fill(AddressResult.Builder result, Area area) {
+    result.code(1, area.getCode());
+    result.name(1, area.getName());
+  }
+
 }
@@ -0,0 +1,17 @@
+package com.github.daihy8759.util.parse;
+
+/**
+ * 区划匹配规则
+ */
+public enum RegionMatching {
+
+  /**
+   * 逐级按前缀匹配，前缀唯一命中时采纳，与查询 data.db 的结果一致
+   */
+  PREFIX,
+
+  /**
+   * 把各级候选串成上下级一致的链并打分，采纳得分最高的链，可以区分重名区划；只对内存字典生效
+   */
+  SCORED
+}
@@ -0,0 +1,166 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaTrie;
+import com.github.daihy8759.util.model.AddressResult;
+import lombok.experimental.UtilityClass;
+
+/**
+ * 基于内存字典的区划解析
+ * <p>
+ * 片段在字典树上只从头转移一次，缓存下来的节点路径同时给出省、市、区、街道四级候选；
+ * 上级编码已知时改为在其子区划中二分查找。采纳规则与逐级前缀查询一致：前缀唯一命中时采纳，没有命中时停止。
+ * 字典树和子区划中同时收录了别名，恩施州、长阳县这类简称与全称一样一次转移即可命中并整体去掉。
+ */
+@UtilityClass
+class RegionResolver {
+
+  String resolve(AreaDictionary dictionary, AddressResult.Builder result, String fragment) {
+    return resolve(dictionary, result, fragment, null);
+  }
+
+  /**
+   * @param clock 埋点启用时记录查询次数，可以为 null
+   */
+  String resolve(AreaDictionary dictionary, AddressResult.Builder result, String fragment,
+      StageClock clock) {
+    Cursor cursor = new Cursor(dictionary.trie(), fragment, clock);
+    for (int level = 1; level <= AreaDictionary.MAX_LEVEL; level++) {
+      if (!result.hasCode(level)) {
+        resolveLevel(dictionary, result, cursor, level);
+      }
+    }
+    return cursor.remaining();
+  }
+
+  private void resolveLevel(AreaDictionary dictionary, AddressResult.Builder result,
+      Cursor cursor, int level) {
+    for (int i = 1; i < cursor.length(); i++) {
+      int hit = find(dictionary, result, cursor, level, i + 1);
+      if (hit == AreaDictionary.NONE) {
+        break;
+      }
+      if (hit >= 0) {
+        cursor.consume(dictionary, hit, i + 1);
+        fill(dictionary, result, hit, level);
+      }
+    }
+  }
+
+  private int find(AreaDictionary dictionary, AddressResult.Builder result, Cursor cursor,
+      int level, int length) {
+    if (cursor.clock != null) {
+      cursor.clock.lookup();
+    }
+    if (level == 1 || !result.hasCode(level - 1)) {
+      int state = cursor.state(length);
+      return state < 0 ? AreaDictionary.NONE : cursor.trie.hit(state, level);
+    }
+    int parent = result.getCodeIndex(level - 1);
+    if (parent >= 0) {
+      return dictionary.findPrefix(parent, level, cursor.text, cursor.offset, length);
+    }
+    return dictionary.findPrefix(result.getRegionCode(level - 1), level, cursor.text, cursor.offset,
+        length);
+  }
+
+  /**
+   * 与 ProvinceParser、CityParser、AreaParser、StreetParser 的 fill 一致：填入命中的区划及其上级编码，
+   * 再自下而上按编码补全各级名称。结果中只记录字典下标，不创建区划对象和字符串
+   */
+  void fill(AreaDictionary dictionary, AddressResult.Builder result, int index,
+      int level) {
+    result.codeOf(level, index).nameOf(level, index);
+    int parent = dictionary.parentOf(index);
+    if (level == 1) {
+      return;
+    }
+    setCode(result, level - 1, parent);
+    for (int upper = level - 1; upper >= 1; upper--) {
+      if (!result.hasCode(upper)) {
+        parent = AreaDictionary.NONE;
+        continue;
+      }
+      int current = indexOf(dictionary, result, upper);
+      if (current < 0) {
+        parent = AreaDictionary.NONE;
+        continue;
+      }
+      result.nameOf(upper, current);
+      parent = dictionary.parentOf(current);
+      if (upper > 1) {
+        setCode(result, upper - 1, parent);
+      }
+    }
+  }
+
+  /**
+   * 上级不存在时与逐级解析一样把编码置为 null
+   */
+  private void setCode(AddressResult.Builder result, int level, int index) {
+    if (index < 0) {
+      result.code(level, null);
+    } else {
+      result.codeOf(level, index);
+    }
+  }
+
+  private int indexOf(AreaDictionary dictionary, AddressResult.Builder result, int level) {
+    int index = result.getCodeIndex(level);
+    if (index < 0) {
+      return dictionary.indexOf(result.getRegionCode(level), level);
+    }
+    return dictionary.levelOf(index) == level ? index : AreaDictionary.NONE;
+  }
+
+  /**
+   * 片段当前位置及已转移的字典树路径
+   */
+  private static final class Cursor {
+
+    private final AreaTrie trie;
+    private final String text;
+    private final int[] states;
+    private final StageClock clock;
+    private int offset;
+    private int walked;
+
+    private Cursor(AreaTrie trie, String text, StageClock clock) {
+      this.trie = trie;
+      this.text = text;
+      this.clock = clock;
+      this.states = new int[text.length() + 1];
+      this.states[0] = AreaTrie.ROOT;
+    }
+
+    private int length() {
+      return text.length() - offset;
+    }
+
+    /**
+     * 从当前位置转移 length 个字符后的节点，沿用已转移的部分
+     */
+    private int state(int length) {
+      while (walked < length) {
+        int state = states[walked];
+        states[walked + 1] = state < 0 ? -1 : trie.next(state, text.charAt(offset + walked));
+        walked++;
+      }
+      return states[length];
+    }
+
+    /**
+     * 去掉已匹配的部分：片段以区划全称或别名开头时去掉全称或别名，否则去掉输入的前缀
+     */
+    private void consume(AreaDictionary dictionary, int index, int length) {
+      int matched = dictionary.matchLength(index, text, offset);
+      offset += matched > 0 ? matched : length;
+      walked = 0;
+    }
+
+    private String remaining() {
+      return text.substring(offset);
+    }
+  }
+
+}
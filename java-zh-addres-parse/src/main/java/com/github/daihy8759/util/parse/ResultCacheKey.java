@@ -0,0 +1,45 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.model.AddressHint;
+import java.util.Objects;
+
+/**
+ * 结果缓存的键：清洗后的地址 + 区划提示 + 解析选项 + 区划数据版本，数据热更新后旧结果不再命中
+ */
+final class ResultCacheKey {
+
+  private final String address;
+
+  private final AddressHint hint;
+
+  private final int flags;
+
+  private final String version;
+
+  ResultCacheKey(String address, AddressHint hint, boolean parseName, boolean parsePhone,
+      boolean postalCode, String version) {
+    this.address = address;
+    this.hint = hint;
+    this.flags = (parseName ? 1 : 0) | (parsePhone ? 2 : 0) | (postalCode ? 4 : 0);
+    this.version = version;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ResultCacheKey)) {
+      return false;
+    }
+    ResultCacheKey that = (ResultCacheKey) o;
+    return flags == that.flags && address.equals(that.address) && version.equals(that.version)
+        && Objects.equals(hint, that.hint);
+  }
+
+  @Override
+  public int hashCode() {
+    return ((address.hashCode() * 31 + flags) * 31 + version.hashCode()) * 31
+        + Objects.hashCode(hint);
+  }
+}
@@ -0,0 +1,248 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaTrie;
+import com.github.daihy8759.util.model.AddressResult;
+import java.util.Arrays;
+
+/**
+ * 按层级一致性为候选打分的区划解析
+ * <p>
+ * 片段当前位置在字典树上只转移一次，得到各级能匹配到的最长前缀；前缀有多个区划时全部列为候选，
+ * 已知上级时只保留其下级。从片段开头起把候选按省、市、区、街道的顺序串成链，后一个候选必须是前一个的下级，
+ * 链的得分为各候选去掉的字数之和，全称或别名完整匹配时加分，跳过中间级别时减分。
+ * 得分最高的链唯一时采纳，并列时与前缀规则一样不采纳。例如“鼓楼区”单独出现有多个候选，
+ * 后面紧跟“华大街道”时只有福州市鼓楼区的链能继续延伸；“吉林市”按市完整匹配，得分高于按省匹配“吉林”。
+ * <p>
+ * 链最多四级，每级候选数有上限，单个片段的计算量与字典大小无关。递归时每一级只有一层 search 在执行，
+ * 各级的候选和前缀长度按 anchor 的级别使用同一个数组中的一段，一次解析只分配一次。
+ */
+final class ScoredRegionResolver {
+
+  /**
+   * 每去掉一个字的得分
+   */
+  private static final int CHAR_SCORE = 4;
+
+  /**
+   * 全称或别名完整匹配的加分
+   */
+  private static final int EXACT_BONUS = 2;
+
+  /**
+   * 每跳过一个中间级别的扣分
+   */
+  private static final int SKIP_PENALTY = 1;
+
+  /**
+   * 同一位置、同一级别最多的候选数，超过时该级别视为无法判断
+   */
+  private static final int MAX_CANDIDATES = 32;
+
+  /**
+   * 单个片段最多展开的候选数
+   */
+  private static final int MAX_EXPANSIONS = 256;
+
+  /**
+   * prefixDepths 中每一层占用的长度，按级别下标
+   */
+  private static final int DEPTH_STRIDE = AreaDictionary.MAX_LEVEL + 1;
+
+  private final AreaDictionary dictionary;
+
+  private final AreaTrie trie;
+
+  private final String text;
+
+  private final StageClock clock;
+
+  /**
+   * anchor 级别为 n 的 search 使用 [n * MAX_CANDIDATES, (n + 1) * MAX_CANDIDATES)
+   */
+  private final int[] candidates = new int[AreaDictionary.MAX_LEVEL * MAX_CANDIDATES];
+
+  /**
+   * anchor 级别为 n 的 search 使用 [n * DEPTH_STRIDE, (n + 1) * DEPTH_STRIDE)
+   */
+  private final int[] depths = new int[AreaDictionary.MAX_LEVEL * DEPTH_STRIDE];
+
+  private int expansions;
+
+  private ScoredRegionResolver(AreaDictionary dictionary, String text, StageClock clock) {
+    this.dictionary = dictionary;
+    this.trie = dictionary.trie();
+    this.text = text;
+    this.clock = clock;
+  }
+
+  /**
+   * @param clock 埋点启用时记录查询次数，可以为 null
+   * @return 去掉已匹配区划后剩余的部分
+   * @see RegionResolver#resolve(AreaDictionary, AddressResult.Builder, String, StageClock)
+   */
+  static String resolve(AreaDictionary dictionary, AddressResult.Builder result, String fragment,
+      StageClock clock) {
+    int anchorLevel = result.getDepth();
+    if (anchorLevel == AreaDictionary.MAX_LEVEL) {
+      return fragment;
+    }
+    int anchor = AreaDictionary.NONE;
+    if (anchorLevel > 0) {
+      anchor = result.getCodeIndex(anchorLevel);
+      if (anchor < 0) {
+        anchor = dictionary.indexOf(result.getRegionCode(anchorLevel), anchorLevel);
+      }
+    }
+    ScoredRegionResolver resolver = new ScoredRegionResolver(dictionary, fragment, clock);
+    Chain chain = resolver.search(0, anchor, anchorLevel);
+    if (chain == null) {
+      return fragment;
+    }
+    int end = 0;
+    for (Chain node = chain; node != null; node = node.next) {
+      RegionResolver.fill(dictionary, result, node.index, node.level);
+      end = node.end;
+    }
+    return fragment.substring(end);
+  }
+
+  /**
+   * 从 offset 开始得分最高的链
+   *
+   * @param anchor      上一个候选或已解析的最细一级区划，不在字典中时为 {@link AreaDictionary#NONE}
+   * @param anchorLevel anchor 的级别，0 表示没有上级
+   * @return 没有候选或最高分并列时返回 null
+   */
+  private Chain search(int offset, int anchor, int anchorLevel) {
+    if (offset >= text.length() - 1 || anchorLevel >= AreaDictionary.MAX_LEVEL) {
+      return null;
+    }
+    int depthFrom = anchorLevel * DEPTH_STRIDE;
+    prefixDepths(offset, anchorLevel, depthFrom);
+    int candidateFrom = anchorLevel * MAX_CANDIDATES;
+    Chain best = null;
+    boolean tied = false;
+    for (int level = anchorLevel + 1; level <= AreaDictionary.MAX_LEVEL; level++) {
+      if (depths[depthFrom + level] == 0) {
+        continue;
+      }
+      for (int depth = depths[depthFrom + level]; depth >= 2; depth--) {
+        int count = collect(offset, depth, anchor, anchorLevel, level, candidateFrom);
+        if (count == 0) {
+          continue;
+        }
+        for (int i = 0; i < count && expansions < MAX_EXPANSIONS; i++) {
+          expansions++;
+          Chain chain = expand(offset, depth, candidates[candidateFrom + i], level, anchorLevel);
+          if (chain == null) {
+            continue;
+          }
+          if (best == null || chain.score > best.score) {
+            best = chain;
+            tied = false;
+          } else if (chain.score == best.score && chain.index != best.index) {
+            tied = true;
+          }
+        }
+        break;
+      }
+    }
+    return tied ? null : best;
+  }
+
+  private Chain expand(int offset, int depth, int index, int level, int anchorLevel) {
+    int matched = dictionary.matchLength(index, text, offset);
+    if (matched == 0 && level == AreaDictionary.MAX_LEVEL && anchorLevel < level - 1) {
+      // 街道名称常与路名相同，例如人民路街道，跳过区县时只接受完整的街道名称
+      return null;
+    }
+    int end = offset + (matched > 0 ? matched : depth);
+    int score = (end - offset) * CHAR_SCORE + (matched > 0 ? EXACT_BONUS : 0)
+        - (level - anchorLevel - 1) * SKIP_PENALTY;
+    Chain next = search(end, index, level);
+    return new Chain(index, level, end, next == null ? score : score + next.score, next);
+  }
+
+  /**
+   * 从 offset 开始，各级别在字典树上能匹配到的最长前缀长度，至少两个字，没有时为 0，
+   * 写入 depths[from + 级别]
+   */
+  private void prefixDepths(int offset, int anchorLevel, int from) {
+    Arrays.fill(depths, from, from + DEPTH_STRIDE, 0);
+    int state = AreaTrie.ROOT;
+    for (int depth = 1; offset + depth <= text.length(); depth++) {
+      state = trie.next(state, text.charAt(offset + depth - 1));
+      if (state < 0) {
+        break;
+      }
+      if (depth < 2) {
+        continue;
+      }
+      for (int level = anchorLevel + 1; level <= AreaDictionary.MAX_LEVEL; level++) {
+        if (trie.hit(state, level) != AreaDictionary.NONE) {
+          depths[from + level] = depth;
+        }
+      }
+    }
+  }
+
+  /**
+   * 收集名称以 text[offset, offset + depth) 开头、且属于 anchor 的区划，写入 candidates[from] 起的一段
+   *
+   * @return 候选数，超过上限时返回 0
+   */
+  private int collect(int offset, int depth, int anchor, int anchorLevel, int level, int from) {
+    if (clock != null) {
+      clock.lookup();
+    }
+    if (anchor >= 0 && anchorLevel == level - 1) {
+      return Math.max(dictionary.collectPrefix(anchor, level, text, offset, depth, candidates,
+          from, MAX_CANDIDATES), 0);
+    }
+    int count = dictionary.collectPrefix(AreaDictionary.NONE, level, text, offset, depth,
+        candidates, from, MAX_CANDIDATES);
+    if (count <= 0 || anchor < 0) {
+      return Math.max(count, 0);
+    }
+    int kept = 0;
+    for (int i = 0; i < count; i++) {
+      if (ancestorOf(candidates[from + i], anchorLevel) == anchor) {
+        candidates[from + kept++] = candidates[from + i];
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * 区划在指定级别的上级，没有时返回 {@link AreaDictionary#NONE}
+   */
+  private int ancestorOf(int index, int level) {
+    int current = index;
+    while (current >= 0 && dictionary.levelOf(current) > level) {
+      current = dictionary.parentOf(current);
+    }
+    return current >= 0 && dictionary.levelOf(current) == level ? current : AreaDictionary.NONE;
+  }
+
+  /**
+   * 候选链，从片段开头起依次为省、市、区、街道中的若干级
+   */
+  private static final class Chain {
+
+    private final int index;
+    private final int level;
+    private final int end;
+    private final int score;
+    private final Chain next;
+
+    private Chain(int index, int level, int end, int score, Chain next) {
+      this.index = index;
+      this.level = level;
+      this.end = end;
+      this.score = score;
+      this.next = next;
+    }
+  }
+
+}
@@ -0,0 +1,97 @@
+package com.github.daihy8759.util.parse;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.metrics.ParseInstrumentation;
+import com.github.daihy8759.util.metrics.ParseStage;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+
+/**
+ * 单次解析的计时和区划查询计数，只在埋点启用时创建
+ */
+final class StageClock {
+
+  private static final ParseStage[] STAGES = ParseStage.values();
+
+  private final ParseInstrumentation instrumentation;
+
+  private final long start;
+
+  private final long[] stageNanos = new long[STAGES.length];
+
+  /**
+   * 执行过的阶段，按 ordinal 置位
+   */
+  private int ran;
+
+  private long last;
+
+  private int lookups;
+
+  StageClock(ParseInstrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+    this.start = System.nanoTime();
+    this.last = start;
+  }
+
+  /**
+   * 把上次计时以来的耗时记到 stage 上
+   */
+  void lap(ParseStage stage) {
+    long now = System.nanoTime();
+    stageNanos[stage.ordinal()] += now - last;
+    ran |= 1 << stage.ordinal();
+    last = now;
+  }
+
+  void lookup() {
+    lookups++;
+  }
+
+  /**
+   * 包装仓库，每次查询计数一次
+   */
+  AreaRepository count(AreaRepository repository) {
+    return new AreaRepository() {
+      @Override
+      public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+        lookups++;
+        return repository.findByPrefix(parentCode, namePrefix, level);
+      }
+
+      @Override
+      public List<Area> findChildren(String parentCode, int level) {
+        lookups++;
+        return repository.findChildren(parentCode, level);
+      }
+
+      @Override
+      public Area findByCode(String code, int level) {
+        lookups++;
+        return repository.findByCode(code, level);
+      }
+
+      @Override
+      public AreaDictionary dictionary() {
+        return repository.dictionary();
+      }
+    };
+  }
+
+  void cache(boolean hit) {
+    instrumentation.recordCache(hit);
+  }
+
+  void finish(AddressResult result) {
+    long nanos = System.nanoTime() - start;
+    for (ParseStage stage : STAGES) {
+      if ((ran & 1 << stage.ordinal()) != 0) {
+        instrumentation.recordStage(stage, stageNanos[stage.ordinal()]);
+      }
+    }
+    instrumentation.recordParse(nanos, lookups, result.getDepth());
+  }
+
+}
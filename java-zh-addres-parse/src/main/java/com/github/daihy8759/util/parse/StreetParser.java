@@ -1,9 +1,8 @@
 package com.github.daihy8759.util.parse;
 
-import com.github.daihy8759.util.common.StrUtil;
-import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
 import com.github.daihy8759.util.model.Area;
-import com.github.daihy8759.util.model.ParseResult;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -12,27 +11,32 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class StreetParser {
 
-  protected String parseStreet(ParseResult parseResult, String fragment) {
-    if (StrUtil.isEmpty(parseResult.getStreetCode())) {
+  protected String parseStreet(AreaRepository repository, AddressResult.Builder result,
+      String fragment) {
+    if (!result.hasCode(4)) {
       for (int i = 1; i < fragment.length(); i++) {
         String str = fragment.substring(0, i + 1);
-        String areaCode = parseResult.getAreaCode();
-        List<Area> areaList = SqliteUtil.getArea(areaCode, str, 4);
+        String areaCode = result.getRegionCode(3);
+        List<Area> areaList = repository.findByPrefix(areaCode, str, 4);
         if (areaList.isEmpty()) {
           break;
         }
         if (areaList.size() == 1) {
           Area area = areaList.get(0);
           fragment = FillResult.replaceFragment(fragment, str, area);
-          parseResult.setStreetCode(area.getCode());
-          parseResult.setStreetName(area.getName());
-          parseResult.setAreaCode(area.getParentCode());
-          FillResult.setArea(parseResult);
-          FillResult.setCity(parseResult);
-          FillResult.setProvince(parseResult);
+          fill(repository, result, area);
         }
       }
     }
     return fragment;
   }
+
+  protected void fill(AreaRepository repository, AddressResult.Builder result, Area area) {
+    result.code(4, area.getCode());
+    result.name(4, area.getName());
+    result.code(3, area.getParentCode());
+    FillResult.setArea(repository, result);
+    FillResult.setCity(repository, result);
+    FillResult.setProvince(repository, result);
+  }
 }
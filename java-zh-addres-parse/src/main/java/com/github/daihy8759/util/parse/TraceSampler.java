@@ -0,0 +1,33 @@
+package com.github.daihy8759.util.parse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 按比例抽取解析过程
+ */
+final class TraceSampler {
+
+  private final double rate;
+
+  private final Consumer<ParseTrace> listener;
+
+  TraceSampler(double rate, Consumer<ParseTrace> listener) {
+    if (!(rate > 0 && rate <= 1)) {
+      throw new IllegalArgumentException("rate must be in (0, 1]");
+    }
+    if (listener == null) {
+      throw new IllegalArgumentException("listener is null");
+    }
+    this.rate = rate;
+    this.listener = listener;
+  }
+
+  boolean sample() {
+    return rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+  }
+
+  void accept(ParseTrace trace) {
+    listener.accept(trace);
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.daihy8759.util.parse;
+
+import java.time.Duration;
+
+/**
+ * 预热各阶段的耗时
+ *
+ * @see AddressWarmup
+ */
+public final class WarmupReport {
+
+  private final Duration load;
+
+  private final Duration replay;
+
+  private final long parses;
+
+  WarmupReport(long loadNanos, long replayNanos, long parses) {
+    this.load = Duration.ofNanos(loadNanos);
+    this.replay = Duration.ofNanos(replayNanos);
+    this.parses = parses;
+  }
+
+  /**
+   * 加载区划数据，预热前已加载时接近 0
+   */
+  public Duration getLoad() {
+    return load;
+  }
+
+  /**
+   * 重放地址样本
+   */
+  public Duration getReplay() {
+    return replay;
+  }
+
+  public Duration getTotal() {
+    return load.plus(replay);
+  }
+
+  /**
+   * 重放解析的地址数
+   */
+  public long getParses() {
+    return parses;
+  }
+
+  @Override
+  public String toString() {
+    return "WarmupReport{total=" + getTotal().toMillis() + "ms, load=" + load.toMillis()
+        + "ms, replay=" + replay.toMillis() + "ms (" + parses + ")}";
+  }
+
+}
@@ -0,0 +1,363 @@
+package com.github.daihy8759.util.pipeline;
+
+import com.github.daihy8759.util.codec.JsonReader;
+import com.github.daihy8759.util.codec.JsonToken;
+import com.github.daihy8759.util.codec.JsonWriter;
+import com.github.daihy8759.util.codec.ParseResultJson;
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 地址文件流式解析
+ * <p>
+ * 读取线程按块把记录提交给解析线程池，块的 Future 按读取顺序放入有界队列；
+ * 调用线程依次取出并写出结果。队列满时读取线程阻塞，内存中最多只有 queueCapacity 个块，与文件大小无关，
+ * 输出顺序与输入一致。
+ */
+@Builder
+@Getter
+public class AddressPipeline {
+
+  private static final String[] CSV_HEADER = {"row", "address", "provinceCode", "provinceName",
+      "cityCode", "cityName", "areaCode", "areaName", "streetCode", "streetName", "postalCode",
+      "name", "phone", "detail", "error"};
+
+  /**
+   * 文件格式，为空时根据输入文件扩展名判断
+   */
+  private final PipelineFormat format;
+
+  /**
+   * 地址所在的 CSV 列名或 JSON 字段名
+   */
+  @Builder.Default
+  private final String addressField = "address";
+
+  /**
+   * CSV 是否有表头，没有表头时按 addressIndex 取地址列
+   */
+  @Builder.Default
+  private final boolean header = true;
+
+  @Builder.Default
+  private final int addressIndex = 0;
+
+  /**
+   * 解析器，默认使用 {@link ZhAddressParser#getDefault()}
+   */
+  @Builder.Default
+  private final AddressParser parser = ZhAddressParser.getDefault();
+
+  @Builder.Default
+  private final boolean parseName = true;
+
+  @Builder.Default
+  private final boolean parsePhone = true;
+
+  @Builder.Default
+  private final boolean postalCode = true;
+
+  /**
+   * 解析线程数
+   */
+  @Builder.Default
+  private final int threads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * 每个解析任务包含的记录数
+   */
+  @Builder.Default
+  private final int chunkSize = 256;
+
+  /**
+   * 已读取但未写出的最大块数
+   */
+  @Builder.Default
+  private final int queueCapacity = 64;
+
+  /**
+   * 进度回调间隔，单位秒，0 表示不回调
+   */
+  @Builder.Default
+  private final long progressSeconds = 0;
+
+  private final Consumer<PipelineStats> progressListener;
+
+  public static class AddressPipelineBuilder {
+
+    /**
+     * 没有表头时地址所在的列，从 0 开始
+     */
+    public AddressPipelineBuilder addressIndex(int addressIndex) {
+      if (addressIndex < 0) {
+        throw new IllegalArgumentException("addressIndex must not be negative: " + addressIndex);
+      }
+      this.addressIndex$value = addressIndex;
+      this.addressIndex$set = true;
+      return this;
+    }
+  }
+
+  /**
+   * 解析 input 中的地址并写入 output
+   */
+  public PipelineStats run(Path input, Path output) throws IOException {
+    PipelineFormat fileFormat = format != null ? format : PipelineFormat.of(input);
+    PipelineStats stats = new PipelineStats();
+    BlockingQueue<CompletableFuture<List<BatchParseResult>>> queue =
+        new ArrayBlockingQueue<>(queueCapacity);
+    ExecutorService parsers = Executors.newFixedThreadPool(threads, daemon("address-parse"));
+    ScheduledExecutorService progress = null;
+    if (progressSeconds > 0 && progressListener != null) {
+      progress = Executors.newSingleThreadScheduledExecutor(daemon("address-progress"));
+      progress.scheduleAtFixedRate(() -> progressListener.accept(stats), progressSeconds,
+          progressSeconds, TimeUnit.SECONDS);
+    }
+    Thread reader = daemon("address-read").newThread(() -> read(input, fileFormat, queue,
+        parsers, stats));
+    // JSON Lines 直接把字节写入 out，CSV 经过 writer，两者不会交替使用
+    JsonWriter json = fileFormat == PipelineFormat.JSONL ? new JsonWriter(1 << 16) : null;
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+      reader.start();
+      if (fileFormat == PipelineFormat.CSV) {
+        writeCsvHeader(writer);
+      }
+      while (true) {
+        List<BatchParseResult> chunk = queue.take().get();
+        if (chunk.isEmpty()) {
+          break;
+        }
+        for (BatchParseResult result : chunk) {
+          if (json != null) {
+            writeJson(json, result);
+          } else {
+            writeCsv(writer, result);
+          }
+          stats.onWritten();
+        }
+        if (json != null) {
+          json.writeTo(out);
+          json.reset();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw new IOException(cause);
+    } finally {
+      reader.interrupt();
+      parsers.shutdownNow();
+      if (progress != null) {
+        progress.shutdownNow();
+      }
+      stats.finish();
+    }
+    if (progressListener != null) {
+      progressListener.accept(stats);
+    }
+    return stats;
+  }
+
+  private void read(Path input, PipelineFormat fileFormat,
+      BlockingQueue<CompletableFuture<List<BatchParseResult>>> queue, ExecutorService parsers,
+      PipelineStats stats) {
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      int column = addressIndex;
+      if (fileFormat == PipelineFormat.CSV && header) {
+        List<String> names = Csv.readRecord(reader);
+        column = names == null ? -1 : names.indexOf(addressField);
+        if (names != null && column < 0) {
+          throw new IOException("column not found: " + addressField);
+        }
+      }
+      List<BatchParseResult> chunk = new ArrayList<>(chunkSize);
+      int row = 0;
+      BatchParseResult record;
+      while ((record = readRecord(reader, fileFormat, column, ++row)) != null) {
+        stats.onRead();
+        chunk.add(record);
+        if (chunk.size() == chunkSize) {
+          queue.put(submit(chunk, parsers, stats));
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        queue.put(submit(chunk, parsers, stats));
+      }
+      queue.put(CompletableFuture.completedFuture(Collections.emptyList()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      fail(queue, new UncheckedIOException(e));
+    } catch (Throwable e) {
+      // 读取线程意外结束时也要放入结果，否则调用线程一直等待
+      fail(queue, e);
+    }
+  }
+
+  private static void fail(BlockingQueue<CompletableFuture<List<BatchParseResult>>> queue,
+      Throwable cause) {
+    CompletableFuture<List<BatchParseResult>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(cause);
+    try {
+      queue.put(failed);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * 读取一条记录；记录格式错误时返回带错误信息的结果，文件结束时返回 null
+   */
+  private BatchParseResult readRecord(BufferedReader reader, PipelineFormat fileFormat,
+      int column, int row) throws IOException {
+    if (fileFormat == PipelineFormat.CSV) {
+      List<String> fields = Csv.readRecord(reader);
+      if (fields == null) {
+        return null;
+      }
+      if (column >= fields.size()) {
+        return new BatchParseResult(row, null, null,
+            new IllegalArgumentException("missing column " + column));
+      }
+      return new BatchParseResult(row, fields.get(column), null, null);
+    }
+    String line = reader.readLine();
+    if (line == null) {
+      return null;
+    }
+    try {
+      return new BatchParseResult(row, readAddress(line), null, null);
+    } catch (RuntimeException e) {
+      return new BatchParseResult(row, null, null, e);
+    }
+  }
+
+  /**
+   * 取出一行 JSON 中 addressField 字段的值，整行为 null 或没有该字段时返回 null
+   */
+  private String readAddress(String line) {
+    JsonReader reader = new JsonReader(line.getBytes(StandardCharsets.UTF_8));
+    if (reader.peek() == JsonToken.NULL) {
+      return null;
+    }
+    String address = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if (addressField.equals(reader.nextName())) {
+        address = reader.nextStringOrNull();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return address;
+  }
+
+  private CompletableFuture<List<BatchParseResult>> submit(List<BatchParseResult> records,
+      ExecutorService parsers, PipelineStats stats) {
+    return CompletableFuture.supplyAsync(() -> {
+      List<BatchParseResult> results = new ArrayList<>(records.size());
+      for (BatchParseResult record : records) {
+        BatchParseResult result = record;
+        if (record.isSuccess()) {
+          try {
+            ParseResult parseResult = parser.parse(record.getAddress(), parseName,
+                parsePhone, postalCode);
+            result = new BatchParseResult(record.getIndex(), record.getAddress(), parseResult,
+                null);
+          } catch (Exception e) {
+            result = new BatchParseResult(record.getIndex(), record.getAddress(), null, e);
+          }
+        }
+        if (!result.isSuccess()) {
+          stats.onFailed();
+        }
+        results.add(result);
+      }
+      return results;
+    }, parsers);
+  }
+
+  private void writeCsvHeader(Writer writer) throws IOException {
+    writer.write(String.join(",", CSV_HEADER));
+    writer.write('\n');
+  }
+
+  private void writeJson(JsonWriter json, BatchParseResult result) {
+    json.beginObject().name("row").value(result.getIndex());
+    if (result.getAddress() != null) {
+      json.name("address").value(result.getAddress());
+    }
+    if (result.isSuccess()) {
+      json.name("result");
+      ParseResultJson.write(json, result.getResult() != null ? result.getResult()
+          : new ParseResult());
+    } else {
+      json.name("error").value(String.valueOf(result.getError()));
+    }
+    json.endObject().newLine();
+  }
+
+  private void writeCsv(Writer writer, BatchParseResult result) throws IOException {
+    ParseResult parseResult = result.getResult() != null ? result.getResult() : new ParseResult();
+    String error = result.isSuccess() ? null : String.valueOf(result.getError());
+    String[] values = {String.valueOf(result.getIndex()), result.getAddress(),
+        parseResult.getProvinceCode(), parseResult.getProvinceName(), parseResult.getCityCode(),
+        parseResult.getCityName(), parseResult.getAreaCode(), parseResult.getAreaName(),
+        parseResult.getStreetCode(), parseResult.getStreetName(), parseResult.getPostalCode(),
+        parseResult.getName(), parseResult.getPhone(), parseResult.getDetail(), error};
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      Csv.appendField(writer, values[i]);
+    }
+    writer.write('\n');
+  }
+
+  private static ThreadFactory daemon(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+}
@@ -0,0 +1,95 @@
+package com.github.daihy8759.util.pipeline;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 命令行解析地址文件
+ *
+ * <pre>
+ * java -cp zh-address-parse.jar com.github.daihy8759.util.pipeline.AddressPipelineCli \
+ *   --input orders.csv --output parsed.csv [--format csv|jsonl] [--field address]
+ *   [--no-header] [--index 0] [--threads 8] [--no-name] [--no-phone] [--no-postal-code]
+ *   [--progress 10]
+ * </pre>
+ */
+public class AddressPipelineCli {
+
+  public static void main(String[] args) throws Exception {
+    Path input = null;
+    Path output = null;
+    AddressPipeline.AddressPipelineBuilder builder = AddressPipeline.builder()
+        .progressSeconds(10)
+        .progressListener(stats -> System.err.println(stats));
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--input":
+            input = Paths.get(value(args, ++i));
+            break;
+          case "--output":
+            output = Paths.get(value(args, ++i));
+            break;
+          case "--format":
+            builder.format(PipelineFormat.valueOf(value(args, ++i).toUpperCase()));
+            break;
+          case "--field":
+            builder.addressField(value(args, ++i));
+            break;
+          case "--no-header":
+            builder.header(false);
+            break;
+          case "--index":
+            builder.addressIndex(Integer.parseInt(value(args, ++i)));
+            break;
+          case "--threads":
+            builder.threads(Integer.parseInt(value(args, ++i)));
+            break;
+          case "--no-name":
+            builder.parseName(false);
+            break;
+          case "--no-phone":
+            builder.parsePhone(false);
+            break;
+          case "--no-postal-code":
+            builder.postalCode(false);
+            break;
+          case "--progress":
+            builder.progressSeconds(Long.parseLong(value(args, ++i)));
+            break;
+          default:
+            usage("unknown option: " + args[i]);
+            return;
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      // 数字、格式不合法或 --index 为负数
+      usage(e.getMessage());
+      return;
+    }
+    if (input == null || output == null) {
+      usage("--input and --output are required");
+      return;
+    }
+    AddressPipeline pipeline = builder.build();
+    pipeline.run(input, output);
+  }
+
+  /**
+   * 选项的值，缺少时打印用法后退出
+   */
+  private static String value(String[] args, int i) {
+    if (i >= args.length) {
+      usage("missing value for " + args[i - 1]);
+    }
+    return args[i];
+  }
+
+  private static void usage(String message) {
+    System.err.println(message);
+    System.err.println("usage: AddressPipelineCli --input <file> --output <file>"
+        + " [--format csv|jsonl] [--field address] [--no-header] [--index 0] [--threads n]"
+        + " [--no-name] [--no-phone] [--no-postal-code] [--progress seconds]");
+    System.exit(1);
+  }
+}
@@ -0,0 +1,84 @@
+package com.github.daihy8759.util.pipeline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 简单的 CSV 读写，字段中的逗号、双引号和换行使用双引号转义
+ */
+final class Csv {
+
+  private Csv() {
+  }
+
+  /**
+   * 读取一条记录，引号内的换行会继续读取下一行，文件结束时返回 null
+   */
+  static List<String> readRecord(BufferedReader reader) throws IOException {
+    String line = reader.readLine();
+    if (line == null) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      for (int i = 0; i < line.length(); i++) {
+        char c = line.charAt(i);
+        if (quoted) {
+          if (c != '"') {
+            field.append(c);
+          } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            field.append('"');
+            i++;
+          } else {
+            quoted = false;
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else {
+          field.append(c);
+        }
+      }
+      if (!quoted) {
+        break;
+      }
+      line = reader.readLine();
+      if (line == null) {
+        throw new IOException("unterminated quoted field");
+      }
+      field.append('\n');
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  static void appendField(Appendable out, String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.append(value);
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        out.append('"');
+      }
+      out.append(c);
+    }
+    out.append('"');
+  }
+}
@@ -0,0 +1,30 @@
+package com.github.daihy8759.util.pipeline;
+
+import java.nio.file.Path;
+
+/**
+ * 地址文件格式
+ */
+public enum PipelineFormat {
+
+  /**
+   * 逗号分隔，支持双引号转义
+   */
+  CSV,
+
+  /**
+   * 每行一个 JSON 对象
+   */
+  JSONL;
+
+  /**
+   * 根据扩展名判断格式，无法判断时按 CSV 处理
+   */
+  public static PipelineFormat of(Path path) {
+    String name = path.getFileName().toString().toLowerCase();
+    if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+      return JSONL;
+    }
+    return CSV;
+  }
+}
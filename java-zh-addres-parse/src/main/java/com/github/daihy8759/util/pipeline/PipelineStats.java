@@ -0,0 +1,76 @@
+package com.github.daihy8759.util.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流水线运行计数，可在运行过程中读取
+ */
+public class PipelineStats {
+
+  private final long startNanos = System.nanoTime();
+
+  private final LongAdder read = new LongAdder();
+
+  private final LongAdder failed = new LongAdder();
+
+  private final LongAdder written = new LongAdder();
+
+  private volatile long endNanos;
+
+  void onRead() {
+    read.increment();
+  }
+
+  void onFailed() {
+    failed.increment();
+  }
+
+  void onWritten() {
+    written.increment();
+  }
+
+  void finish() {
+    endNanos = System.nanoTime();
+  }
+
+  /**
+   * 已读取的记录数
+   */
+  public long getRead() {
+    return read.sum();
+  }
+
+  /**
+   * 解析失败或格式错误的记录数
+   */
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * 已写出的记录数
+   */
+  public long getWritten() {
+    return written.sum();
+  }
+
+  public long getElapsedMillis() {
+    long end = endNanos == 0 ? System.nanoTime() : endNanos;
+    return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+  }
+
+  /**
+   * 每秒写出的记录数
+   */
+  public double getThroughput() {
+    long elapsed = getElapsedMillis();
+    return elapsed == 0 ? 0 : getWritten() * 1000.0 / elapsed;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("read=%d, written=%d, failed=%d, elapsed=%dms, throughput=%.1f/s",
+        getRead(), getWritten(), getFailed(), getElapsedMillis(), getThroughput());
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.db.SqliteAreaRepository;
+import com.github.daihy8759.util.model.AddressHint;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AddressHintTest {
+
+  private static AddressParser dictionaryParser;
+
+  private static AddressParser sqliteParser;
+
+  @BeforeAll
+  public static void setUp() {
+    dictionaryParser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    sqliteParser = new AddressParser(new SqliteAreaRepository());
+  }
+
+  @Test
+  @DisplayName("已知省市时去掉地址中重复的省市")
+  public void testKnownProvinceAndCity() {
+    AddressHint hint = AddressHint.builder().provinceName("浙江省").cityName("杭州").build();
+    for (AddressParser parser : new AddressParser[]{dictionaryParser, sqliteParser}) {
+      AddressResult result = parser.parseAddress("浙江杭州西湖区文三路100号", hint, false, false, false);
+      assertEquals("330106", result.getAreaCode());
+      assertEquals("杭州市", result.getCityName());
+      assertEquals("文三路100号", result.getDetail());
+    }
+  }
+
+  @Test
+  @DisplayName("省市同名时按各自的全称去掉")
+  public void testSameNamePrefix() {
+    AddressHint hint = AddressHint.builder().provinceCode("22").cityName("吉林市").build();
+    for (AddressParser parser : new AddressParser[]{dictionaryParser, sqliteParser}) {
+      AddressResult result = parser.parseAddress("吉林省,吉林市,永吉县和平街88号", hint, false, false,
+          false);
+      assertEquals("220221", result.getAreaCode());
+      assertEquals("和平街88号", result.getDetail());
+    }
+  }
+
+  @Test
+  @DisplayName("只给出编码时补全上级")
+  public void testCodeOnly() {
+    AddressHint hint = AddressHint.builder().cityCode("3301").build();
+    for (AddressParser parser : new AddressParser[]{dictionaryParser, sqliteParser}) {
+      AddressResult result = parser.parseAddress("西湖区文三路100号", hint, false, false, false);
+      assertEquals("33", result.getProvinceCode());
+      assertEquals("浙江省", result.getProvinceName());
+      assertEquals("330106", result.getAreaCode());
+      assertEquals("文三路100号", result.getDetail());
+    }
+  }
+
+  @Test
+  @DisplayName("重名区县在提示的市下查找")
+  public void testDuplicateArea() {
+    AddressHint hint = AddressHint.builder().cityName("福州市").build();
+    for (AddressParser parser : new AddressParser[]{dictionaryParser, sqliteParser}) {
+      assertEquals("", parser.parseAddress("鼓楼区人民路1号", false, false, false).getAreaCode());
+      AddressResult result = parser.parseAddress("鼓楼区人民路1号", hint, false, false, false);
+      assertEquals("350102", result.getAreaCode());
+      assertEquals("人民路1号", result.getDetail());
+    }
+  }
+
+  @Test
+  @DisplayName("与上级不一致的提示不采用")
+  public void testInconsistentHint() {
+    AddressHint hint = AddressHint.builder().provinceName("浙江省").cityCode("3501").build();
+    for (AddressParser parser : new AddressParser[]{dictionaryParser, sqliteParser}) {
+      AddressResult result = parser.parseAddress("杭州市西湖区文三路100号", hint, false, false, false);
+      assertEquals("3301", result.getCityCode());
+      assertEquals("330106", result.getAreaCode());
+    }
+  }
+
+  @Test
+  @DisplayName("提示不同的结果分别缓存")
+  public void testCacheKey() {
+    AddressParser parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    parser.enableResultCache(100, Duration.ofMinutes(1));
+    assertEquals("", parser.parseAddress("鼓楼区人民路1号", false, false, false).getAreaCode());
+    assertEquals("350102", parser.parseAddress("鼓楼区人民路1号",
+        AddressHint.builder().cityName("福州市").build(), false, false, false).getAreaCode());
+    assertEquals("320106", parser.parseAddress("鼓楼区人民路1号",
+        AddressHint.builder().cityName("南京市").build(), false, false, false).getAreaCode());
+  }
+
+}
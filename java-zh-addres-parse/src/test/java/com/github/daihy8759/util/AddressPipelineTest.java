@@ -0,0 +1,86 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.github.daihy8759.util.pipeline.AddressPipeline;
+import com.github.daihy8759.util.pipeline.PipelineStats;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AddressPipelineTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("CSV 文件流式解析")
+  @SneakyThrows
+  public void testCsv() {
+    Path input = tempDir.resolve("orders.csv");
+    Files.write(input, Arrays.asList("id,address", "1,北京市东城区",
+        "2,\"王晓光 重庆市 垫江县 太平镇,13311111111\"", "3,"), StandardCharsets.UTF_8);
+    Path output = tempDir.resolve("parsed.csv");
+    PipelineStats stats = AddressPipeline.builder().threads(2).chunkSize(1).queueCapacity(1)
+        .build().run(input, output);
+
+    assertEquals(3, stats.getRead());
+    assertEquals(3, stats.getWritten());
+    assertEquals(0, stats.getFailed());
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertEquals(4, lines.size());
+    assertTrue(lines.get(1).startsWith("1,北京市东城区,11,北京市,1101,北京市,110101,东城区"));
+    assertTrue(lines.get(2).startsWith("2,\"王晓光 重庆市 垫江县 太平镇,13311111111\",50,重庆市"));
+    assertTrue(lines.get(2).contains(",王晓光,13311111111,"));
+    assertTrue(lines.get(3).startsWith("3,,"));
+  }
+
+  @Test
+  @DisplayName("JSON Lines 文件流式解析")
+  @SneakyThrows
+  public void testJsonLines() {
+    Path input = tempDir.resolve("orders.jsonl");
+    Files.write(input, Arrays.asList("{\"address\":\"北京市东城区\"}", "{not json",
+        "{\"address\":\"重庆市垫江县\"}"), StandardCharsets.UTF_8);
+    Path output = tempDir.resolve("parsed.jsonl");
+    PipelineStats stats = AddressPipeline.builder().build().run(input, output);
+
+    assertEquals(3, stats.getWritten());
+    assertEquals(1, stats.getFailed());
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    JSONObject first = JSON.parseObject(lines.get(0));
+    assertEquals(1, first.getIntValue("row"));
+    assertEquals("110101", first.getJSONObject("result").getString("areaCode"));
+    assertTrue(JSON.parseObject(lines.get(1)).containsKey("error"));
+    assertEquals("垫江县", JSON.parseObject(lines.get(2)).getJSONObject("result")
+        .getString("areaName"));
+  }
+
+  @Test
+  @DisplayName("读取失败时结束并抛出异常")
+  @SneakyThrows
+  public void testReadFailure() {
+    assertThrows(IllegalArgumentException.class,
+        () -> AddressPipeline.builder().addressIndex(-1));
+
+    Path input = tempDir.resolve("broken.csv");
+    Files.write(input, new byte[]{'a', 'd', 'd', 'r', 'e', 's', 's', '\n', (byte) 0xff, '\n'});
+    Path output = tempDir.resolve("broken-parsed.csv");
+    AddressPipeline pipeline = AddressPipeline.builder().build();
+    assertTimeoutPreemptively(Duration.ofSeconds(10),
+        () -> assertThrows(IOException.class, () -> pipeline.run(input, output)));
+  }
+}
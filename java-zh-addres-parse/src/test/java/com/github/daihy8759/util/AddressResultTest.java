@@ -0,0 +1,81 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.alibaba.fastjson.JSON;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.db.SqliteAreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.ProvinceParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AddressResultTest {
+
+  private static final String ADDRESS = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+
+  @Test
+  @DisplayName("字典与数据库解析结果一致")
+  public void testSameAsSqlite() {
+    AddressParser dictionaryParser = new AddressParser(
+        new DictionaryAreaRepository(AreaSnapshot.load()));
+    AddressParser sqliteParser = new AddressParser(new SqliteAreaRepository());
+    AddressResult result = dictionaryParser.parseAddress(ADDRESS, true, true, true);
+    assertEquals(4, result.getDepth());
+    assertEquals("福清市", result.getRegionName(3));
+    assertEquals("350181", result.getAreaCode());
+    assertEquals("张三", result.getName());
+    assertEquals(JSON.toJSONString(sqliteParser.parse(ADDRESS, true, true, true)),
+        JSON.toJSONString(result.toParseResult()));
+  }
+
+  @Test
+  @DisplayName("缓存直接共享不可变结果")
+  public void testCacheShared() {
+    AddressParser parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    parser.enableResultCache(16, null);
+    AddressResult first = parser.parseAddress(ADDRESS, true, true, true);
+    assertSame(first, parser.parseAddress(ADDRESS, true, true, true));
+    ParseResult parseResult = parser.parse(ADDRESS, true, true, true);
+    parseResult.setName("李四");
+    assertEquals("张三", parser.parse(ADDRESS, true, true, true).getName());
+  }
+
+  @Test
+  @DisplayName("构建器")
+  public void testBuilder() {
+    AreaDictionary dictionary = AreaSnapshot.load();
+    int city = dictionary.indexOf("3501", 2);
+    AddressResult.Builder builder = AddressResult.builder(dictionary)
+        .codeOf(2, city).nameOf(2, city).code(1, "35").name(1, "福建省").detail("义明综合楼");
+    assertEquals(city, builder.getCodeIndex(2));
+    AddressResult result = builder.build();
+    assertEquals("3501", result.getCityCode());
+    assertEquals("福州市", result.getCityName());
+    assertEquals("福建省", result.getProvinceName());
+    assertEquals("", result.getAreaCode());
+    assertEquals(2, result.getDepth());
+    assertThrows(IllegalStateException.class, () -> builder.code(3, "350181"));
+    assertThrows(IllegalArgumentException.class,
+        () -> AddressResult.builder(null).codeOf(1, 0));
+    assertEquals(JSON.toJSONString(new ParseResult()),
+        JSON.toJSONString(AddressResult.EMPTY.toParseResult()));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  @DisplayName("兼容旧的 ParseResult 入参")
+  public void testParseProvinceCompatibility() {
+    ParseResult parseResult = new ParseResult();
+    assertEquals("福州市", ProvinceParser.parseProvince(parseResult, "福建省福州市"));
+    assertEquals("35", parseResult.getProvinceCode());
+    assertEquals("福建省", parseResult.getProvinceName());
+  }
+
+}
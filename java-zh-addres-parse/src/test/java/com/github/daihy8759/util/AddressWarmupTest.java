@@ -0,0 +1,37 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.metrics.ParseMetrics;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.AddressWarmup;
+import com.github.daihy8759.util.parse.WarmupReport;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AddressWarmupTest {
+
+  @Test
+  @DisplayName("预热")
+  public void testWarmUp() {
+    AddressParser parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    parser.enableResultCache(16, null);
+    ParseMetrics metrics = new ParseMetrics();
+    parser.setInstrumentation(metrics);
+    List<String> corpus = AddressWarmup.builtInCorpus();
+    assertTrue(corpus.size() > 10);
+
+    WarmupReport report = AddressWarmup.warmUp(parser, corpus, 2, ForkJoinPool.commonPool());
+    assertEquals(corpus.size() * 2L, report.getParses());
+    assertEquals(report.getTotal(), report.getLoad().plus(report.getReplay()));
+    // 预热不写入结果缓存，也不计入埋点
+    assertEquals(0, parser.resultCacheStats().getMissCount());
+    assertEquals(0, metrics.getParseLatency().getCount());
+  }
+
+}
@@ -0,0 +1,138 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.daihy8759.util.db.AreaDataset;
+import com.github.daihy8759.util.db.AreaDatasetManager;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.parse.AddressParser;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AreaDatasetTest {
+
+  private static final String ADDRESS = "福建省福州市福清市石竹街道义明综合楼3F";
+
+  private static AreaDataset small(String version) {
+    Area province = area("35", "福建省", null);
+    Area city = area("3501", "福州市", "35");
+    return AreaDataset.of(version,
+        AreaDictionary.of(Arrays.asList(province, city), Arrays.asList(1, 2)));
+  }
+
+  private static Area area(String code, String name, String parentCode) {
+    Area area = new Area();
+    area.setCode(code);
+    area.setName(name);
+    area.setParentCode(parentCode);
+    return area;
+  }
+
+  @Test
+  @DisplayName("快照与 data.db 加载结果一致，结果带数据版本")
+  public void testLoad() {
+    AreaDataset snapshot = AreaDataset.loadResource(AreaSnapshot.RESOURCE);
+    AreaDataset sqlite = AreaDataset.loadResource("data.db");
+    assertEquals(8, snapshot.getVersion().length());
+    assertEquals(snapshot.getVersion(), AreaDataset.loadResource(AreaSnapshot.RESOURCE).getVersion());
+    assertEquals(snapshot.getDictionary().size(), sqlite.getDictionary().size());
+
+    AddressResult result = new AddressParser(sqlite.getRepository())
+        .parseAddress(ADDRESS, false, false, false);
+    assertEquals("350181006", result.getStreetCode());
+    assertEquals(sqlite.getVersion(), result.getDatasetVersion());
+  }
+
+  @Test
+  @DisplayName("从文件加载 data.db，版本与读到的数据来自同一份内容")
+  public void testLoadPath() throws Exception {
+    Path dir = Files.createTempDirectory("dataset");
+    Path db = dir.resolve("data.db");
+    try (InputStream in = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream("data.db")) {
+      Files.copy(in, db);
+    }
+    AreaDataset expected = AreaDataset.loadResource("data.db");
+    AreaDataset loaded = AreaDataset.load(db);
+    assertEquals(expected.getVersion(), loaded.getVersion());
+    assertEquals(expected.getDictionary().size(), loaded.getDictionary().size());
+    assertEquals(db.toString(), loaded.getSource());
+    // 数据已全部读入内存，不再依赖原文件
+    Files.delete(db);
+    Files.delete(dir);
+    assertEquals("350181006", new AddressParser(loaded.getRepository())
+        .parseAddress(ADDRESS, false, false, false).getStreetCode());
+  }
+
+  @Test
+  @DisplayName("热更新")
+  public void testSwap() {
+    try (AreaDatasetManager datasets = new AreaDatasetManager()) {
+      AreaRepository repository = datasets.repository("default");
+      assertThrows(IllegalStateException.class, () -> repository.findByCode("35", 1));
+
+      AreaDataset full = datasets.loadResource("default", AreaSnapshot.RESOURCE).join();
+      assertSame(full, datasets.get("default"));
+      AddressParser parser = new AddressParser(repository);
+      parser.enableResultCache(16, null);
+      assertEquals("350181006", parser.parseAddress(ADDRESS, false, false, false).getStreetCode());
+
+      // 替换前取得的快照仍指向旧数据
+      AreaRepository pinned = repository.snapshot();
+      datasets.load("default", () -> small("v2")).join();
+      assertEquals(full.getVersion(), pinned.version());
+      AddressResult result = parser.parseAddress(ADDRESS, false, false, false);
+      assertEquals("v2", result.getDatasetVersion());
+      assertEquals("v2", parser.parse(ADDRESS, false, false, false).getDatasetVersion());
+      assertEquals("3501", result.getCityCode());
+      assertEquals("", result.getStreetCode());
+
+      datasets.put("b", full);
+      assertEquals(full.getVersion(), new AddressParser(datasets.repository("b"))
+          .parseAddress(ADDRESS, false, false, false).getDatasetVersion());
+      datasets.remove("b");
+      assertNull(datasets.get("b"));
+      assertEquals(1, datasets.names().size());
+    }
+  }
+
+  @Test
+  @DisplayName("先发起、后完成的加载不覆盖较新的数据")
+  public void testLoadOrder() {
+    CountDownLatch latch = new CountDownLatch(1);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      AreaDatasetManager datasets = new AreaDatasetManager(executor);
+      CompletableFuture<AreaDataset> slow = datasets.load("default", () -> {
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return small("v1");
+      });
+      datasets.load("default", () -> small("v2")).join();
+      latch.countDown();
+      slow.join();
+      assertEquals("v2", datasets.get("default").getVersion());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
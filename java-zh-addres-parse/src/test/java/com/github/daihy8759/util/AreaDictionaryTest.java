@@ -0,0 +1,123 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.AreaStore;
+import com.github.daihy8759.util.db.AreaTrie;
+import com.github.daihy8759.util.db.SqliteUtil;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 启用内存字典后重新跑一遍解析用例
+ */
+public class AreaDictionaryTest extends ZhAddressParserTest {
+
+  @BeforeAll
+  public static void enableDictionary() {
+    AreaStore.enableDictionary();
+  }
+
+  @AfterAll
+  public static void disableDictionary() {
+    AreaStore.disableDictionary();
+  }
+
+  @Test
+  @DisplayName("内存字典与 data.db 查询结果一致")
+  public void testSameAsSqlite() {
+    AreaDictionary dictionary = AreaStore.enableDictionary();
+    assertLookup(dictionary, null, "广东", 1);
+    assertLookup(dictionary, null, "北京市", 2);
+    assertLookup(dictionary, "44", "深", 2);
+    assertLookup(dictionary, null, "鼓楼", 3);
+    assertLookup(dictionary, "4403", "盐田", 3);
+    assertLookup(dictionary, "110101", "东", 4);
+    assertLookup(dictionary, null, "不存在", 1);
+
+    assertEquals("深圳市", dictionary.getAreaSingle("4403", 2).getName());
+    assertEquals("44", dictionary.getAreaSingle("4403", 2).getParentCode());
+    assertNull(dictionary.getAreaSingle("4403", 3));
+  }
+
+  @Test
+  @DisplayName("字典树一次转移得到各级候选")
+  public void testTrie() {
+    AreaDictionary dictionary = AreaStore.enableDictionary();
+    AreaTrie trie = dictionary.trie();
+    int state = trie.walk("广东", 0, 2);
+    assertEquals("广东省", dictionary.getArea(trie.hit(state, 1)).getName());
+    assertEquals(AreaDictionary.NONE, trie.hit(state, 2));
+
+    state = trie.walk("鼓楼区", 0, 3);
+    assertEquals(AreaDictionary.NONE, trie.hit(state, 1));
+    assertEquals(AreaDictionary.MANY, trie.hit(state, 3));
+
+    state = trie.walk("深圳市", 0, 3);
+    assertEquals("4403", dictionary.getArea(trie.hit(state, 2)).getCode());
+    assertEquals(-1, trie.walk("深圳市x", 0, 4));
+  }
+
+  @Test
+  @DisplayName("沿上级下标从街道走到省")
+  public void testHierarchy() {
+    AreaDictionary dictionary = AreaStore.enableDictionary();
+    int street = dictionary.indexOf("350181005", 4);
+    int area = dictionary.parentOf(street);
+    int city = dictionary.parentOf(area);
+    int province = dictionary.parentOf(city);
+    assertEquals(350181, dictionary.code(area));
+    assertEquals("福州市", dictionary.nameOf(city));
+    assertEquals(1, dictionary.levelOf(province));
+    assertEquals(AreaDictionary.NONE, dictionary.parentOf(province));
+    assertEquals(province, dictionary.indexOf("35"));
+    assertEquals(AreaDictionary.NONE, dictionary.indexOf("35", 2));
+    assertEquals(AreaDictionary.NONE, dictionary.indexOf("035"));
+    assertTrue(dictionary.nameMatches(city, "福州市鼓楼区", 0));
+  }
+
+  @Test
+  @DisplayName("民族自治地方简称")
+  public void testAlias() {
+    AreaDictionary dictionary = AreaStore.enableDictionary();
+    int enshi = dictionary.indexOf("4228", 2);
+    assertEquals(Collections.singletonList("恩施州"), dictionary.aliasesOf(enshi));
+    assertEquals(Collections.singletonList("广西省"),
+        dictionary.aliasesOf(dictionary.indexOf("45", 1)));
+    assertTrue(dictionary.aliasesOf(dictionary.indexOf("3501", 2)).isEmpty());
+
+    AreaTrie trie = dictionary.trie();
+    assertEquals(enshi, trie.hit(trie.walk("恩施州", 0, 3), 2));
+    assertEquals(enshi, trie.hit(trie.walk("恩施", 0, 2), 2));
+    assertEquals(enshi, dictionary.findPrefix("42", 2, "恩施州巴东县", 0, 3));
+    assertEquals(3, dictionary.matchLength(enshi, "恩施州巴东县", 0));
+    assertEquals(0, dictionary.matchLength(enshi, "恩施巴东县", 0));
+    // 按前缀查询区划时与 data.db 一致，不返回别名
+    assertTrue(dictionary.getArea("42", "恩施州", 2).isEmpty());
+  }
+
+  @Test
+  @DisplayName("二进制快照与 data.db 内容一致")
+  public void testSnapshot() {
+    AreaDictionary snapshot = AreaSnapshot.load();
+    AreaDictionary sqlite = SqliteUtil.loadDictionary();
+    assertEquals(sqlite.size(), snapshot.size());
+    for (int i = 0; i < sqlite.size(); i++) {
+      assertEquals(sqlite.getArea(i), snapshot.getArea(i));
+      assertEquals(sqlite.levelOf(i), snapshot.levelOf(i));
+    }
+  }
+
+  private void assertLookup(AreaDictionary dictionary, String parentCode, String name, int level) {
+    assertEquals(SqliteUtil.getArea(parentCode, name, level),
+        dictionary.getArea(parentCode, name, level), name);
+  }
+
+}
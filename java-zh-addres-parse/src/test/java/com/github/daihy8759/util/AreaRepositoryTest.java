@@ -0,0 +1,106 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alibaba.fastjson.JSON;
+import com.github.daihy8759.util.db.AreaDictionary;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.db.MappedAreaRepository;
+import com.github.daihy8759.util.db.SqliteAreaRepository;
+import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import java.nio.file.Paths;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AreaRepositoryTest {
+
+  @SneakyThrows
+  private MappedAreaRepository openMapped() {
+    return MappedAreaRepository.open(Paths.get(Thread.currentThread().getContextClassLoader()
+        .getResource(AreaSnapshot.RESOURCE).toURI()));
+  }
+
+  @Test
+  @DisplayName("内存映射仓库与内存字典查询结果一致")
+  public void testMappedSameAsDictionary() {
+    AreaDictionary dictionary = AreaSnapshot.load();
+    AreaRepository expected = new DictionaryAreaRepository(dictionary);
+    MappedAreaRepository mapped = openMapped();
+    assertEquals(dictionary.size(), mapped.size());
+    for (int i = 0; i < dictionary.size(); i++) {
+      Area area = dictionary.getArea(i);
+      int level = dictionary.levelOf(i);
+      assertEquals(area, mapped.findByCode(area.getCode(), level));
+      String prefix = area.getName().substring(0, Math.min(2, area.getName().length()));
+      assertEquals(expected.findByPrefix(area.getParentCode(), prefix, level),
+          mapped.findByPrefix(area.getParentCode(), prefix, level), area.getCode());
+      if (level < AreaDictionary.MAX_LEVEL) {
+        assertEquals(expected.findChildren(area.getCode(), level + 1),
+            mapped.findChildren(area.getCode(), level + 1), area.getCode());
+      }
+    }
+    assertEquals(expected.findByPrefix(null, "鼓楼", 3), mapped.findByPrefix(null, "鼓楼", 3));
+    assertEquals(expected.findChildren(null, 1), mapped.findChildren(null, 1));
+    assertNull(mapped.findByCode("4403", 3));
+    assertNull(mapped.findByCode("44030", 3));
+    assertNull(mapped.findByCode("abc", 1));
+    assertEquals(0, mapped.findByPrefix("99", "深", 2).size());
+  }
+
+  @Test
+  @DisplayName("SQLite 仓库与内存字典查询结果一致且按 code 排序")
+  public void testSqliteSameAsDictionary() {
+    AreaDictionary dictionary = SqliteUtil.loadDictionary();
+    AreaRepository expected = new DictionaryAreaRepository(dictionary);
+    AreaRepository sqlite = new SqliteAreaRepository();
+    for (int i = 0; i < dictionary.size(); i++) {
+      int level = dictionary.levelOf(i);
+      // 街道数量多，逐条查询较慢，只比较到区县及其下级
+      if (level > 3) {
+        continue;
+      }
+      Area area = dictionary.getArea(i);
+      String prefix = area.getName().substring(0, 1);
+      assertEquals(expected.findByPrefix(area.getParentCode(), prefix, level),
+          sqlite.findByPrefix(area.getParentCode(), prefix, level), area.getCode());
+      assertEquals(expected.findChildren(area.getCode(), level + 1),
+          sqlite.findChildren(area.getCode(), level + 1), area.getCode());
+    }
+    assertEquals(expected.findByPrefix(null, "鼓楼", 3), sqlite.findByPrefix(null, "鼓楼", 3));
+    assertEquals(expected.findByPrefix(null, "新", 3), sqlite.findByPrefix(null, "新", 3));
+    List<Area> children = sqlite.findChildren("3501", 3);
+    for (int i = 1; i < children.size(); i++) {
+      assertTrue(children.get(i - 1).getCode().compareTo(children.get(i).getCode()) < 0);
+    }
+    // 各仓库返回的列表都只读
+    assertThrows(UnsupportedOperationException.class, children::clear);
+    assertThrows(UnsupportedOperationException.class,
+        () -> expected.findChildren("3501", 3).clear());
+    assertThrows(UnsupportedOperationException.class,
+        () -> openMapped().findChildren("3501", 3).clear());
+  }
+
+  @Test
+  @DisplayName("不同仓库的解析器结果一致")
+  public void testParserWithRepository() {
+    String address = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+    ParseResult expected = new AddressParser(new SqliteAreaRepository())
+        .parse(address, true, true, true);
+    assertEquals("350181", expected.getAreaCode());
+    assertEquals(JSON.toJSONString(expected), JSON.toJSONString(
+        new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()))
+            .parse(address, true, true, true)));
+    assertEquals(JSON.toJSONString(expected),
+        JSON.toJSONString(new AddressParser(openMapped()).parse(address, true, true, true)));
+  }
+}
@@ -0,0 +1,165 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.alibaba.fastjson.JSON;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.model.BatchParseResult;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.AsyncAddressParser;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AsyncAddressParserTest {
+
+  private static final String ADDRESS = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+
+  @Test
+  @DisplayName("异步解析结果与同步一致")
+  public void testParseAsync() {
+    ParseResult expected = ZhAddressParser.parse(ADDRESS, true, true, true);
+    ParseResult actual = ZhAddressParser.parseAsync(ADDRESS, true, true, true).join();
+    assertEquals(JSON.toJSONString(expected), JSON.toJSONString(actual));
+  }
+
+  @Test
+  @DisplayName("同时解析的地址数不超过上限")
+  public void testConcurrencyLimit() {
+    SlowRepository repository = new SlowRepository(
+        new DictionaryAreaRepository(AreaSnapshot.load()));
+    List<String> addresses = Collections.nCopies(40, ADDRESS);
+    try (AsyncAddressParser parser = new AsyncAddressParser(new AddressParser(repository), 3)) {
+      List<BatchParseResult> results = parser.parseBatchAsync(addresses, true, true, true).join();
+      assertEquals(40, results.size());
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(i, results.get(i).getIndex());
+        assertEquals("350181", results.get(i).getResult().getAreaCode());
+      }
+
+      List<BatchParseResult> streamed = Collections.synchronizedList(new ArrayList<>());
+      parser.parseStream(addresses.iterator(), false, false, false, streamed::add).join();
+      assertEquals(40, streamed.size());
+      assertEquals(0, parser.getInFlight());
+    }
+    assertTrue(repository.max.get() <= 3, "max concurrency " + repository.max.get());
+  }
+
+  @Test
+  @DisplayName("排队数达到上限时拒绝，批量解析不受上限影响")
+  public void testMaxPending() {
+    List<Runnable> tasks = new ArrayList<>();
+    AsyncAddressParser parser = new AsyncAddressParser(ZhAddressParser.getDefault(), 1, 2,
+        tasks::add);
+    List<CompletableFuture<ParseResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(parser.parseAsync(ADDRESS, false, false, false));
+    }
+    assertEquals(1, parser.getInFlight());
+    assertEquals(2, parser.getPending());
+    CompletableFuture<ParseResult> rejected = parser.parseAsync(ADDRESS, false, false, false);
+    CompletionException error = assertThrows(CompletionException.class, rejected::join);
+    assertTrue(error.getCause() instanceof RejectedExecutionException);
+
+    // 逐个执行，排队的地址随后提交
+    for (int i = 0; i < tasks.size(); i++) {
+      tasks.get(i).run();
+    }
+    assertEquals(3, tasks.size());
+    futures.forEach(future -> assertEquals("350181", future.join().getAreaCode()));
+
+    AsyncAddressParser strict = new AsyncAddressParser(ZhAddressParser.getDefault(), 2, 0,
+        Runnable::run);
+    List<BatchParseResult> results = strict
+        .parseBatchAsync(Collections.nCopies(10, ADDRESS), false, false, false).join();
+    assertEquals(10, results.size());
+    results.forEach(result -> assertTrue(result.isSuccess()));
+  }
+
+  @Test
+  @DisplayName("流式解析在调用线程上读取输入")
+  public void testStreamReadsOnCallingThread() {
+    Thread caller = Thread.currentThread();
+    Iterator<String> source = Collections.nCopies(20, ADDRESS).iterator();
+    List<Thread> readers = Collections.synchronizedList(new ArrayList<>());
+    Iterator<String> addresses = new Iterator<String>() {
+      @Override
+      public boolean hasNext() {
+        readers.add(Thread.currentThread());
+        return source.hasNext();
+      }
+
+      @Override
+      public String next() {
+        readers.add(Thread.currentThread());
+        return source.next();
+      }
+    };
+    try (AsyncAddressParser parser = new AsyncAddressParser(ZhAddressParser.getDefault(), 2)) {
+      List<BatchParseResult> results = Collections.synchronizedList(new ArrayList<>());
+      CompletableFuture<Void> done = parser.parseStream(addresses, false, false, false,
+          results::add);
+      done.join();
+      assertEquals(20, results.size());
+    }
+    assertEquals(41, readers.size());
+    readers.forEach(reader -> assertSame(caller, reader));
+  }
+
+  /**
+   * 放慢查询并记录同时查询的线程数；字典仓库本身不暴露字典，解析器走逐级查询
+   */
+  private static class SlowRepository implements AreaRepository {
+
+    private final AreaRepository delegate;
+    private final AtomicInteger current = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger();
+
+    private SlowRepository(AreaRepository delegate) {
+      this.delegate = delegate;
+    }
+
+    @SneakyThrows
+    private <T> T slow(Supplier<T> query) {
+      max.accumulateAndGet(current.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(1);
+        return query.get();
+      } finally {
+        current.decrementAndGet();
+      }
+    }
+
+    @Override
+    public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+      return slow(() -> delegate.findByPrefix(parentCode, namePrefix, level));
+    }
+
+    @Override
+    public List<Area> findChildren(String parentCode, int level) {
+      return slow(() -> delegate.findChildren(parentCode, level));
+    }
+
+    @Override
+    public Area findByCode(String code, int level) {
+      return slow(() -> delegate.findByCode(code, level));
+    }
+  }
+}
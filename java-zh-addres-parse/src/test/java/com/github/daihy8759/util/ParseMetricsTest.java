@@ -0,0 +1,104 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.db.SqliteAreaRepository;
+import com.github.daihy8759.util.metrics.LatencyHistogram;
+import com.github.daihy8759.util.metrics.ParseMetrics;
+import com.github.daihy8759.util.metrics.ParseStage;
+import com.github.daihy8759.util.parse.AddressParser;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParseMetricsTest {
+
+  private static final String ADDRESS = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+
+  @Test
+  @DisplayName("内存字典解析统计")
+  public void testDictionaryMetrics() {
+    AddressParser parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    ParseMetrics metrics = new ParseMetrics();
+    parser.setInstrumentation(metrics);
+    parser.parse(ADDRESS, true, true, true);
+    parser.parse("火星", false, false, false);
+
+    assertEquals(2, metrics.getParseLatency().getCount());
+    assertEquals(1, metrics.getDepthCount(4));
+    assertEquals(1, metrics.getDepthCount(0));
+    assertEquals(1, metrics.getStageLatency(ParseStage.PHONE).getCount());
+    assertEquals(2, metrics.getStageLatency(ParseStage.CLEAN).getCount());
+    assertEquals(2, metrics.getStageLatency(ParseStage.SPLIT).getCount());
+    assertEquals(2, metrics.getStageLatency(ParseStage.REGION).getCount());
+    assertEquals(0, metrics.getStageLatency(ParseStage.PROVINCE).getCount());
+    assertTrue(metrics.getLookupsPerParse() > 0);
+
+    parser.enableResultCache(16, null);
+    parser.parse(ADDRESS, true, true, true);
+    parser.parse(ADDRESS, true, true, true);
+    assertEquals(0.5, metrics.getCacheHitRatio());
+    assertEquals(4, metrics.getParseLatency().getCount());
+  }
+
+  @Test
+  @DisplayName("数据库逐级解析统计")
+  public void testSqliteMetrics() {
+    AddressParser parser = new AddressParser(new SqliteAreaRepository());
+    ParseMetrics metrics = new ParseMetrics();
+    parser.setInstrumentation(metrics);
+    parser.parse(ADDRESS, true, true, true);
+
+    assertEquals(1, metrics.getDepthCount(4));
+    assertEquals(1, metrics.getStageLatency(ParseStage.STREET).getCount());
+    assertEquals(0, metrics.getStageLatency(ParseStage.REGION).getCount());
+    assertTrue(metrics.getLookupsPerParse() >= 4);
+
+    parser.setInstrumentation(null);
+    parser.parse(ADDRESS, true, true, true);
+    assertEquals(1, metrics.getParseLatency().getCount());
+  }
+
+  @Test
+  @SneakyThrows
+  @DisplayName("注册到 JMX")
+  public void testMBean() {
+    ParseMetrics metrics = new ParseMetrics();
+    ObjectName name = metrics.registerMBean("com.github.daihy8759.util:type=ParseMetricsTest");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      metrics.recordParse(2_000, 3, 2);
+      assertEquals(1L, server.getAttribute(name, "ParseCount"));
+      assertEquals(1L, server.getAttribute(name, "Depth2Count"));
+      assertEquals(3.0, server.getAttribute(name, "LookupsPerParse"));
+      server.invoke(name, "reset", null, null);
+      assertEquals(0L, server.getAttribute(name, "ParseCount"));
+      assertThrows(ReflectionException.class, () -> server.invoke(name, "clear", null, null));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+
+  @Test
+  @DisplayName("直方图分位数误差")
+  public void testHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(1000, histogram.getCount());
+    long p50 = histogram.getPercentile(0.5);
+    long p99 = histogram.getPercentile(0.99);
+    assertTrue(Math.abs(p50 - 500_000) <= 500_000 / 8, String.valueOf(p50));
+    assertTrue(Math.abs(p99 - 990_000) <= 990_000 / 8, String.valueOf(p99));
+  }
+
+}
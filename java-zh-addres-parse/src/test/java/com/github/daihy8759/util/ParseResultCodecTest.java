@@ -0,0 +1,120 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.alibaba.fastjson.JSON;
+import com.github.daihy8759.util.codec.JsonReader;
+import com.github.daihy8759.util.codec.JsonWriter;
+import com.github.daihy8759.util.codec.MalformedJsonException;
+import com.github.daihy8759.util.codec.ParseResultBinary;
+import com.github.daihy8759.util.codec.ParseResultJson;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressWarmup;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParseResultCodecTest {
+
+  private static List<ParseResult> samples() {
+    List<ParseResult> results = new ArrayList<>();
+    for (String address : AddressWarmup.builtInCorpus()) {
+      results.add(ZhAddressParser.parse(address, true, true, true));
+    }
+    ParseResult special = new ParseResult();
+    special.setDetail("引号\" 反斜杠\\ 换行\n 制表\t 控制\u0001 表情😀");
+    special.setName(null);
+    results.add(special);
+    return results;
+  }
+
+  @Test
+  @DisplayName("JSON 输出与 fastjson 一致，并可读回")
+  public void testJson() throws IOException {
+    for (ParseResult result : samples()) {
+      String expected = JSON.toJSONString(result);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ParseResultJson.write(result, out);
+      assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+      ParseResult read = ParseResultJson.read(out.toByteArray(), 0, out.size());
+      assertEquals(JSON.toJSONString(JSON.parseObject(expected, ParseResult.class)),
+          JSON.toJSONString(read));
+    }
+  }
+
+  @Test
+  @DisplayName("JSON 读取忽略未知字段，ByteBuffer 位置移到值之后")
+  public void testJsonRead() {
+    byte[] bytes = ("{\"extra\": {\"a\": [1, 2.5e3, true, null, \"x\"]}, \"areaName\" : \"福清市\","
+        + " \"name\": null, \"detail\": \"\\u4e49\\u660e\\/3F\"} [1]")
+        .getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    ParseResult result = ParseResultJson.read(buffer);
+    assertEquals("福清市", result.getAreaName());
+    assertNull(result.getName());
+    assertEquals("义明/3F", result.getDetail());
+    assertEquals("", result.getCityName());
+    assertEquals(" [1]", StandardCharsets.UTF_8.decode(buffer).toString());
+
+    assertThrows(MalformedJsonException.class,
+        () -> ParseResultJson.read(new JsonReader("{\"areaName\" \"x\"}".getBytes())));
+    assertThrows(MalformedJsonException.class,
+        () -> ParseResultJson.read(new JsonReader("{\"areaName\": \"x\",}".getBytes())));
+  }
+
+  @Test
+  @DisplayName("JsonWriter 维护逗号并可复用缓冲区")
+  public void testJsonWriter() {
+    JsonWriter writer = new JsonWriter(16);
+    writer.beginObject().name("row").value(-12).name("list").beginArray().value(true)
+        .nullValue().beginObject().endObject().endArray().name("result");
+    ParseResultJson.write(writer, null);
+    writer.endObject().newLine();
+    assertEquals("{\"row\":-12,\"list\":[true,null,{}],\"result\":null}\n", writer.toString());
+    writer.reset().beginArray().value(Long.MIN_VALUE).endArray();
+    assertEquals("[-9223372036854775808]", writer.toString());
+  }
+
+  @Test
+  @DisplayName("二进制行格式往返一致，区分 null 与空字符串")
+  public void testBinary() throws IOException {
+    List<ParseResult> results = samples();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (ParseResult result : results) {
+      ParseResultBinary.write(result, out);
+    }
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    ByteBuffer buffer = ByteBuffer.allocateDirect(out.size());
+    buffer.put(out.toByteArray()).flip();
+    for (ParseResult result : results) {
+      String expected = JSON.toJSONString(result);
+      assertEquals(expected, JSON.toJSONString(ParseResultBinary.read(in)));
+      assertEquals(expected, JSON.toJSONString(ParseResultBinary.read(buffer)));
+    }
+    assertNull(ParseResultBinary.read(in));
+    assertNull(ParseResultBinary.read(buffer));
+
+    ParseResult last = results.get(results.size() - 1);
+    byte[] row = ParseResultBinary.toBytes(last);
+    assertNull(ParseResultBinary.read(ByteBuffer.wrap(row)).getName());
+    ByteBuffer small = ByteBuffer.allocate(row.length - 1);
+    assertThrows(BufferOverflowException.class, () -> ParseResultBinary.write(last, small));
+    assertEquals(0, small.position());
+    ByteBuffer truncated = ByteBuffer.wrap(row, 0, row.length - 1);
+    assertThrows(IllegalArgumentException.class, () -> ParseResultBinary.read(truncated));
+    assertEquals(0, truncated.position());
+    assertArrayEquals(row, ParseResultBinary.toBytes(ParseResultBinary.read(ByteBuffer.wrap(row))));
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.ParseTrace;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParseTraceTest {
+
+  private static final String ADDRESS = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+
+  @AfterEach
+  public void tearDown() {
+    ZhAddressParser.disableTracing();
+    ZhAddressParser.disableResultCache();
+  }
+
+  @Test
+  @DisplayName("返回解析过程")
+  public void testTrace() {
+    ParseTrace trace = ZhAddressParser.trace(ADDRESS, true, true, true);
+    assertEquals(Arrays.asList("福建省福州市福清市石竹街道义明综合楼3F", "张三"),
+        trace.getFragments());
+    ParseTrace.RegionStep step = trace.getRegions().get(0);
+    assertEquals("义明综合楼3F", step.getRemaining());
+    assertEquals("350181", trace.getResult().getAreaCode());
+    assertEquals(step.getCode(), trace.getResult().getStreetCode());
+    assertEquals(Arrays.asList("张三", "义明综合楼3F"), trace.getNameCandidates());
+    assertFalse(trace.isCacheHit());
+    assertTrue(trace.toString().contains("张三"));
+  }
+
+  @Test
+  @DisplayName("按比例采样")
+  public void testSampling() {
+    List<ParseTrace> traces = new ArrayList<>();
+    ZhAddressParser.enableTracing(1, traces::add);
+    ZhAddressParser.enableResultCache(16, null);
+    ParseResult result = ZhAddressParser.parse(ADDRESS, true, true, true);
+    ZhAddressParser.parse(ADDRESS, true, true, true);
+    assertEquals(2, traces.size());
+    assertEquals(result.getName(), traces.get(0).getResult().getName());
+    assertFalse(traces.get(0).isCacheHit());
+    assertTrue(traces.get(1).isCacheHit());
+    assertTrue(traces.get(1).getRegions().isEmpty());
+
+    ZhAddressParser.disableTracing();
+    ZhAddressParser.parse(ADDRESS, true, true, true);
+    assertEquals(2, traces.size());
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.model.AddressResult;
+import com.github.daihy8759.util.parse.AddressParser;
+import com.github.daihy8759.util.parse.RegionMatching;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RegionMatchingTest {
+
+  private static AddressParser parser;
+
+  @BeforeAll
+  public static void setUp() {
+    parser = new AddressParser(new DictionaryAreaRepository(AreaSnapshot.load()));
+    parser.setRegionMatching(RegionMatching.SCORED);
+  }
+
+  @Test
+  @DisplayName("重名区县由下级街道区分")
+  public void testDuplicateArea() {
+    AddressResult result = parser.parseAddress("鼓楼区鼓东街道和平街88号", false, false, false);
+    assertEquals("350102", result.getAreaCode());
+    assertEquals("福州市", result.getCityName());
+    assertEquals("福建省", result.getProvinceName());
+    assertEquals("350102001", result.getStreetCode());
+    assertEquals("和平街88号", result.getDetail());
+  }
+
+  @Test
+  @DisplayName("无法区分时不采纳")
+  public void testAmbiguous() {
+    AddressResult result = parser.parseAddress("鼓楼区人民路1号", false, false, false);
+    assertEquals(0, result.getDepth());
+    assertEquals("鼓楼区人民路1号", result.getDetail());
+  }
+
+  @Test
+  @DisplayName("完整匹配的市优先于省的前缀")
+  public void testFullNameFirst() {
+    AddressResult result = parser.parseAddress("吉林市船营区人民路1号", false, false, false);
+    assertEquals("2202", result.getCityCode());
+    assertEquals("220204", result.getAreaCode());
+    assertEquals("人民路1号", result.getDetail());
+
+    parser.setRegionMatching(RegionMatching.PREFIX);
+    try {
+      assertEquals("", parser.parseAddress("吉林市船营区人民路1号", false, false, false).getCityCode());
+    } finally {
+      parser.setRegionMatching(RegionMatching.SCORED);
+    }
+  }
+
+  @Test
+  @DisplayName("上级已知时只在其下级中选择")
+  public void testKnownParent() {
+    AddressResult result = parser.parseAddress("江苏省徐州市 鼓楼区 人民路1号", false, false, false);
+    assertEquals("320302", result.getAreaCode());
+  }
+
+}
@@ -0,0 +1,100 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.daihy8759.util.cache.BoundedCache;
+import com.github.daihy8759.util.cache.CacheStats;
+import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.ZhAddressParser;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ResultCacheTest {
+
+  @AfterEach
+  public void tearDown() {
+    ZhAddressParser.disableResultCache();
+  }
+
+  @Test
+  @DisplayName("缓存命中返回副本")
+  public void testResultCache() {
+    ZhAddressParser.enableResultCache(16, null);
+    String address = "福建省福州市福清市石竹街道义明综合楼3F，15000000000，张三";
+    ParseResult first = ZhAddressParser.parse(address, true, true, true);
+    first.setName("李四");
+    // 清洗后相同的地址命中同一条缓存
+    ParseResult second = ZhAddressParser.parse(address.replace("，", " "), true, true, true);
+    assertNotSame(first, second);
+    assertEquals("张三", second.getName());
+    assertEquals("350181", second.getAreaCode());
+    // 解析选项不同不命中
+    ParseResult third = ZhAddressParser.parse(address, false, true, true);
+    assertEquals("", third.getName());
+
+    CacheStats stats = ZhAddressParser.resultCacheStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(2, stats.getMissCount());
+    assertEquals(2, stats.getSize());
+  }
+
+  @Test
+  @DisplayName("按容量淘汰")
+  public void testSizeEviction() {
+    BoundedCache<String, String> cache = new BoundedCache<>(2, null);
+    cache.put("a", "1");
+    cache.put("b", "2");
+    // a 被访问过，淘汰 b
+    assertNotNull(cache.get("a"));
+    cache.put("c", "3");
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals("3", cache.get("c"));
+    assertEquals(1, cache.stats().getEvictionCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("槽位按需扩容，写满后才淘汰")
+  public void testGrowth() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, null);
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(100, cache.size());
+    assertEquals(0, cache.stats().getEvictionCount());
+    // 重复写入沿用原槽位
+    cache.put(50, -1);
+    assertEquals(-1, cache.get(50));
+    assertEquals(100, cache.size());
+    for (int i = 100; i < 110; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(100, cache.size());
+    assertEquals(10, cache.stats().getEvictionCount());
+    assertNull(cache.get(0));
+    assertEquals(109, cache.get(109));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    cache.put(1, 1);
+    assertEquals(1, cache.get(1));
+  }
+
+  @Test
+  @DisplayName("按时间淘汰")
+  public void testExpire() throws InterruptedException {
+    BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMillis(20));
+    cache.put("a", "1");
+    assertEquals("1", cache.get("a"));
+    Thread.sleep(40);
+    assertNull(cache.get("a"));
+    assertEquals(1, cache.stats().getEvictionCount());
+    assertEquals(0, cache.size());
+  }
+}
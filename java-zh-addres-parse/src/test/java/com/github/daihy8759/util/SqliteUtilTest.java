@@ -0,0 +1,69 @@
+package com.github.daihy8759.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.daihy8759.util.db.SqliteUtil;
+import com.github.daihy8759.util.model.Area;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SqliteUtilTest {
+
+  @Test
+  @DisplayName("查询结果缓存")
+  public void testCache() {
+    SqliteUtil.clearCache();
+    long prefixHits = SqliteUtil.prefixCacheStats().getHitCount();
+    long codeHits = SqliteUtil.codeCacheStats().getHitCount();
+
+    List<Area> areaList = SqliteUtil.getArea("35", "福州", 2);
+    assertEquals(1, areaList.size());
+    // 列表只读，其中的区划是副本，修改不影响缓存
+    assertThrows(UnsupportedOperationException.class, areaList::clear);
+    areaList.get(0).setName("修改");
+    List<Area> cached = SqliteUtil.getArea("35", "福州", 2);
+    assertEquals(1, cached.size());
+    assertEquals("福州市", cached.get(0).getName());
+    assertEquals(prefixHits + 1, SqliteUtil.prefixCacheStats().getHitCount());
+
+    // 前缀查询到的区划直接进入编码缓存
+    assertEquals(cached.get(0), SqliteUtil.getAreaSingle("3501", 2));
+    assertEquals(codeHits + 1, SqliteUtil.codeCacheStats().getHitCount());
+
+    assertNull(SqliteUtil.getAreaSingle("0000", 2));
+    assertNull(SqliteUtil.getAreaSingle("0000", 2));
+    assertEquals(codeHits + 2, SqliteUtil.codeCacheStats().getHitCount());
+  }
+
+  @Test
+  @DisplayName("上级已知时同一上级只查询一次下级")
+  public void testChildrenCache() {
+    SqliteUtil.clearCache();
+    long childrenMisses = SqliteUtil.childrenCacheStats().getMissCount();
+
+    assertEquals("350102", SqliteUtil.getArea("3501", "鼓楼", 3).get(0).getCode());
+    assertEquals(13, SqliteUtil.getArea("3501", "", 3).size());
+    assertTrue(SqliteUtil.getArea("3501", "鼓楼区x", 3).isEmpty());
+    assertEquals(childrenMisses + 1, SqliteUtil.childrenCacheStats().getMissCount());
+  }
+
+  @Test
+  @DisplayName("查询使用索引")
+  public void testQueryPlan() {
+    Map<String, String> plans = SqliteUtil.explainQueryPlans();
+    assertEquals(3, plans.size());
+    plans.forEach((sql, plan) -> {
+      assertTrue(plan.startsWith("SEARCH"), sql + " -> " + plan);
+      assertFalse(plan.contains("SCAN"), sql + " -> " + plan);
+    });
+    // 范围查询与前缀匹配一致
+    assertEquals(4, SqliteUtil.getArea("", "鼓楼", 3).size());
+    assertEquals("350102", SqliteUtil.getArea("3501", "鼓楼", 3).get(0).getCode());
+  }
+}
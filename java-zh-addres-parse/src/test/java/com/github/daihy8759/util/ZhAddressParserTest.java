@@ -1,16 +1,31 @@
 package com.github.daihy8759.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.github.daihy8759.util.db.AreaRepository;
+import com.github.daihy8759.util.db.AreaSnapshot;
+import com.github.daihy8759.util.db.DictionaryAreaRepository;
+import com.github.daihy8759.util.model.Area;
+import com.github.daihy8759.util.model.BatchParseResult;
 import com.github.daihy8759.util.model.ParseResult;
+import com.github.daihy8759.util.parse.AddressParser;
 import com.github.daihy8759.util.parse.ZhAddressParser;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -64,6 +79,130 @@ public class ZhAddressParserTest {
     assertEquals("垫江县", parseResult.getAreaName());
   }
 
+  @Test
+  @DisplayName("民族自治地方简称")
+  public void testAlias() {
+    ParseResult parseResult = ZhAddressParser.parse("湖北省恩施州巴东县信陵镇解放路1号 张三", true,
+        true, true);
+    assertEquals("恩施土家族苗族自治州", parseResult.getCityName());
+    assertEquals("巴东县", parseResult.getAreaName());
+    assertEquals("解放路1号", parseResult.getDetail());
+    parseResult = ZhAddressParser.parse("广西省南宁市青秀区民族大道100号", false, false, false);
+    assertEquals("广西壮族自治区", parseResult.getProvinceName());
+    assertEquals("青秀区", parseResult.getAreaName());
+  }
+
+  @Test
+  @DisplayName("分组书写的电话号码")
+  public void testGroupedPhone() {
+    assertEquals("13812345678",
+        ZhAddressParser.parse("北京市东城区 138-1234-5678", true, true, true).getPhone());
+    assertEquals("13812345678",
+        ZhAddressParser.parse("北京市东城区 138 1234 5678", true, true, true).getPhone());
+    ParseResult parseResult = ZhAddressParser.parse("北京市东城区 0755 1234 5678 王晓光", true, true,
+        true);
+    assertEquals("075512345678", parseResult.getPhone());
+    assertEquals("王晓光", parseResult.getName());
+  }
+
+  @Test
+  @DisplayName("批量解析")
+  public void testParseBatch() {
+    List<String> addresses = Arrays.asList("王晓光 重庆市 垫江县 太平镇，13311111111", "北京市东城区", "",
+        "王晓光 重庆市 垫江县 太平镇，13311111111");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<BatchParseResult> results = ZhAddressParser.parseBatch(addresses, true, true, true,
+          executor);
+      assertEquals(addresses.size(), results.size());
+      for (int i = 0; i < results.size(); i++) {
+        BatchParseResult result = results.get(i);
+        assertTrue(result.isSuccess());
+        assertEquals(i, result.getIndex());
+        assertEquals(addresses.get(i), result.getAddress());
+      }
+      assertEquals("垫江县", results.get(0).getResult().getAreaName());
+      assertEquals("东城区", results.get(1).getResult().getAreaName());
+      assertEquals("", results.get(2).getResult().getProvinceName());
+      assertEquals("13311111111", results.get(3).getResult().getPhone());
+      assertNotSame(results.get(0).getResult(), results.get(3).getResult());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("批量解析：单条失败不影响其他地址，重复地址只解析一次")
+  public void testParseBatchFailureAndDuplicates() {
+    String address = "王晓光 重庆市 垫江县 太平镇，13311111111";
+    List<String> addresses = Arrays.asList(address, "火星基地1号", "北京市东城区", address);
+    FailingRepository repository = new FailingRepository(
+        new DictionaryAreaRepository(AreaSnapshot.load()));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<BatchParseResult> results = new AddressParser(repository)
+          .parseBatch(addresses, true, true, true, executor);
+      assertEquals(addresses.size(), results.size());
+
+      BatchParseResult failed = results.get(1);
+      assertFalse(failed.isSuccess());
+      assertNull(failed.getResult());
+      assertTrue(failed.getError() instanceof IllegalStateException);
+      assertEquals("火星基地1号", failed.getAddress());
+
+      assertTrue(results.get(0).isSuccess());
+      assertTrue(results.get(2).isSuccess());
+      assertTrue(results.get(3).isSuccess());
+      assertEquals("东城区", results.get(2).getResult().getAreaName());
+      assertEquals(3, results.get(3).getIndex());
+      assertEquals(JSON.toJSONString(results.get(0).getResult()),
+          JSON.toJSONString(results.get(3).getResult()));
+      results.get(0).getResult().setAreaName("");
+      assertEquals("垫江县", results.get(3).getResult().getAreaName());
+      // 三个不同的地址，各解析一次
+      assertEquals(3, repository.parses.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * 查询以“火星”开头的省份时抛出异常，并记录解析次数；字典仓库本身不暴露字典，解析器走逐级查询
+   */
+  private static class FailingRepository implements AreaRepository {
+
+    private final AreaRepository delegate;
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private FailingRepository(AreaRepository delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public AreaRepository snapshot() {
+      parses.incrementAndGet();
+      return this;
+    }
+
+    @Override
+    public List<Area> findByPrefix(String parentCode, String namePrefix, int level) {
+      if (level == 1 && namePrefix.startsWith("火星")) {
+        throw new IllegalStateException("unknown province " + namePrefix);
+      }
+      return delegate.findByPrefix(parentCode, namePrefix, level);
+    }
+
+    @Override
+    public List<Area> findChildren(String parentCode, int level) {
+      return delegate.findChildren(parentCode, level);
+    }
+
+    @Override
+    public Area findByCode(String code, int level) {
+      return delegate.findByCode(code, level);
+    }
+  }
+
 //  @Test
 //  @DisplayName("issue")
 //  public void testIssue() {
@@ -91,4 +230,17 @@ public class ZhAddressParserTest {
       i++;
     }
   }
+
+  @Test
+  @DisplayName("姓名识别")
+  public void testName() {
+    // 取最短的姓名片段，复姓也能识别
+    ParseResult parseResult = ZhAddressParser.parse("福建省福州市鼓楼区 东街街道人民路1号 上官婉儿 13111111111",
+        true, true, true);
+    assertEquals("上官婉儿", parseResult.getName());
+    assertEquals("人民路1号", parseResult.getDetail());
+    parseResult = ZhAddressParser.parse("福州市鼓楼区人民路1号 收件人孙女士妈妈 王先生", true, true, true);
+    assertEquals("王先生", parseResult.getName());
+    assertEquals("人民路1号孙女士妈妈", parseResult.getDetail());
+  }
 }